@@ -2,6 +2,8 @@ package com.xiangxi.message.api;
 
 import com.xiangxi.message.common.exception.MessageSendException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 消息发送器核心接口
  * <p>
@@ -69,6 +71,20 @@ public interface MessageSender<C, M, R> {
     default String routeKey() {
         return type() + ":" + channel();
     }
+
+    /**
+     * 配置对应的厂商账号标识
+     * <p>
+     * 厂商的 QPS 等配额通常按账号（如腾讯云 SdkAppId、阿里云 AccessKeyId）计算，
+     * 限流等发送保护以 routeKey + 账号为单位统计。返回值不应包含密钥等敏感信息。
+     * </p>
+     *
+     * @param config 发送配置
+     * @return 账号标识，默认返回 null 表示不区分账号
+     */
+    default String accountKey(C config) {
+        return null;
+    }
     
     /**
      * 发送消息
@@ -90,6 +106,30 @@ public interface MessageSender<C, M, R> {
      * @throws IllegalArgumentException 当参数为null或无效时抛出
      */
     R send(C config, M message) throws MessageSendException;
+
+    /**
+     * 异步发送消息
+     * <p>
+     * 语义与 {@link #send(Object, Object)} 相同，但不阻塞调用线程等待渠道响应。
+     * 发送失败时返回的 Future 以 {@link MessageSendException} 异常完成；
+     * 取消 Future 应尽力取消底层的网络调用。
+     * </p>
+     * <p>
+     * 默认实现直接在调用线程上执行 {@link #send(Object, Object)} 并返回已完成的 Future，
+     * 基于 HTTP 的实现应覆盖此方法，使用非阻塞 IO 完成发送。
+     * </p>
+     *
+     * @param config 发送配置，不能为null
+     * @param message 消息内容，不能为null
+     * @return 发送结果的 Future
+     */
+    default CompletableFuture<R> sendAsync(C config, M message) {
+        try {
+            return CompletableFuture.completedFuture(send(config, message));
+        } catch (MessageSendException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
 
 
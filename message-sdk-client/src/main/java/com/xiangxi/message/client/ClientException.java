@@ -1,5 +1,8 @@
 package com.xiangxi.message.client;
 
+import com.xiangxi.message.common.exception.VendorError;
+import com.xiangxi.message.common.model.HttpTimings;
+
 import java.io.Serial;
 
 /**
@@ -22,7 +25,7 @@ import java.io.Serial;
  * @author message-sdk
  * @since 1.0.0
  */
-public class ClientException extends Exception {
+public class ClientException extends Exception implements VendorError {
     
     @Serial
     private static final long serialVersionUID = 1L;
@@ -48,6 +51,11 @@ public class ClientException extends Exception {
      */
     private Integer httpStatusCode;
 
+    /**
+     * 失败调用的网络阶段耗时（请求启用耗时记录时）
+     */
+    private HttpTimings timings;
+
     /**
      * 创建客户端异常
      *
@@ -130,6 +138,7 @@ public class ClientException extends Exception {
      *
      * @return 错误码字符串
      */
+    @Override
     public String getErrorCode() {
         return errorCode;
     }
@@ -148,6 +157,7 @@ public class ClientException extends Exception {
      *
      * @return HTTP 状态码，如果不适用则返回 null
      */
+    @Override
     public Integer getHttpStatusCode() {
         return httpStatusCode;
     }
@@ -161,11 +171,30 @@ public class ClientException extends Exception {
         this.httpStatusCode = httpStatusCode;
     }
 
+    /**
+     * 获取失败调用的网络阶段耗时
+     *
+     * @return 阶段耗时，请求未启用耗时记录或调用未发出时为 null
+     */
+    public HttpTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * 设置失败调用的网络阶段耗时
+     *
+     * @param timings 阶段耗时
+     */
+    public void setTimings(HttpTimings timings) {
+        this.timings = timings;
+    }
+
     /**
      * 判断是否为网络错误
      *
      * @return 如果是网络错误返回 true
      */
+    @Override
     public boolean isNetworkError() {
         return "NetworkError".equals(errorCode) || getCause() instanceof java.net.UnknownHostException
                 || getCause() instanceof java.net.ConnectException
@@ -177,6 +206,7 @@ public class ClientException extends Exception {
      *
      * @return 如果是超时错误返回 true
      */
+    @Override
     public boolean isTimeoutError() {
         return "TimeoutError".equals(errorCode) || getCause() instanceof java.net.SocketTimeoutException
                 || getCause() instanceof java.util.concurrent.TimeoutException;
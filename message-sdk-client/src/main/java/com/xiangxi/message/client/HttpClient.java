@@ -1,15 +1,30 @@
 package com.xiangxi.message.client;
 
 import com.xiangxi.message.client.adapter.OkHttpRequestAdapter;
+import com.xiangxi.message.common.util.RetryBudget;
 import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.Proxy;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +33,9 @@ import org.slf4j.LoggerFactory;
  * 企业级 HTTP 客户端封装
  * <p>
  * 提供简洁的 API，封装常用功能：超时、默认头、异常处理、日志记录。
- * 不自动重试，提供手动重试方法供用户控制。
+ * 默认不自动重试；通过 {@link Builder#retryPolicy(RetryPolicy)} 或 {@link HttpRequest} 上的
+ * retries / retryBackoff 启用重试，重试只针对可重试的失败，退避由定时器调度，不占用线程。
+ * 所有请求与重试计入进程级 {@link RetryBudget}，预算耗尽时不再重试，以 {@link RetryBudget#RETRY_BUDGET_EXHAUSTED} 失败。
  * </p>
  *
  * <p>使用示例：</p>
@@ -36,8 +53,15 @@ import org.slf4j.LoggerFactory;
  *     .build();
  * String response = client.doRequest(request, body -> body);
  *
- * // 手动重试
- * String result = client.retry(() -> client.doRequest(request, body -> body), 3);
+ * // 异步发送（不占用调用线程）
+ * CompletableFuture<String> future = client.doRequestAsync(request, body -> body);
+ *
+ * // 按请求启用重试（指数退避 + 抖动）
+ * HttpRequest retrying = HttpRequest.builder("https://api.example.com/data")
+ *     .retries(2)
+ *     .retryBackoff(Duration.ofMillis(200))
+ *     .build();
+ * CompletableFuture<String> retried = client.doRequestAsync(retrying, body -> body);
  * }</pre>
  *
  * @author message-sdk
@@ -56,11 +80,18 @@ public class HttpClient {
      * 默认最大响应体大小（10MB）
      */
     private static final long DEFAULT_MAX_RESPONSE_BODY_SIZE = 10 * 1024 * 1024;
+
+    /**
+     * 当前线程上正在执行的 {@link #retry(RetryableAction, int, long)}，记录其中请求计入的重试预算键
+     */
+    private static final ThreadLocal<RetryScope> RETRY_SCOPE = new ThreadLocal<>();
     
     private final HttpConnection connection;
     private final Map<String, String> defaultHeaders;
     private final OkHttpRequestAdapter requestAdapter;
     private final long maxResponseBodySize;
+    private final RetryPolicy retryPolicy;
+    private final String retryBudgetKey;
 
     /**
      * 私有构造函数，使用 Builder 创建实例
@@ -74,22 +105,28 @@ public class HttpClient {
         this.maxResponseBodySize = builder.maxResponseBodySize > 0 
             ? builder.maxResponseBodySize 
             : DEFAULT_MAX_RESPONSE_BODY_SIZE;
+        this.retryPolicy = builder.retryPolicy;
+        this.retryBudgetKey = builder.retryBudgetKey;
     }
 
     /**
      * 发送请求并解析响应
      * <p>
-     * 此方法不自动重试，如果请求失败会直接抛出异常。
-     * 如需重试，请使用 {@link #retry(Supplier, int)} 方法。
+     * 未启用重试策略时直接在调用线程上执行，失败立即抛出异常；
+     * 启用后经由 {@link #doRequestAsync(HttpRequest, ResponseParse)} 的重试引擎执行，调用线程只等待最终结果。
      * </p>
      *
      * @param req     请求对象
-     * @param parser  响应解析器（字符串 -> 目标对象）
+     * @param parser  响应解析器（字符串 -> 目标对象）；{@link StreamingResponseParse} 按流式解析
      * @param <T>     响应类型
      * @return 解析后的响应对象
      * @throws ClientException 网络/服务端/解析异常时抛出
      */
     public <T> T doRequest(HttpRequest req, ResponseParse<T> parser) throws ClientException {
+        if (retryPolicy.with(req).isEnabled()) {
+            return await(doRequestAsync(req, parser));
+        }
+        countAttempt(req);
         try {
             // 适配请求
             Request request = requestAdapter.adaptRequest(req);
@@ -99,81 +136,345 @@ public class HttpClient {
             }
             
             // 执行请求，使用 try-with-resources 确保 Response 正确关闭
-            try (Response resp = connection.doRequest(request)) {
-                // 检查响应状态码
-                if (resp.code() != HTTP_RSP_OK) {
-                    String errorMsg = String.format("HTTP request failed with status code %d: %s", 
-                            resp.code(), resp.message());
-                    if (logger.isWarnEnabled()) {
-                        logger.warn("Request failed: {} - {}", req.getUrl(), errorMsg);
-                    }
-                    throw new ClientException(errorMsg, "", "HTTP_" + resp.code(), resp.code());
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = connection.doRequest(request);
+            } catch (IOException e) {
+                observe(request, 0, start);
+                throw e;
+            }
+            observe(request, response.code(), start);
+            try (Response resp = response) {
+                return handleResponse(resp, req, parser);
+            }
+            
+        } catch (Exception e) {
+            throw toClientException(e, req);
+        }
+    }
+
+    /**
+     * 异步发送请求并解析响应
+     * <p>
+     * 基于 {@link HttpConnection#doRequestAsync(Request)}（OkHttp {@code Call.enqueue}）实现，
+     * 调用线程不会阻塞等待网络往返；响应的读取与解析在 OkHttp Dispatcher 线程上完成。
+     * 取消返回的 Future 会取消底层的 HTTP 调用。
+     * </p>
+     * <p>
+     * 启用重试策略时，可重试的失败在退避后由定时器重新发起（请求只适配一次），
+     * 不可重试的失败、重试次数用尽或超过截止时长时以最后一次失败完成。
+     * </p>
+     *
+     * @param req    请求对象
+     * @param parser 响应解析器（字符串 -> 目标对象）；{@link StreamingResponseParse} 按流式解析
+     * @param <T>    响应类型
+     * @return 解析结果的 Future，失败时以 {@link ClientException} 异常完成
+     */
+    public <T> CompletableFuture<T> doRequestAsync(HttpRequest req, ResponseParse<T> parser) {
+        Request request;
+        try {
+            request = requestAdapter.adaptRequest(req);
+        } catch (ClientException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        countAttempt(req);
+        RetryPolicy policy = retryPolicy.with(req);
+        if (policy.isEnabled()) {
+            return new RetryingCall<>(request, req, parser, policy).start();
+        }
+        return execute(request, req, parser);
+    }
+
+    /**
+     * 异步执行一次 HTTP 调用
+     */
+    private <T> CompletableFuture<T> execute(Request request, HttpRequest req, ResponseParse<T> parser) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Enqueuing HTTP request: {} {}", req.getMethod(), req.getUrl());
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Response> pending = connection.doRequestAsync(request);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.whenComplete((resp, error) -> {
+            if (error != null) {
+                if (!pending.isCancelled()) {
+                    observe(request, 0, start);
                 }
-                
-                // 读取响应体
-                ResponseBody responseBody = resp.body();
-                if (responseBody == null) {
-                    if (logger.isWarnEnabled()) {
-                        logger.warn("Response body is null for request: {}", req.getUrl());
-                    }
-                    throw new ClientException("Response body is null");
+                result.completeExceptionally(toClientException(error, req));
+                return;
+            }
+            observe(request, resp.code(), start);
+            try (resp) {
+                result.complete(handleResponse(resp, req, parser));
+            } catch (Exception e) {
+                result.completeExceptionally(toClientException(e, req));
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                pending.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 通知 {@link HttpConnectionRegistry} 中注册的观测
+     */
+    private static void observe(Request request, int statusCode, long start) {
+        HttpConnectionRegistry.shared().notifyExchange(request.url().host(), statusCode, System.nanoTime() - start);
+    }
+
+    /**
+     * 重试预算的统计键：Builder 指定的键，未指定时为请求主机
+     */
+    private String budgetKey(HttpRequest req) {
+        if (retryBudgetKey != null) {
+            return retryBudgetKey;
+        }
+        HttpUrl url = HttpUrl.parse(req.getUrl());
+        return url != null ? url.host() : req.getUrl();
+    }
+
+    /**
+     * 首次请求计入重试预算
+     * <p>
+     * 在 {@link #retry(RetryableAction, int, long)} 中执行时只有第一次请求计数，
+     * 之后的请求属于重试，已由 {@link RetryBudget#tryRetry(String)} 计数；同时记下统计键供重试申请额度时使用。
+     * 上层以 {@link RetryBudget#asRetry(java.util.function.Supplier)} 发起的重试（如按接收人的部分重试）不计数。
+     * </p>
+     */
+    private void countAttempt(HttpRequest req) {
+        if (RetryBudget.isRetrying()) {
+            return;
+        }
+        String key = budgetKey(req);
+        RetryScope scope = RETRY_SCOPE.get();
+        if (scope == null) {
+            RetryBudget.shared().onAttempt(key);
+        } else if (scope.key == null) {
+            scope.key = key;
+            RetryBudget.shared().onAttempt(key);
+        }
+    }
+
+    /**
+     * 重试预算耗尽时的异常，保留最后一次失败作为原因
+     */
+    private ClientException budgetExhausted(String key, Throwable lastError) {
+        if (logger.isWarnEnabled()) {
+            logger.warn("Retry budget exhausted, not retrying: key={}, error={}", key, lastError.getMessage());
+        }
+        ClientException e = new ClientException("Retry budget exhausted for " + key + ": " + lastError.getMessage(),
+                lastError);
+        e.setErrorCode(RetryBudget.RETRY_BUDGET_EXHAUSTED);
+        return e;
+    }
+
+    /**
+     * 阻塞等待异步调用的结果，等待被中断时取消调用
+     */
+    private static <T> T await(CompletableFuture<T> future) throws ClientException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ClientException("Request interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClientException ce) {
+                throw ce;
+            }
+            throw new ClientException("Unexpected error: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 一次带重试的调用：每次失败后判断是否可重试，按退避时长由定时器重新发起；
+     * 截止时长到期时以超时失败完成并取消进行中的请求，结果被取消时同样取消进行中的请求
+     */
+    private final class RetryingCall<T> {
+        private final Request request;
+        private final HttpRequest req;
+        private final ResponseParse<T> parser;
+        private final RetryPolicy policy;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long deadlineNanos;
+        private volatile CompletableFuture<T> current;
+
+        RetryingCall(Request request, HttpRequest req, ResponseParse<T> parser, RetryPolicy policy) {
+            this.request = request;
+            this.req = req;
+            this.parser = parser;
+            this.policy = policy;
+            this.deadlineNanos = policy.deadline() != null ? System.nanoTime() + policy.deadline().toNanos() : 0;
+        }
+
+        CompletableFuture<T> start() {
+            result.whenComplete((value, error) -> {
+                CompletableFuture<T> attempt = current;
+                if (attempt != null && !attempt.isDone()) {
+                    attempt.cancel(true);
                 }
-                
-                // 检查响应体大小（如果 Content-Length 头存在）
-                long contentLength = responseBody.contentLength();
-                if (contentLength > 0 && contentLength > maxResponseBodySize) {
-                    String msg = String.format("Response body too large: %d bytes (max: %d bytes)", 
-                            contentLength, maxResponseBodySize);
-                    if (logger.isErrorEnabled()) {
-                        logger.error(msg);
+            });
+            if (policy.deadline() != null) {
+                // orTimeout 在计时 Future 先完成时取消定时任务，调用结束后不会在定时器队列中滞留到截止时间
+                CompletableFuture<Void> deadline = new CompletableFuture<Void>()
+                        .orTimeout(policy.deadline().toNanos(), TimeUnit.NANOSECONDS);
+                deadline.whenComplete((ignored, timeout) -> {
+                    if (timeout instanceof TimeoutException) {
+                        result.completeExceptionally(new ClientException("Request deadline exceeded after "
+                                + policy.deadline().toMillis() + "ms: " + req.getUrl(), "", "TimeoutError"));
                     }
-                    throw new ClientException(msg);
+                });
+                result.whenComplete((value, error) -> deadline.complete(null));
+            }
+            attempt(0);
+            return result;
+        }
+
+        private void attempt(int retry) {
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<T> attempt = execute(request, req, parser);
+            current = attempt;
+            if (result.isDone()) {
+                attempt.cancel(true);
+                return;
+            }
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                    return;
                 }
-                
-                // 读取响应体内容（如果 Content-Length 为 -1，会在读取时检查实际大小）
-                String body = readResponseBody(responseBody, req.getUrl(), maxResponseBodySize);
-                
-                // 解析响应
-                return parseResponse(body, parser, req.getUrl());
+                if (result.isDone()) {
+                    return;
+                }
+                if (retry >= policy.maxRetries() || !RetryPolicy.isRetryable(error)) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                long delay = policy.backoffNanos(retry);
+                if (deadlineNanos != 0 && System.nanoTime() + delay - deadlineNanos >= 0) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                String key = budgetKey(req);
+                if (!RetryBudget.shared().tryRetry(key)) {
+                    result.completeExceptionally(budgetExhausted(key, error));
+                    return;
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Retrying HTTP request (attempt {}/{}) after {}ms: {} - {}", retry + 1,
+                            policy.maxRetries(), TimeUnit.NANOSECONDS.toMillis(delay), req.getUrl(), error.getMessage());
+                }
+                CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, Runnable::run)
+                        .execute(() -> attempt(retry + 1));
+            });
+        }
+    }
+
+    /**
+     * 校验状态码、读取并解析响应
+     *
+     * @param resp   响应对象（由调用方负责关闭）
+     * @param req    请求对象（用于日志）
+     * @param parser 响应解析器
+     * @param <T>    响应类型
+     * @return 解析后的响应对象
+     * @throws ClientException 状态码非 200、响应体为空/过大或解析失败时抛出
+     */
+    private <T> T handleResponse(Response resp, HttpRequest req, ResponseParse<T> parser) throws ClientException {
+        // 检查响应状态码
+        if (resp.code() != HTTP_RSP_OK) {
+            String errorMsg = String.format("HTTP request failed with status code %d: %s", 
+                    resp.code(), resp.message());
+            if (logger.isWarnEnabled()) {
+                logger.warn("Request failed: {} - {}", req.getUrl(), errorMsg);
             }
-            
-        } catch (ClientException e) {
-            throw e;
-        } catch (IOException e) {
+            throw new ClientException(errorMsg, "", "HTTP_" + resp.code(), resp.code());
+        }
+        
+        // 读取响应体
+        ResponseBody responseBody = resp.body();
+        if (responseBody == null) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Response body is null for request: {}", req.getUrl());
+            }
+            throw new ClientException("Response body is null");
+        }
+        
+        // 检查响应体大小（如果 Content-Length 头存在）
+        long contentLength = responseBody.contentLength();
+        if (contentLength > 0 && contentLength > maxResponseBodySize) {
+            String msg = String.format("Response body too large: %d bytes (max: %d bytes)", 
+                    contentLength, maxResponseBodySize);
             if (logger.isErrorEnabled()) {
-                logger.error("Network error for request: {} - {}", req.getUrl(), e.getMessage(), e);
+                logger.error(msg);
             }
-            throw new ClientException("Network error: " + e.getMessage(), e);
-        } catch (Exception e) {
+            throw new ClientException(msg);
+        }
+        
+        // 读取并解析响应体：读取过程中按字节校验大小上限（Content-Length 缺失或不实时同样有效）
+        BufferedSource source = Okio.buffer(new BudgetSource(responseBody.source(), maxResponseBodySize));
+        Charset charset = charsetOf(responseBody);
+        if (parser instanceof StreamingResponseParse<T> streaming) {
+            // 流式解析：边读边解析，不在内存中构建完整响应字符串
+            return parseStreaming(source, charset, streaming, req.getUrl());
+        }
+        String body = readResponseBody(source, charset, req.getUrl());
+        return parseResponse(body, parser, req.getUrl());
+    }
+
+    /**
+     * 将请求过程中的异常统一转换为 {@link ClientException}，请求启用耗时记录时附加网络阶段耗时
+     *
+     * @param e   原始异常
+     * @param req 请求对象（用于日志）
+     * @return ClientException
+     */
+    private ClientException toClientException(Throwable e, HttpRequest req) {
+        ClientException ce = convertException(e, req);
+        HttpTimingRecorder recorder = req.getTimingRecorder();
+        if (recorder != null && ce.getTimings() == null) {
+            ce.setTimings(recorder.getTimings());
+        }
+        return ce;
+    }
+
+    private ClientException convertException(Throwable e, HttpRequest req) {
+        if (e instanceof ClientException ce) {
+            return ce;
+        }
+        if (e instanceof IOException) {
             if (logger.isErrorEnabled()) {
-                logger.error("Unexpected error for request: {} - {}", req.getUrl(), e.getMessage(), e);
+                logger.error("Network error for request: {} - {}", req.getUrl(), e.getMessage(), e);
             }
-            throw new ClientException("Unexpected error: " + e.getMessage(), e);
+            return new ClientException("Network error: " + e.getMessage(), e);
+        }
+        if (logger.isErrorEnabled()) {
+            logger.error("Unexpected error for request: {} - {}", req.getUrl(), e.getMessage(), e);
         }
+        return new ClientException("Unexpected error: " + e.getMessage(), e);
     }
     
     /**
      * 读取响应体内容
      *
-     * @param responseBody 响应体对象
-     * @param url          请求 URL（用于日志）
-     * @param maxSize      最大响应体大小（字节）
+     * @param source  已限制字节数的响应体数据源
+     * @param charset 响应体字符集
+     * @param url     请求 URL（用于日志）
      * @return 响应体字符串
      * @throws ClientException 如果读取失败或响应体过大
      */
-    private String readResponseBody(ResponseBody responseBody, String url, long maxSize) throws ClientException {
+    private String readResponseBody(BufferedSource source, Charset charset, String url) throws ClientException {
         try {
-            String body = responseBody.string();
-            // 如果 Content-Length 为 -1，读取后检查实际大小
-            if (body.length() > maxSize) {
-                String msg = String.format("Response body too large: %d bytes (max: %d bytes)", 
-                        body.length(), maxSize);
-                if (logger.isErrorEnabled()) {
-                    logger.error("{} for request: {}", msg, url);
-                }
-                throw new ClientException(msg);
-            }
-            return body;
+            return source.readString(charset);
+        } catch (BodyTooLargeException e) {
+            throw tooLarge(e, url);
         } catch (IOException e) {
             String msg = "Cannot read response body: " + e.getMessage();
             if (logger.isErrorEnabled()) {
@@ -183,6 +484,57 @@ public class HttpClient {
         }
     }
 
+    /**
+     * 流式解析响应体
+     *
+     * @param source  已限制字节数的响应体数据源
+     * @param charset 响应体字符集
+     * @param parser  流式响应解析器
+     * @param url     请求 URL（用于日志）
+     * @param <T>     响应类型
+     * @return 解析后的响应对象
+     * @throws ClientException 如果读取、解析失败或响应体过大
+     */
+    private <T> T parseStreaming(BufferedSource source, Charset charset,
+                                 StreamingResponseParse<T> parser, String url) throws ClientException {
+        try (Reader reader = new InputStreamReader(source.inputStream(), charset)) {
+            T result = parser.parse(reader);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Request succeeded: {}", url);
+            }
+            return result;
+        } catch (Exception e) {
+            // 解析器（如 Gson）可能将读取异常包装后抛出，需沿异常链识别超限
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof BodyTooLargeException tooLarge) {
+                    throw tooLarge(tooLarge, url);
+                }
+            }
+            if (e instanceof ClientException ce) {
+                throw ce;
+            }
+            if (logger.isErrorEnabled()) {
+                logger.error("Failed to parse response body for request: {} - {}", url, e.getMessage(), e);
+            }
+            throw new ClientException("Failed to parse response: " + e.getMessage(), e);
+        }
+    }
+
+    private ClientException tooLarge(BodyTooLargeException e, String url) {
+        if (logger.isErrorEnabled()) {
+            logger.error("{} for request: {}", e.getMessage(), url);
+        }
+        return new ClientException(e.getMessage(), e);
+    }
+
+    /**
+     * 获取响应体字符集，未声明时使用 UTF-8
+     */
+    private static Charset charsetOf(ResponseBody responseBody) {
+        MediaType contentType = responseBody.contentType();
+        return contentType != null ? contentType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
+    }
+
     /**
      * 解析响应体
      *
@@ -213,8 +565,8 @@ public class HttpClient {
     /**
      * 重试执行指定操作
      * <p>
-     * 该方法会重复执行操作，直到成功或超过最大重试次数。
-     * 每次重试前会等待指定时间（默认1秒）。
+     * 该方法会重复执行操作，直到成功、遇到不可重试的失败（见 {@link RetryPolicy#isRetryable(Throwable)}）
+     * 或超过最大重试次数。每次重试前会等待指定时间（默认1秒）。
      * </p>
      *
      * <p>使用示例：</p>
@@ -234,7 +586,9 @@ public class HttpClient {
      * @return 操作成功返回的结果
      * @throws ClientException 当所有重试都失败时抛出最后一次异常
      * @throws InterruptedException 如果重试过程中线程被中断
+     * @deprecated 等待期间占用调用线程，请改用 {@link RetryPolicy}
      */
+    @Deprecated
     public <T> T retry(RetryableAction<T> action, int maxRetries) 
             throws ClientException, InterruptedException {
         return retry(action, maxRetries, 1000);
@@ -243,7 +597,7 @@ public class HttpClient {
     /**
      * 重试执行指定操作
      * <p>
-     * 该方法会重复执行操作，直到成功或超过最大重试次数。
+     * 该方法会重复执行操作，直到成功、遇到不可重试的失败或超过最大重试次数。
      * 每次重试前会等待指定时间。
      * </p>
      *
@@ -254,7 +608,9 @@ public class HttpClient {
      * @return 操作成功返回的结果
      * @throws ClientException 当所有重试都失败时抛出最后一次异常
      * @throws InterruptedException 如果重试过程中线程被中断
+     * @deprecated 等待期间占用调用线程，请改用 {@link RetryPolicy}
      */
+    @Deprecated
     public <T> T retry(RetryableAction<T> action, int maxRetries, long delayMs) 
             throws ClientException, InterruptedException {
         if (maxRetries <= 0) {
@@ -264,6 +620,22 @@ public class HttpClient {
             throw new IllegalArgumentException("Delay must be non-negative");
         }
         
+        RetryScope outer = RETRY_SCOPE.get();
+        RetryScope scope = new RetryScope();
+        RETRY_SCOPE.set(scope);
+        try {
+            return retry(action, maxRetries, delayMs, scope);
+        } finally {
+            if (outer != null) {
+                RETRY_SCOPE.set(outer);
+            } else {
+                RETRY_SCOPE.remove();
+            }
+        }
+    }
+
+    private <T> T retry(RetryableAction<T> action, int maxRetries, long delayMs, RetryScope scope)
+            throws ClientException, InterruptedException {
         Exception lastException = null;
         for (int attempt = 0; attempt <= maxRetries; attempt++) {
             try {
@@ -279,27 +651,29 @@ public class HttpClient {
                 
             } catch (ClientException e) {
                 lastException = e;
-                if (attempt < maxRetries) {
+                if (attempt < maxRetries && RetryPolicy.isRetryable(e)) {
+                    if (scope.key == null) {
+                        // 操作未经由本客户端发出请求，首次请求按客户端级的键补记
+                        scope.key = retryBudgetKey != null ? retryBudgetKey : HttpClient.class.getSimpleName();
+                        RetryBudget.shared().onAttempt(scope.key);
+                    }
+                    String key = scope.key;
+                    if (!RetryBudget.shared().tryRetry(key)) {
+                        throw budgetExhausted(key, e);
+                    }
                     if (logger.isDebugEnabled()) {
                         logger.debug("Request failed, will retry: {}", e.getMessage());
                     }
                     continue;
                 }
-                // 最后一次重试失败，抛出异常
+                // 不可重试或最后一次重试失败，抛出异常
                 throw e;
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw e;
             } catch (Exception e) {
-                lastException = e;
-                if (attempt < maxRetries) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Request failed with exception, will retry: {}", e.getMessage());
-                    }
-                    continue;
-                }
-                // 最后一次重试失败，包装为 ClientException 抛出
-                throw new ClientException("Request failed after " + (maxRetries + 1) + " attempts", e);
+                // 非 ClientException 属于程序错误，重试无意义
+                throw new ClientException("Request failed after " + (attempt + 1) + " attempts", e);
             }
         }
         
@@ -317,6 +691,48 @@ public class HttpClient {
         return new HashMap<>(defaultHeaders);
     }
 
+    /**
+     * 一次 {@link #retry(RetryableAction, int, long)} 的预算统计状态，只在调用线程上读写
+     */
+    private static final class RetryScope {
+        private String key;
+    }
+
+    /**
+     * 限制读取字节数的数据源：累计读取超过上限时抛出 {@link BodyTooLargeException}，
+     * 每次读取最多越过上限 1 字节，超大响应不会被完整读入内存
+     */
+    private static final class BudgetSource extends ForwardingSource {
+        private final long maxBytes;
+        private long consumed;
+
+        BudgetSource(Source delegate, long maxBytes) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, Math.min(byteCount, maxBytes - consumed + 1));
+            if (read > 0) {
+                consumed += read;
+                if (consumed > maxBytes) {
+                    throw new BodyTooLargeException(maxBytes);
+                }
+            }
+            return read;
+        }
+    }
+
+    /**
+     * 响应体超过大小上限
+     */
+    static final class BodyTooLargeException extends IOException {
+        BodyTooLargeException(long maxBytes) {
+            super(String.format("Response body too large: exceeds %d bytes", maxBytes));
+        }
+    }
+
     /**
      * HttpClient 构建器
      * <p>
@@ -327,6 +743,8 @@ public class HttpClient {
         private final HttpConnection.Builder connectionBuilder = new HttpConnection.Builder();
         private final Map<String, String> defaultHeaders = new HashMap<>();
         private long maxResponseBodySize = DEFAULT_MAX_RESPONSE_BODY_SIZE;
+        private RetryPolicy retryPolicy = RetryPolicy.NONE;
+        private String retryBudgetKey;
 
         /**
          * 添加默认请求头
@@ -455,6 +873,77 @@ public class HttpClient {
             return this;
         }
 
+        /**
+         * 设置连接池参数
+         *
+         * @param maxIdleConnections 最大空闲连接数
+         * @param keepAliveSeconds   空闲连接保活时间（秒）
+         * @return 构建器实例
+         * @see HttpConnection.Builder#connectionPool(int, long)
+         */
+        public Builder connectionPool(int maxIdleConnections, long keepAliveSeconds) {
+            connectionBuilder.connectionPool(maxIdleConnections, keepAliveSeconds);
+            return this;
+        }
+
+        /**
+         * 设置异步请求的最大并发数
+         *
+         * @param maxRequests 最大并发请求数
+         * @return 构建器实例
+         */
+        public Builder maxRequests(int maxRequests) {
+            connectionBuilder.maxRequests(maxRequests);
+            return this;
+        }
+
+        /**
+         * 设置单个主机异步请求的最大并发数
+         *
+         * @param maxRequestsPerHost 单主机最大并发请求数
+         * @return 构建器实例
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            connectionBuilder.maxRequestsPerHost(maxRequestsPerHost);
+            return this;
+        }
+
+        /**
+         * 设置是否启用 HTTP/2（ALPN 协商 h2，关闭时固定 HTTP/1.1）
+         *
+         * @param enabled 是否启用
+         * @return 构建器实例
+         * @see HttpConnection.Builder#http2(boolean)
+         */
+        public Builder http2(boolean enabled) {
+            connectionBuilder.http2(enabled);
+            return this;
+        }
+
+        /**
+         * 设置是否记录网络阶段耗时（DNS、建连、TLS、写请求、首字节、连接复用）
+         *
+         * @param enabled 是否记录
+         * @return 构建器实例
+         * @see HttpConnection.Builder#recordTimings(boolean)
+         */
+        public Builder recordTimings(boolean enabled) {
+            connectionBuilder.recordTimings(enabled);
+            return this;
+        }
+
+        /**
+         * 使用 SDK 共享注册表中指定主机的连接池与调度器
+         *
+         * @param host 主机名
+         * @return 构建器实例
+         * @see HttpConnectionRegistry
+         */
+        public Builder sharedHost(String host) {
+            connectionBuilder.sharedHost(host);
+            return this;
+        }
+
         /**
          * 设置最大响应体大小（字节）
          * <p>
@@ -473,6 +962,35 @@ public class HttpClient {
             return this;
         }
 
+        /**
+         * 设置默认重试策略，请求上的 retries / retryBackoff 优先
+         * <p>
+         * 默认不重试。
+         * </p>
+         *
+         * @param retryPolicy 重试策略
+         * @return 构建器实例
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = Objects.requireNonNull(retryPolicy, "Retry policy must not be null");
+            return this;
+        }
+
+        /**
+         * 设置重试预算的统计键，通常为发送器的 routeKey（如 {@code SMS:TENCENT_SMS}）
+         * <p>
+         * 默认按请求主机统计。
+         * </p>
+         *
+         * @param key 统计键
+         * @return 构建器实例
+         * @see RetryBudget
+         */
+        public Builder retryBudgetKey(String key) {
+            this.retryBudgetKey = key;
+            return this;
+        }
+
         /**
          * 构建 HttpClient 实例
          *
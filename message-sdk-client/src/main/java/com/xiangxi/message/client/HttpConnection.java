@@ -8,6 +8,7 @@ import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
 import java.net.Proxy;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -19,6 +20,11 @@ import org.slf4j.LoggerFactory;
  * 基于 OkHttp 封装 HTTP 连接，提供统一的请求执行接口。
  * 注意：Response 对象使用后需要关闭，建议使用 try-with-resources 语句。
  * </p>
+ * <p>
+ * 网络阶段耗时：启用 {@link Builder#recordTimings(boolean)} 时，每次调用的 DNS、建连、TLS、写请求、
+ * 首字节等阶段耗时与连接是否复用由 OkHttp EventListener 记录，
+ * 通知 {@link HttpConnectionRegistry#addObserver(HttpObserver)} 注册的观测，并写入请求的 {@link HttpTimingRecorder}。
+ * </p>
  *
  * <p>使用示例：</p>
  * <pre>{@code
@@ -79,6 +85,48 @@ public record HttpConnection(OkHttpClient client) {
         return customizerClient.newCall(request).execute();
     }
 
+    /**
+     * 异步执行 HTTP 请求
+     * <p>
+     * 基于 OkHttp 的 {@link Call#enqueue(Callback)} 实现，调用线程不会阻塞，
+     * 响应在 OkHttp Dispatcher 线程上完成 Future。
+     * 取消返回的 Future 会同时取消底层的 {@link Call}。
+     * </p>
+     * <p>
+     * <strong>重要：</strong>Future 完成后得到的 Response 对象必须关闭。
+     * </p>
+     *
+     * @param request 请求对象
+     * @return 响应 Future，网络错误时以 {@link IOException} 异常完成
+     */
+    public CompletableFuture<Response> doRequestAsync(Request request) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Enqueuing request: {} {}", request.method(), request.url());
+        }
+        Call call = this.client.newCall(request);
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                // Future 已被取消时，需要自行关闭响应，避免连接泄漏
+                if (!future.complete(response)) {
+                    response.close();
+                }
+            }
+        });
+        return future;
+    }
+
     /**
      * 执行 GET 请求
      * <p>
@@ -228,6 +276,13 @@ public record HttpConnection(OkHttpClient client) {
      */
     public static class Builder {
         private final OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
+        private ConnectionPool connectionPool;
+        private int maxRequests;
+        private int maxRequestsPerHost;
+        private String sharedHost;
+        private Boolean http2;
+        private Boolean recordTimings;
+        private EventListener.Factory eventListenerFactory;
 
         /**
          * 设置连接超时时间
@@ -351,12 +406,161 @@ public record HttpConnection(OkHttpClient client) {
             return this;
         }
 
+        /**
+         * 设置连接池参数
+         * <p>
+         * OkHttp 默认保留 5 个空闲连接、保活 5 分钟。
+         * </p>
+         *
+         * @param maxIdleConnections 最大空闲连接数
+         * @param keepAliveSeconds   空闲连接保活时间（秒）
+         * @return 构建器实例
+         */
+        public Builder connectionPool(int maxIdleConnections, long keepAliveSeconds) {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("Max idle connections must be non-negative");
+            }
+            if (keepAliveSeconds <= 0) {
+                throw new IllegalArgumentException("Keep-alive must be greater than 0");
+            }
+            this.connectionPool = new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+            return this;
+        }
+
+        /**
+         * 设置异步请求的最大并发数（OkHttp 默认 64）
+         *
+         * @param maxRequests 最大并发请求数
+         * @return 构建器实例
+         */
+        public Builder maxRequests(int maxRequests) {
+            if (maxRequests <= 0) {
+                throw new IllegalArgumentException("Max requests must be greater than 0");
+            }
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * 设置单个主机异步请求的最大并发数（OkHttp 默认 5）
+         *
+         * @param maxRequestsPerHost 单主机最大并发请求数
+         * @return 构建器实例
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            if (maxRequestsPerHost <= 0) {
+                throw new IllegalArgumentException("Max requests per host must be greater than 0");
+            }
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * 设置是否启用 HTTP/2
+         * <p>
+         * 启用时通过 TLS ALPN 协商 h2，服务端不支持时回退 HTTP/1.1，
+         * 同一主机的并发请求在少量连接上多路复用；关闭时固定使用 HTTP/1.1。
+         * 未设置时：共享主机连接沿用 {@link HttpConnectionRegistry#isHttp2Enabled()}，
+         * 其余沿用 OkHttp 默认（协商 h2）。
+         * </p>
+         *
+         * @param enabled 是否启用
+         * @return 构建器实例
+         */
+        public Builder http2(boolean enabled) {
+            this.http2 = enabled;
+            return this;
+        }
+
+        /**
+         * 设置是否记录网络阶段耗时
+         * <p>
+         * 启用时为每次调用安装计时 EventListener（每次调用约十次 {@code System.nanoTime()}），
+         * 结果见 {@link HttpTimingRecorder} 与 {@link HttpObserver#onTimings(com.xiangxi.message.common.model.HttpTimings)}。
+         * 未设置时：共享主机连接沿用 {@link HttpConnectionRegistry#isTimingsEnabled()}，其余不记录。
+         * </p>
+         *
+         * @param enabled 是否记录
+         * @return 构建器实例
+         */
+        public Builder recordTimings(boolean enabled) {
+            this.recordTimings = enabled;
+            return this;
+        }
+
+        /**
+         * 设置自定义的 OkHttp EventListener 工厂，设置后替代内置的计时监听器
+         *
+         * @param factory EventListener 工厂
+         * @return 构建器实例
+         */
+        public Builder eventListenerFactory(EventListener.Factory factory) {
+            this.eventListenerFactory = Objects.requireNonNull(factory, "factory must not be null");
+            return this;
+        }
+
+        /**
+         * 使用 {@link HttpConnectionRegistry#shared()} 中指定主机的共享连接池与调度器
+         * <p>
+         * 同一主机的所有连接共用一个连接池，参数由注册表统一配置，
+         * 不能与 {@link #connectionPool(int, long)}、{@link #maxRequests(int)}、
+         * {@link #maxRequestsPerHost(int)} 同时使用。
+         * </p>
+         *
+         * @param host 主机名，例如 sms.tencentcloudapi.com
+         * @return 构建器实例
+         */
+        public Builder sharedHost(String host) {
+            if (host == null || host.isBlank()) {
+                throw new IllegalArgumentException("Host must not be blank");
+            }
+            this.sharedHost = host;
+            return this;
+        }
+
         /**
          * 构建 HttpConnection 实例
          *
          * @return HttpConnection 实例
+         * @throws IllegalStateException 同时设置了共享主机与独立的连接池/调度参数时抛出
          */
         public HttpConnection build() {
+            if (sharedHost != null) {
+                if (connectionPool != null || maxRequests > 0 || maxRequestsPerHost > 0) {
+                    throw new IllegalStateException(
+                            "sharedHost cannot be combined with connectionPool/maxRequests/maxRequestsPerHost");
+                }
+                HttpConnectionRegistry registry = HttpConnectionRegistry.shared();
+                HttpConnectionRegistry.HostResources resources = registry.resourcesFor(sharedHost);
+                clientBuilder.connectionPool(resources.pool()).dispatcher(resources.dispatcher());
+                if (http2 == null) {
+                    clientBuilder.protocols(HttpConnectionRegistry.protocols(registry.isHttp2Enabled()));
+                }
+            } else {
+                if (connectionPool != null) {
+                    clientBuilder.connectionPool(connectionPool);
+                }
+                if (maxRequests > 0 || maxRequestsPerHost > 0) {
+                    Dispatcher dispatcher = new Dispatcher();
+                    if (maxRequests > 0) {
+                        dispatcher.setMaxRequests(maxRequests);
+                    }
+                    if (maxRequestsPerHost > 0) {
+                        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+                    }
+                    clientBuilder.dispatcher(dispatcher);
+                }
+            }
+            if (http2 != null) {
+                clientBuilder.protocols(HttpConnectionRegistry.protocols(http2));
+            }
+            boolean timings = recordTimings != null ? recordTimings
+                    : sharedHost != null && HttpConnectionRegistry.shared().isTimingsEnabled();
+            if (eventListenerFactory != null) {
+                clientBuilder.eventListenerFactory(eventListenerFactory);
+            } else if (timings) {
+                clientBuilder.eventListenerFactory(HttpTimingListener.FACTORY);
+            }
             return new HttpConnection(clientBuilder.build());
         }
     }
@@ -0,0 +1,348 @@
+package com.xiangxi.message.client;
+
+import com.xiangxi.message.common.model.HttpTimings;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SDK 级共享连接注册表
+ * <p>
+ * 按主机名维护一组共享的 {@link ConnectionPool} 与 {@link Dispatcher}，
+ * 所有访问同一主机的 {@link HttpConnection}（通过 {@link HttpConnection.Builder#sharedHost(String)} 构建）
+ * 复用同一个已建立的连接池，避免每个发送器各自冷启动连接。
+ * </p>
+ * <p>
+ * 参数通过 {@link #configure(HttpPoolSettings)} 调整：Dispatcher 的并发限制对已创建的主机立即生效；
+ * 连接池大小与保活时间仅对之后首次使用的主机生效。
+ * </p>
+ * <p>
+ * HTTP/2：通过 {@link #setHttp2Enabled(boolean)} 控制共享连接是否经 ALPN 协商 h2。
+ * 开启时同一主机的并发请求复用少量连接多路传输；关闭时固定使用 HTTP/1.1。
+ * 仅对之后构建的连接生效。
+ * </p>
+ * <p>
+ * 预热：{@link #prewarm(String, int)} 提前完成 DNS、TCP + TLS 握手与 h2 协商，避免首批发送承担建连延迟；
+ * 单次调用不会维持固定的连接数，需按小于保活时间的周期重复调用（Spring Boot Starter 自动进行）。
+ * </p>
+ * <p>
+ * 观测：通过 {@link #addObserver(HttpObserver)} 注册的 {@link HttpObserver} 接收所有 {@link HttpClient} 的调用结果，
+ * 以及启用耗时记录（{@link #setTimingsEnabled(boolean)}）的连接的网络阶段耗时。
+ * </p>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * HttpConnectionRegistry.shared().configure(new HttpPoolSettings(64, 300, 512, 256));
+ *
+ * HttpClient client = new HttpClient.Builder()
+ *     .sharedHost("sms.tencentcloudapi.com")
+ *     .build();
+ * }</pre>
+ *
+ * @author message-sdk
+ * @since 1.0.0
+ */
+public final class HttpConnectionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpConnectionRegistry.class);
+
+    private static final HttpConnectionRegistry SHARED = new HttpConnectionRegistry();
+
+    private final Map<String, HostResources> hosts = new ConcurrentHashMap<>();
+
+    private volatile HttpPoolSettings settings = HttpPoolSettings.DEFAULT;
+
+    /**
+     * 是否通过 ALPN 协商 HTTP/2，默认与 OkHttp 一致为开启
+     */
+    private volatile boolean http2Enabled = true;
+
+    /**
+     * 共享连接是否记录网络阶段耗时，默认关闭
+     */
+    private volatile boolean timingsEnabled;
+
+    /**
+     * 已注册的 HTTP 调用观测
+     */
+    private final List<HttpObserver> observers = new CopyOnWriteArrayList<>();
+
+    private HttpConnectionRegistry() {
+    }
+
+    /**
+     * 获取 SDK 全局共享的注册表
+     *
+     * @return 注册表实例
+     */
+    public static HttpConnectionRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * 更新连接池与调度参数
+     *
+     * @param newSettings 新参数
+     */
+    public void configure(HttpPoolSettings newSettings) {
+        this.settings = Objects.requireNonNull(newSettings, "settings must not be null");
+        hosts.values().forEach(resources -> applyLimits(resources.dispatcher(), newSettings));
+        if (logger.isInfoEnabled()) {
+            logger.info("Shared HTTP pool settings updated: {}", newSettings);
+        }
+    }
+
+    /**
+     * 获取当前参数
+     *
+     * @return 当前参数
+     */
+    public HttpPoolSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * 设置共享连接是否启用 HTTP/2
+     *
+     * @param enabled true 时协商 h2（不支持时回退 HTTP/1.1），false 时固定使用 HTTP/1.1
+     */
+    public void setHttp2Enabled(boolean enabled) {
+        this.http2Enabled = enabled;
+    }
+
+    /**
+     * 共享连接是否启用 HTTP/2
+     *
+     * @return 是否启用
+     */
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    /**
+     * 设置共享连接是否记录网络阶段耗时，默认关闭
+     * <p>
+     * 开启后每次调用安装计时 EventListener；内置发送器也据此决定是否为请求附加耗时记录
+     * （{@link HttpRequest.Builder#recordTimings(boolean)}）。仅对之后构建的连接与请求生效。
+     * </p>
+     *
+     * @param enabled 是否记录
+     */
+    public void setTimingsEnabled(boolean enabled) {
+        this.timingsEnabled = enabled;
+    }
+
+    /**
+     * 共享连接是否记录网络阶段耗时
+     *
+     * @return 是否记录
+     */
+    public boolean isTimingsEnabled() {
+        return timingsEnabled;
+    }
+
+    /**
+     * 注册 HTTP 调用观测
+     *
+     * @param observer 观测
+     */
+    public void addObserver(HttpObserver observer) {
+        observers.add(Objects.requireNonNull(observer, "observer must not be null"));
+    }
+
+    /**
+     * 移除 HTTP 调用观测
+     *
+     * @param observer 观测
+     * @return 是否存在并已移除
+     */
+    public boolean removeObserver(HttpObserver observer) {
+        return observers.remove(observer);
+    }
+
+    /**
+     * 通知已注册的观测一次 HTTP 调用结束
+     *
+     * @param host         请求主机
+     * @param statusCode   HTTP 状态码，未收到响应时为 0
+     * @param latencyNanos 耗时（纳秒）
+     */
+    void notifyExchange(String host, int statusCode, long latencyNanos) {
+        if (observers.isEmpty()) {
+            return;
+        }
+        for (HttpObserver observer : observers) {
+            try {
+                observer.onExchange(host, statusCode, latencyNanos);
+            } catch (RuntimeException e) {
+                logger.warn("HttpObserver callback failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 通知已注册的观测一次调用的网络阶段耗时
+     *
+     * @param timings 阶段耗时
+     */
+    void notifyTimings(HttpTimings timings) {
+        if (observers.isEmpty()) {
+            return;
+        }
+        for (HttpObserver observer : observers) {
+            try {
+                observer.onTimings(timings);
+            } catch (RuntimeException e) {
+                logger.warn("HttpObserver timings callback failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 一次性预热指定主机的连接
+     * <p>
+     * 并发发起 {@code connections} 个 HEAD 请求，完成握手后连接留在共享连接池中供后续发送复用。
+     * 响应状态码不影响预热结果。这是一次性的 TLS/h2 热身，不保证建立或维持 {@code connections} 个连接：
+     * </p>
+     * <ul>
+     *   <li>启用 HTTP/2 时并发请求复用同一连接，通常只会建立一个连接；</li>
+     *   <li>HTTP/1.1 下先完成的请求归还的连接可能被后发的请求复用，实际连接数可能少于请求数；</li>
+     *   <li>预热的连接与普通连接一样，空闲超过保活时间（keepAliveDurationSeconds）或超出
+     *       maxIdleConnections 时被回收，之后的首个请求重新建连。</li>
+     * </ul>
+     * <p>
+     * 需要长期保持热连接时，按小于保活时间的周期再次调用本方法：空闲连接被预热请求复用而不会过期，
+     * 被回收的连接重新建立。Spring Boot 中设置 message.sdk.http.prewarm-connections 后由 Starter 按保活时间的一半周期调用。
+     * </p>
+     *
+     * @param host        主机名
+     * @param connections 预热请求数（并发度），不是保证的连接数
+     * @return 成功完成的预热请求数
+     */
+    public CompletableFuture<Integer> prewarm(String host, int connections) {
+        if (connections <= 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+        HostResources resources = resourcesFor(host);
+        HttpConnection connection = new HttpConnection(new OkHttpClient.Builder()
+                .connectionPool(resources.pool())
+                .dispatcher(resources.dispatcher())
+                .protocols(protocols(http2Enabled))
+                .build());
+        Request request = new Request.Builder().url("https://" + host + "/").head().build();
+
+        CompletableFuture<?>[] attempts = new CompletableFuture<?>[connections];
+        int[] warmed = new int[connections];
+        for (int i = 0; i < connections; i++) {
+            int index = i;
+            attempts[i] = connection.doRequestAsync(request).handle((response, error) -> {
+                if (error == null) {
+                    response.close();
+                    warmed[index] = 1;
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Prewarm request to {} failed: {}", host, error.getMessage());
+                }
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(attempts).thenApply(ignored -> {
+            int total = 0;
+            for (int w : warmed) {
+                total += w;
+            }
+            if (logger.isInfoEnabled()) {
+                logger.info("Prewarm requests to {} succeeded {}/{}, pool now holds {} connection(s)",
+                        host, total, connections, resources.pool().connectionCount());
+            }
+            return total;
+        });
+    }
+
+    /**
+     * 获取指定主机当前的连接数
+     *
+     * @param host 主机名
+     * @return 连接总数，主机未注册时返回 0
+     */
+    public int connectionCount(String host) {
+        HostResources resources = hosts.get(host);
+        return resources == null ? 0 : resources.pool().connectionCount();
+    }
+
+    /**
+     * 获取指定主机当前的空闲连接数
+     *
+     * @param host 主机名
+     * @return 空闲连接数，主机未注册时返回 0
+     */
+    public int idleConnectionCount(String host) {
+        HostResources resources = hosts.get(host);
+        return resources == null ? 0 : resources.pool().idleConnectionCount();
+    }
+
+    /**
+     * 关闭所有空闲连接
+     */
+    public void evictAll() {
+        hosts.values().forEach(resources -> resources.pool().evictAll());
+    }
+
+    /**
+     * 获取（必要时创建）指定主机的共享资源
+     *
+     * @param host 主机名
+     * @return 主机共享资源
+     */
+    HostResources resourcesFor(String host) {
+        if (host == null || host.isBlank()) {
+            throw new IllegalArgumentException("Host must not be blank");
+        }
+        return hosts.computeIfAbsent(host, h -> {
+            HttpPoolSettings current = settings;
+            Dispatcher dispatcher = new Dispatcher();
+            applyLimits(dispatcher, current);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Created shared connection pool for host: {} ({})", h, current);
+            }
+            return new HostResources(
+                    new ConnectionPool(current.maxIdleConnections(), current.keepAliveSeconds(), TimeUnit.SECONDS),
+                    dispatcher);
+        });
+    }
+
+    /**
+     * 根据 HTTP/2 开关生成协议列表
+     *
+     * @param http2 是否启用 HTTP/2
+     * @return 协议列表
+     */
+    static List<Protocol> protocols(boolean http2) {
+        return http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1);
+    }
+
+    private static void applyLimits(Dispatcher dispatcher, HttpPoolSettings settings) {
+        dispatcher.setMaxRequests(settings.maxRequests());
+        dispatcher.setMaxRequestsPerHost(settings.maxRequestsPerHost());
+    }
+
+    /**
+     * 单个主机的共享连接池与调度器
+     *
+     * @param pool       连接池
+     * @param dispatcher 调度器
+     */
+    record HostResources(ConnectionPool pool, Dispatcher dispatcher) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.xiangxi.message.client;
+
+import com.xiangxi.message.common.model.HttpTimings;
+
+/**
+ * HTTP 调用观测接口
+ * <p>
+ * 通过 {@link HttpConnectionRegistry#addObserver(HttpObserver)} 注册后，{@link HttpClient} 的每次 HTTP 调用
+ * （含每次重试）收到响应头或失败时回调，用于统计状态码分布等指标。被取消的调用不回调。
+ * 连接启用耗时记录时，另以 {@link #onTimings(HttpTimings)} 回调网络阶段耗时。
+ * 实现必须线程安全、不应阻塞且不应抛出异常；回调可能在 OkHttp 调度线程上执行。
+ * </p>
+ *
+ * @author message-sdk
+ * @since 1.0.0
+ */
+public interface HttpObserver {
+
+    /**
+     * 一次 HTTP 调用结束
+     *
+     * @param host         请求主机
+     * @param statusCode   HTTP 状态码；未收到响应（网络错误、超时）时为 0
+     * @param latencyNanos 发起请求到收到响应头（或失败）的耗时（纳秒）
+     */
+    void onExchange(String host, int statusCode, long latencyNanos);
+
+    /**
+     * 一次调用的网络阶段耗时，仅启用耗时记录的连接回调
+     *
+     * @param timings 阶段耗时
+     */
+    default void onTimings(HttpTimings timings) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.xiangxi.message.client;
+
+/**
+ * 连接池与请求调度参数
+ * <p>
+ * 对应 OkHttp 的 {@link okhttp3.ConnectionPool} 与 {@link okhttp3.Dispatcher} 配置：
+ * </p>
+ * <ul>
+ *   <li>maxIdleConnections：连接池保留的最大空闲连接数</li>
+ *   <li>keepAliveSeconds：空闲连接保活时间（秒）</li>
+ *   <li>maxRequests：异步请求的最大并发数</li>
+ *   <li>maxRequestsPerHost：单个主机异步请求的最大并发数</li>
+ * </ul>
+ *
+ * @param maxIdleConnections 最大空闲连接数
+ * @param keepAliveSeconds   空闲连接保活时间（秒）
+ * @param maxRequests        最大并发请求数
+ * @param maxRequestsPerHost 单主机最大并发请求数
+ * @author message-sdk
+ * @since 1.0.0
+ */
+public record HttpPoolSettings(int maxIdleConnections, long keepAliveSeconds,
+                               int maxRequests, int maxRequestsPerHost) {
+
+    /**
+     * SDK 默认值：面向单一厂商主机的高并发短信发送，
+     * 放宽 OkHttp 默认的每主机 5 并发限制
+     */
+    public static final HttpPoolSettings DEFAULT = new HttpPoolSettings(32, 300, 256, 128);
+
+    public HttpPoolSettings {
+        if (maxIdleConnections < 0) {
+            throw new IllegalArgumentException("Max idle connections must be non-negative");
+        }
+        if (keepAliveSeconds <= 0) {
+            throw new IllegalArgumentException("Keep-alive must be greater than 0");
+        }
+        if (maxRequests <= 0) {
+            throw new IllegalArgumentException("Max requests must be greater than 0");
+        }
+        if (maxRequestsPerHost <= 0) {
+            throw new IllegalArgumentException("Max requests per host must be greater than 0");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.xiangxi.message.client;
 
 import com.xiangxi.message.client.enums.HttpContentType;
 import com.xiangxi.message.client.enums.HttpMethod;
+import com.xiangxi.message.common.model.HttpTimings;
 
 import java.io.File;
 import java.time.Duration;
@@ -52,6 +53,8 @@ public class HttpRequest {
     private final String contentType;
     // 请求体（当 method=POST 等有体时使用）
     private final String body;
+    // 字节请求体（优先于 body，避免字符串再次编码）
+    private final byte[] bodyBytes;
     // 表单字段（application/x-www-form-urlencoded）
     private final Map<String, String> form;
     // 文件字段（multipart/form-data）
@@ -62,6 +65,8 @@ public class HttpRequest {
     private final Integer retries;
     // 重试退避时间（null 表示使用客户端默认）
     private final Duration retryBackoff;
+    // 网络阶段耗时记录（null 表示不记录）
+    private final HttpTimingRecorder timingRecorder;
 
     /**
      * 私有构造函数，只能通过建造者创建
@@ -73,8 +78,10 @@ public class HttpRequest {
         this.method = builder.method;
         this.contentType = builder.contentType;
         this.body = builder.body;
+        this.bodyBytes = builder.bodyBytes;
         this.retries = builder.retries;
         this.retryBackoff = builder.retryBackoff;
+        this.timingRecorder = builder.recordTimings ? new HttpTimingRecorder() : null;
 
         // 创建不可变副本
         this.headers = Collections.unmodifiableMap(
@@ -132,6 +139,15 @@ public class HttpRequest {
         return body;
     }
 
+    /**
+     * 获取字节请求体
+     *
+     * @return 字节请求体，未设置时返回 null（调用方不应修改）
+     */
+    public byte[] getBodyBytes() {
+        return bodyBytes;
+    }
+
     public Map<String, String> getForm() {
         return form;
     }
@@ -152,13 +168,31 @@ public class HttpRequest {
         return retryBackoff;
     }
 
+    /**
+     * 获取网络阶段耗时记录
+     *
+     * @return 耗时记录，未启用 {@link Builder#recordTimings(boolean)} 时为 null
+     */
+    public HttpTimingRecorder getTimingRecorder() {
+        return timingRecorder;
+    }
+
+    /**
+     * 获取最近一次调用的网络阶段耗时
+     *
+     * @return 耗时；未启用 {@link Builder#recordTimings(boolean)} 或尚未记录时为 null
+     */
+    public HttpTimings getTimings() {
+        return timingRecorder == null ? null : timingRecorder.getTimings();
+    }
+
     /**
      * 检查是否有请求体
      *
      * @return 如果有请求体返回true
      */
     public boolean hasBody() {
-        return body != null && !body.isEmpty();
+        return (bodyBytes != null && bodyBytes.length > 0) || (body != null && !body.isEmpty());
     }
 
     /**
@@ -233,11 +267,13 @@ public class HttpRequest {
         private Map<String, String> headers;
         private String contentType;
         private String body;
+        private byte[] bodyBytes;
         private Map<String, String> form;
         private Map<String, File> files;
         private Map<String, String> query;
         private Integer retries;
         private Duration retryBackoff;
+        private boolean recordTimings;
 
         /**
          * 设置请求URL
@@ -296,6 +332,23 @@ public class HttpRequest {
          */
         public Builder body(String body) {
             this.body = body;
+            this.bodyBytes = null;
+            return this;
+        }
+
+        /**
+         * 设置字节请求体
+         * <p>
+         * 适用于已按 Content-Type 编码好的请求体（如预先序列化并签名的 JSON），
+         * 直接作为 HTTP 请求体发送，不再经过字符串编码。数组不会被复制，设置后请勿修改。
+         * </p>
+         *
+         * @param body 请求体字节
+         * @return 建造者实例
+         */
+        public Builder body(byte[] body) {
+            this.bodyBytes = body;
+            this.body = null;
             return this;
         }
 
@@ -471,6 +524,18 @@ public class HttpRequest {
             return this;
         }
 
+        /**
+         * 设置是否为该请求记录网络阶段耗时，记录结果通过 {@link HttpRequest#getTimingRecorder()} 获取。
+         * 仅当连接启用耗时记录（{@link HttpConnection.Builder#recordTimings(boolean)}）时有数据。
+         *
+         * @param recordTimings 是否记录
+         * @return 建造者实例
+         */
+        public Builder recordTimings(boolean recordTimings) {
+            this.recordTimings = recordTimings;
+            return this;
+        }
+
         /**
          * 构建HttpRequest实例
          *
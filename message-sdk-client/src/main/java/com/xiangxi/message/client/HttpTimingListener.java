@@ -0,0 +1,131 @@
+package com.xiangxi.message.client;
+
+import com.xiangxi.message.common.model.HttpTimings;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * 记录网络阶段耗时的 OkHttp EventListener
+ * <p>
+ * 每个 Call 一个实例，事件在执行该 Call 的线程上顺序回调。收到响应头或调用失败时生成 {@link HttpTimings}，
+ * 写入请求携带的 {@link HttpTimingRecorder}（如有），并通知 {@link HttpConnectionRegistry} 中注册的观测。
+ * 响应体在解析完成后才关闭，因此不等待 callEnd。
+ * </p>
+ */
+final class HttpTimingListener extends EventListener {
+
+    /**
+     * 为每个 Call 创建独立的监听器
+     */
+    static final EventListener.Factory FACTORY = HttpTimingListener::new;
+
+    private final String host;
+    private final HttpTimingRecorder recorder;
+
+    private long callStart;
+    private long dnsStart;
+    private long dnsNanos = -1;
+    private long connectStart;
+    private long connectNanos = -1;
+    private long secureConnectStart;
+    private long tlsNanos = -1;
+    private long writeStart;
+    private long writeEnd;
+    private boolean published;
+
+    private HttpTimingListener(Call call) {
+        Request request = call.request();
+        this.host = request.url().host();
+        this.recorder = request.tag(HttpTimingRecorder.class);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsNanos = System.nanoTime() - dnsStart;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsNanos = System.nanoTime() - secureConnectStart;
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectNanos = System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        connectNanos = System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        writeStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        writeEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        writeEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        long now = System.nanoTime();
+        publish(now, writeEnd == 0 ? -1 : now - writeEnd);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        // 已收到响应头后读取响应体失败时，保留响应头时的耗时
+        if (!published) {
+            publish(System.nanoTime(), -1);
+        }
+    }
+
+    private void publish(long now, long timeToFirstByte) {
+        published = true;
+        HttpTimings timings = new HttpTimings(host, dnsNanos, connectNanos, tlsNanos,
+                writeStart == 0 || writeEnd == 0 ? -1 : writeEnd - writeStart,
+                timeToFirstByte, now - callStart, connectStart == 0);
+        if (recorder != null) {
+            recorder.record(timings);
+        }
+        HttpConnectionRegistry.shared().notifyTimings(timings);
+    }
+}
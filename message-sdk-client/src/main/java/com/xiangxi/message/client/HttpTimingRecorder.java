@@ -0,0 +1,32 @@
+package com.xiangxi.message.client;
+
+import com.xiangxi.message.common.model.HttpTimings;
+
+/**
+ * 单个请求的网络阶段耗时记录
+ * <p>
+ * 通过 {@link HttpRequest.Builder#recordTimings(boolean)} 为请求创建，连接启用耗时记录时
+ * （见 {@link HttpConnection.Builder#recordTimings(boolean)}）由 OkHttp EventListener 写入。
+ * 请求被重试时保留最后一次调用的耗时；调用失败时同样附加到 {@link ClientException#getTimings()}。
+ * </p>
+ *
+ * @author message-sdk
+ * @since 1.0.0
+ */
+public final class HttpTimingRecorder {
+
+    private volatile HttpTimings timings;
+
+    /**
+     * 获取最近一次调用的阶段耗时
+     *
+     * @return 阶段耗时；尚未收到响应头、调用未失败或连接未启用耗时记录时为 null
+     */
+    public HttpTimings getTimings() {
+        return timings;
+    }
+
+    void record(HttpTimings timings) {
+        this.timings = timings;
+    }
+}
@@ -0,0 +1,134 @@
+package com.xiangxi.message.client;
+
+import com.xiangxi.message.common.exception.SendErrorCodes;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP 请求重试策略
+ * <p>
+ * 第 n 次重试前等待 [0, min(maxBackoff, initialBackoff * 2^n)] 内的随机时长（指数退避 + 全抖动），
+ * 等待由定时器调度，不占用线程。deadline 限制整个调用（含所有重试）的总耗时，到期后取消进行中的请求。
+ * </p>
+ * <p>
+ * 只重试可重试的失败（见 {@link #isRetryable(Throwable)}）：网络错误、超时、HTTP 5xx / 429、厂商限流与内部错误。
+ * 参数、签名、HTTP 4xx 等请求本身的问题不重试。
+ * 注意：读取超时时请求可能已被厂商处理，对非幂等请求（如发送短信）启用重试可能导致重复发送。
+ * </p>
+ *
+ * <pre>{@code
+ * HttpClient client = new HttpClient.Builder()
+ *     .retryPolicy(new RetryPolicy(2, Duration.ofMillis(100), Duration.ofSeconds(2), Duration.ofSeconds(10)))
+ *     .build();
+ * }</pre>
+ *
+ * @param maxRetries     最大重试次数（不含首次请求），0 表示不重试
+ * @param initialBackoff 首次重试的退避上限
+ * @param maxBackoff     单次退避的上限
+ * @param deadline       整个调用的截止时长，null 表示不限
+ * @author message-sdk
+ * @since 1.0.0
+ */
+public record RetryPolicy(int maxRetries, Duration initialBackoff, Duration maxBackoff, Duration deadline) {
+
+    /**
+     * 不重试、不限时
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, Duration.ZERO, Duration.ZERO, null);
+
+    public RetryPolicy {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Max retries must be non-negative");
+        }
+        if (initialBackoff == null || initialBackoff.isNegative()) {
+            throw new IllegalArgumentException("Initial backoff must be non-negative");
+        }
+        if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Max backoff must not be less than initial backoff");
+        }
+        if (deadline != null && (deadline.isNegative() || deadline.isZero())) {
+            throw new IllegalArgumentException("Deadline must be greater than 0");
+        }
+    }
+
+    /**
+     * 默认策略：最多重试 2 次，退避 100ms 起、上限 2s，整个调用 10s 内完成
+     *
+     * @return 默认策略
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(2, Duration.ofMillis(100), Duration.ofSeconds(2), Duration.ofSeconds(10));
+    }
+
+    /**
+     * 以请求上设置的重试次数与退避时间覆盖本策略
+     *
+     * @param request 请求对象
+     * @return 覆盖后的策略；请求未设置时返回本策略
+     */
+    public RetryPolicy with(HttpRequest request) {
+        if (request.getRetries() == null && request.getRetryBackoff() == null) {
+            return this;
+        }
+        int retries = request.getRetries() != null ? request.getRetries() : maxRetries;
+        Duration initial = request.getRetryBackoff() != null ? request.getRetryBackoff() : initialBackoff;
+        Duration max = maxBackoff.compareTo(initial) < 0 ? initial : maxBackoff;
+        return new RetryPolicy(retries, initial, max, deadline);
+    }
+
+    /**
+     * 是否需要经过重试引擎（会重试或有截止时长）
+     *
+     * @return 需要时返回 true
+     */
+    public boolean isEnabled() {
+        return maxRetries > 0 || deadline != null;
+    }
+
+    /**
+     * 计算第 retry 次重试（从 0 开始）前的退避时长
+     *
+     * @param retry 重试序号
+     * @return 退避时长（纳秒）
+     */
+    public long backoffNanos(int retry) {
+        long initial = initialBackoff.toNanos();
+        long max = maxBackoff.toNanos();
+        long bound = retry >= 62 || initial > (max >> Math.min(retry, 62)) ? max : initial << retry;
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * 判断失败是否可重试：网络错误、超时、HTTP 5xx / 429 与厂商暂时性错误码（见 {@link SendErrorCodes#isTransient(String)}）。
+     * 响应体超过大小上限、解析失败、HTTP 4xx 与其他业务错误不重试。
+     *
+     * @param error 请求异常
+     * @return 可重试时返回 true
+     */
+    public static boolean isRetryable(Throwable error) {
+        boolean io = false;
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof HttpClient.BodyTooLargeException) {
+                return false;
+            }
+            if (t instanceof IOException) {
+                io = true;
+            }
+            if (t instanceof ClientException ce) {
+                Integer status = ce.getHttpStatusCode();
+                if (status != null) {
+                    return status >= 500 || status == 429;
+                }
+                if (ce.isNetworkError() || ce.isTimeoutError() || SendErrorCodes.isTransient(ce.getErrorCode())) {
+                    return true;
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return io;
+    }
+}
@@ -0,0 +1,50 @@
+package com.xiangxi.message.client;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * 流式响应解析器
+ * <p>
+ * 与 {@link ResponseParse} 不同，响应体不会先整体读入为字符串，而是以 {@link Reader}
+ * 形式边读边解析（如 Gson {@code JsonReader}）。{@link HttpClient} 在读取过程中按字节
+ * 累计并校验 maxResponseBodySize，超出时立即中止读取。
+ * </p>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * StreamingResponseParse<Result> parser = reader -> GSON.fromJson(reader, Result.class);
+ * Result result = client.doRequest(request, parser);
+ * }</pre>
+ *
+ * @param <T> 响应类型
+ * @author message-sdk
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface StreamingResponseParse<T> extends ResponseParse<T> {
+
+    /**
+     * 从字符流解析响应
+     * <p>
+     * 实现方不需要关闭 reader，由 {@link HttpClient} 负责关闭。
+     * </p>
+     *
+     * @param reader 响应体字符流
+     * @return 解析后的响应对象
+     * @throws ClientException 解析失败或业务错误时抛出
+     */
+    T parse(Reader reader) throws ClientException;
+
+    /**
+     * 从字符串解析响应，委托给 {@link #parse(Reader)}
+     *
+     * @param response 响应体字符串
+     * @return 解析后的响应对象
+     * @throws ClientException 解析失败或业务错误时抛出
+     */
+    @Override
+    default T parse(String response) throws ClientException {
+        return parse(new StringReader(response));
+    }
+}
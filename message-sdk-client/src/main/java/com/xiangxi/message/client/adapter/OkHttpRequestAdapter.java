@@ -2,6 +2,7 @@ package com.xiangxi.message.client.adapter;
 
 import com.xiangxi.message.client.ClientException;
 import com.xiangxi.message.client.HttpRequest;
+import com.xiangxi.message.client.HttpTimingRecorder;
 import com.xiangxi.message.client.enums.HttpContentType;
 import com.xiangxi.message.client.enums.HttpMethod;
 import okhttp3.*;
@@ -68,6 +69,9 @@ public record OkHttpRequestAdapter(Map<String, String> defaultHeaders) implement
             Request.Builder rb = new Request.Builder()
                     .url(urlBuilder.build())
                     .headers(headers);
+            if (req.getTimingRecorder() != null) {
+                rb.tag(HttpTimingRecorder.class, req.getTimingRecorder());
+            }
             
             // 根据请求类型构建请求体
             if (!req.getFiles().isEmpty()) {
@@ -88,9 +92,9 @@ public record OkHttpRequestAdapter(Map<String, String> defaultHeaders) implement
             } else {
                 // 普通请求体（JSON、XML 等）
                 switch (req.getMethod()) {
-                    case POST -> rb.method("POST", buildRequestBody(req.getBody(), req.getContentType()));
-                    case PUT -> rb.method("PUT", buildRequestBody(req.getBody(), req.getContentType()));
-                    case PATCH -> rb.method("PATCH", buildRequestBody(req.getBody(), req.getContentType()));
+                    case POST -> rb.method("POST", buildRequestBody(req));
+                    case PUT -> rb.method("PUT", buildRequestBody(req));
+                    case PATCH -> rb.method("PATCH", buildRequestBody(req));
                     case DELETE -> rb.delete();
                     case HEAD -> rb.head();
                     default -> rb.get();
@@ -141,16 +145,29 @@ public record OkHttpRequestAdapter(Map<String, String> defaultHeaders) implement
 
     /**
      * 构建请求体
+     * <p>
+     * 设置了字节请求体时直接使用，不再经过字符串编码；否则按字符串请求体构建。
+     * </p>
      *
-     * @param bodyStr     请求体字符串
-     * @param contentType Content-Type
+     * @param req HTTP 请求对象
      * @return RequestBody 对象
      */
-    private RequestBody buildRequestBody(String bodyStr, String contentType) {
-        if (bodyStr == null) {
-            bodyStr = "";
+    private RequestBody buildRequestBody(HttpRequest req) {
+        MediaType mt = parseMediaType(req.getContentType());
+        byte[] bytes = req.getBodyBytes();
+        if (bytes != null) {
+            return RequestBody.create(bytes, mt);
         }
-        
+        return RequestBody.create(req.getBody() == null ? "" : req.getBody(), mt);
+    }
+
+    /**
+     * 解析 Content-Type
+     *
+     * @param contentType Content-Type
+     * @return MediaType 对象，为空或无效时返回 null
+     */
+    private MediaType parseMediaType(String contentType) {
         MediaType mt = null;
         if (contentType != null && !contentType.isEmpty()) {
             try {
@@ -161,8 +178,7 @@ public record OkHttpRequestAdapter(Map<String, String> defaultHeaders) implement
                 }
             }
         }
-        
-        return RequestBody.create(bodyStr, mt);
+        return mt;
     }
 
     /**
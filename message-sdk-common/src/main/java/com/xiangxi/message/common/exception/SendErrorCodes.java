@@ -0,0 +1,105 @@
+package com.xiangxi.message.common.exception;
+
+import java.util.Set;
+
+/**
+ * 发送错误码分类
+ *
+ * <p>HTTP 重试、按接收人的部分重试、熔断与故障转移共用的错误码清单：</p>
+ * <ul>
+ *   <li>本地发送保护的拒绝：{@link #RATE_LIMITED}、{@link #CONCURRENCY_LIMITED}、{@link #CIRCUIT_OPEN}，
+ *       请求未发往厂商；</li>
+ *   <li>厂商 API 限流：腾讯云 RequestLimitExceeded.*、阿里云 Throttling.*，稍后重试可成功；</li>
+ *   <li>号码级频控：腾讯云 LimitExceeded.*、阿里云 isv.BUSINESS_LIMIT_CONTROL，同一号码短时间内重试不会成功；</li>
+ *   <li>厂商内部错误：腾讯云 InternalError.*、阿里云 isp.*、ServiceUnavailable、ServerSideError，表示厂商不可用；</li>
+ *   <li>暂时性错误：厂商 API 限流与内部错误中可以重试的部分。多数 InternalError.* 子码（签名、参数问题）不在此列。</li>
+ * </ul>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class SendErrorCodes {
+
+    /**
+     * 令牌桶限流拒绝
+     */
+    public static final String RATE_LIMITED = "RATE_LIMITED";
+
+    /**
+     * 自适应并发限制拒绝
+     */
+    public static final String CONCURRENCY_LIMITED = "CONCURRENCY_LIMITED";
+
+    /**
+     * 熔断打开或半开探测名额已满
+     */
+    public static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
+
+    /**
+     * 参数校验失败，请求未发往厂商
+     */
+    public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
+
+    /**
+     * 厂商返回的暂时性内部错误码
+     */
+    private static final Set<String> TRANSIENT_CODES = Set.of(
+            "InternalError", "InternalError.Timeout", "InternalError.SendAndRecvFail",
+            "isp.SYSTEM_ERROR", "ServiceUnavailable", "ServerSideError");
+
+    private SendErrorCodes() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 是否为本地发送保护的拒绝（限流、并发限制、熔断）
+     *
+     * @param code 错误码
+     * @return 本地拒绝时返回 true
+     */
+    public static boolean isLocalRejection(String code) {
+        return RATE_LIMITED.equals(code) || CONCURRENCY_LIMITED.equals(code) || CIRCUIT_OPEN.equals(code);
+    }
+
+    /**
+     * 是否为厂商 API 限流（腾讯云 RequestLimitExceeded、阿里云 Throttling）
+     *
+     * @param code 错误码
+     * @return API 限流时返回 true
+     */
+    public static boolean isApiThrottled(String code) {
+        return code != null && (code.startsWith("RequestLimitExceeded") || code.startsWith("Throttling"));
+    }
+
+    /**
+     * 是否为厂商限流：API 限流或号码级频控
+     *
+     * @param code 错误码
+     * @return 厂商限流时返回 true
+     */
+    public static boolean isThrottled(String code) {
+        return isApiThrottled(code) || code != null
+                && (code.startsWith("LimitExceeded") || "isv.BUSINESS_LIMIT_CONTROL".equals(code));
+    }
+
+    /**
+     * 是否为厂商内部错误（腾讯云 InternalError.*、阿里云 isp.*、ServiceUnavailable、ServerSideError）
+     *
+     * @param code 错误码
+     * @return 厂商内部错误时返回 true
+     */
+    public static boolean isVendorInternalError(String code) {
+        return code != null && (code.startsWith("InternalError") || code.startsWith("isp.")
+                || "ServiceUnavailable".equals(code) || "ServerSideError".equals(code));
+    }
+
+    /**
+     * 是否为暂时性错误：厂商 API 限流或暂时性内部错误，稍后重试可能成功
+     *
+     * @param code 错误码
+     * @return 暂时性错误时返回 true
+     */
+    public static boolean isTransient(String code) {
+        return isApiThrottled(code) || code != null && TRANSIENT_CODES.contains(code);
+    }
+}
@@ -0,0 +1,41 @@
+package com.xiangxi.message.common.exception;
+
+/**
+ * 厂商调用失败的详情
+ *
+ * <p>由 HTTP 客户端异常实现，出现在 {@link MessageSendException} 的异常链中。
+ * 熔断、故障转移等发送保护据此判断厂商健康状况，而无需依赖具体的 HTTP 客户端实现。</p>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public interface VendorError {
+
+    /**
+     * 厂商错误码或客户端错误码（如 HTTP_500、NetworkError）
+     *
+     * @return 错误码，可能为 null
+     */
+    String getErrorCode();
+
+    /**
+     * HTTP 状态码
+     *
+     * @return 状态码；未收到 HTTP 响应或响应状态正常（业务错误）时为 null
+     */
+    Integer getHttpStatusCode();
+
+    /**
+     * 是否为网络错误（连接失败、DNS 解析失败等）
+     *
+     * @return 网络错误时返回 true
+     */
+    boolean isNetworkError();
+
+    /**
+     * 是否为超时
+     *
+     * @return 超时时返回 true
+     */
+    boolean isTimeoutError();
+}
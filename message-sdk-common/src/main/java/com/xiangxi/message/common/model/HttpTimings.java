@@ -0,0 +1,25 @@
+package com.xiangxi.message.common.model;
+
+import java.io.Serializable;
+
+/**
+ * 一次 HTTP 调用的网络阶段耗时
+ *
+ * <p>由 HTTP 客户端在收到响应头（或调用失败）时记录，各阶段单位为纳秒，未发生的阶段为 -1：
+ * 复用连接池中的连接时没有 DNS、建连与 TLS 阶段。</p>
+ *
+ * @param host                 请求主机
+ * @param dnsNanos             DNS 解析耗时
+ * @param connectNanos         TCP 建连耗时（含 TLS 握手）
+ * @param tlsNanos             TLS 握手耗时
+ * @param requestWriteNanos    写出请求头与请求体的耗时
+ * @param timeToFirstByteNanos 请求写完到开始收到响应头的耗时，即服务端处理与网络往返
+ * @param totalNanos           调用开始到收到响应头（或失败）的总耗时，含等待连接
+ * @param connectionReused     是否复用了连接池中已建立的连接
+ * @author 初心
+ * @since 1.0.0
+ */
+public record HttpTimings(String host, long dnsNanos, long connectNanos, long tlsNanos, long requestWriteNanos,
+                          long timeToFirstByteNanos, long totalNanos, boolean connectionReused)
+        implements Serializable {
+}
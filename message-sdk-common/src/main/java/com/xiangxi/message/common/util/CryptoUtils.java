@@ -0,0 +1,214 @@
+package com.xiangxi.message.common.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 签名摘要工具类
+ *
+ * <p>为各厂商签名流程提供统一的 SHA-256 / HMAC 计算与小写十六进制编码：</p>
+ * <ul>
+ *   <li>十六进制编码通过查表直接写入目标缓冲区，不使用 {@code String.format}；</li>
+ *   <li>{@link MessageDigest}/{@link Mac} 实例池化复用，避免每次 {@code getInstance}。
+ *       池不绑定线程，虚拟线程下同样有效，池大小随峰值并发自然收敛。</li>
+ * </ul>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * String payloadHash = CryptoUtils.sha256Hex(payload);
+ * String signature = CryptoUtils.hmacSha256Hex(secret.getBytes(UTF_8), stringToSign);
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class CryptoUtils {
+
+    public static final String SHA256 = "SHA-256";
+    public static final String HMAC_SHA256 = "HmacSHA256";
+    public static final String HMAC_SHA1 = "HmacSHA1";
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.ISO_8859_1);
+
+    private static final Queue<MessageDigest> SHA256_POOL = new ConcurrentLinkedQueue<>();
+    private static final Queue<Mac> HMAC_SHA256_POOL = new ConcurrentLinkedQueue<>();
+    private static final Queue<Mac> HMAC_SHA1_POOL = new ConcurrentLinkedQueue<>();
+
+    private CryptoUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // -------------------- 十六进制 --------------------
+
+    /**
+     * 小写十六进制编码
+     *
+     * @param bytes 字节数组
+     * @return 小写十六进制字符串
+     */
+    public static String hex(byte[] bytes) {
+        byte[] out = new byte[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            out[j++] = HEX[(bytes[i] >> 4) & 0x0F];
+            out[j++] = HEX[bytes[i] & 0x0F];
+        }
+        // Latin-1 字节直接作为紧凑字符串存储，无需再次编码
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 将小写十六进制直接追加到 StringBuilder，不产生中间字符串
+     *
+     * @param sb    目标缓冲区
+     * @param bytes 字节数组
+     * @return 目标缓冲区
+     */
+    public static StringBuilder appendHex(StringBuilder sb, byte[] bytes) {
+        sb.ensureCapacity(sb.length() + bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append((char) HEX[(b >> 4) & 0x0F]).append((char) HEX[b & 0x0F]);
+        }
+        return sb;
+    }
+
+    // -------------------- SHA-256 --------------------
+
+    /**
+     * 计算 SHA-256 摘要
+     *
+     * @param data 数据
+     * @return 摘要
+     */
+    public static byte[] sha256(byte[] data) {
+        MessageDigest digest = acquireDigest();
+        try {
+            return digest.digest(data);
+        } finally {
+            digest.reset();
+            SHA256_POOL.offer(digest);
+        }
+    }
+
+    /**
+     * 计算 SHA-256 摘要的小写十六进制
+     *
+     * @param data 数据
+     * @return 小写十六进制摘要
+     */
+    public static String sha256Hex(byte[] data) {
+        return hex(sha256(data));
+    }
+
+    /**
+     * 计算字符串（UTF-8）SHA-256 摘要的小写十六进制
+     *
+     * @param data 字符串
+     * @return 小写十六进制摘要
+     */
+    public static String sha256Hex(String data) {
+        return hex(sha256(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 从池中借出 SHA-256 实例，用于增量摘要；用完必须通过 {@link #releaseDigest(MessageDigest)} 归还
+     *
+     * @return 已重置的 MessageDigest
+     */
+    public static MessageDigest acquireDigest() {
+        MessageDigest digest = SHA256_POOL.poll();
+        return digest != null ? digest : newDigest();
+    }
+
+    /**
+     * 归还 SHA-256 实例
+     *
+     * @param digest 由 {@link #acquireDigest()} 借出的实例
+     */
+    public static void releaseDigest(MessageDigest digest) {
+        digest.reset();
+        SHA256_POOL.offer(digest);
+    }
+
+    // -------------------- HMAC --------------------
+
+    /**
+     * 计算 HMAC-SHA256
+     *
+     * @param key  密钥
+     * @param data 数据
+     * @return 签名
+     */
+    public static byte[] hmacSha256(byte[] key, byte[] data) {
+        return hmac(HMAC_SHA256_POOL, HMAC_SHA256, new SecretKeySpec(key, HMAC_SHA256), data);
+    }
+
+    /**
+     * 使用预先构建的密钥计算 HMAC-SHA256（密钥可缓存复用）
+     *
+     * @param key  密钥，算法须为 {@link #HMAC_SHA256}
+     * @param data 字符串（UTF-8）
+     * @return 签名
+     */
+    public static byte[] hmacSha256(SecretKeySpec key, String data) {
+        return hmac(HMAC_SHA256_POOL, HMAC_SHA256, key, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 计算 HMAC-SHA256 的小写十六进制
+     *
+     * @param key  密钥
+     * @param data 字符串（UTF-8）
+     * @return 小写十六进制签名
+     */
+    public static String hmacSha256Hex(byte[] key, String data) {
+        return hex(hmacSha256(key, data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 计算 HMAC-SHA1
+     *
+     * @param key  密钥
+     * @param data 数据
+     * @return 签名
+     */
+    public static byte[] hmacSha1(byte[] key, byte[] data) {
+        return hmac(HMAC_SHA1_POOL, HMAC_SHA1, new SecretKeySpec(key, HMAC_SHA1), data);
+    }
+
+    private static byte[] hmac(Queue<Mac> pool, String algorithm, SecretKeySpec key, byte[] data) {
+        Mac mac = pool.poll();
+        if (mac == null) {
+            mac = newMac(algorithm);
+        }
+        try {
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to init " + algorithm, e);
+        } finally {
+            mac.reset();
+            pool.offer(mac);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(SHA256);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(SHA256 + " not available", e);
+        }
+    }
+
+    private static Mac newMac(String algorithm) {
+        try {
+            return Mac.getInstance(algorithm);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(algorithm + " not available", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.xiangxi.message.common.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * 异步 Future 工具类
+ *
+ * <p>为各渠道的异步发送实现提供统一的结果转换与异常转换，
+ * 并保证取消下游 Future 时能够取消上游的网络调用。</p>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class FutureUtils {
+
+    private FutureUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 可抛出受检异常的转换函数
+     *
+     * @param <T> 输入类型
+     * @param <R> 输出类型
+     */
+    @FunctionalInterface
+    public interface CheckedFunction<T, R> {
+        R apply(T value) throws Exception;
+    }
+
+    /**
+     * 转换 Future 的结果与异常
+     *
+     * <p>与 {@link CompletableFuture#thenApply} 不同：</p>
+     * <ul>
+     *   <li>异常不会被包装为 {@link CompletionException}，而是先解包再交给 errorMapper；</li>
+     *   <li>取消返回的 Future 会同时取消 source。</li>
+     * </ul>
+     *
+     * @param source      上游 Future
+     * @param mapper      成功结果转换函数，抛出的异常同样交给 errorMapper
+     * @param errorMapper 异常转换函数
+     * @param <T>         上游结果类型
+     * @param <R>         转换后结果类型
+     * @return 转换后的 Future
+     */
+    public static <T, R> CompletableFuture<R> transform(CompletableFuture<T> source,
+                                                        CheckedFunction<? super T, ? extends R> mapper,
+                                                        Function<Throwable, ? extends Throwable> errorMapper) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(errorMapper.apply(unwrap(error)));
+                return;
+            }
+            try {
+                result.complete(mapper.apply(value));
+            } catch (Exception e) {
+                result.completeExceptionally(errorMapper.apply(e));
+            }
+        });
+        propagateCancellation(result, source);
+        return result;
+    }
+
+    /**
+     * 当 downstream 被取消时取消 upstream
+     *
+     * @param downstream 下游 Future
+     * @param upstream   上游 Future
+     */
+    public static void propagateCancellation(CompletableFuture<?> downstream, CompletableFuture<?> upstream) {
+        downstream.whenComplete((value, error) -> {
+            if (downstream.isCancelled()) {
+                upstream.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * 解包 {@link CompletionException} / {@link ExecutionException}，返回真实异常
+     *
+     * @param error 异常
+     * @return 真实异常
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,225 @@
+package com.xiangxi.message.common.util;
+
+import com.google.gson.Gson;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 已序列化并计算摘要的 JSON 请求体
+ *
+ * <p>厂商请求对象经 Gson 直接以 UTF-8 写入池化的字节缓冲区，不产生中间 {@code String}；
+ * 写入完成后在同一缓冲区上计算 SHA-256，供签名使用，再复制一次得到交给 HTTP 层的字节数组。</p>
+ *
+ * <p>与 {@code GSON.toJson(obj)} + 两次 {@code getBytes} 的做法相比：</p>
+ * <ul>
+ *   <li>不再生成 JSON 字符串，也不再为签名和请求体分别编码；</li>
+ *   <li>缓冲区池化复用，序列化过程中不会反复扩容；</li>
+ *   <li>请求体字节数组独立于缓冲区，OkHttp 重试或异步发送时可安全重复写出。</li>
+ * </ul>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * JsonPayload payload = JsonPayload.of(GSON, apiRequest);
+ * String hash = payload.sha256Hex();   // 用于签名
+ * byte[] body = payload.bytes();       // 用于请求体
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class JsonPayload {
+
+    /**
+     * 超过该大小的缓冲区用完后不再归还池中，避免偶发大请求长期占用内存
+     */
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final Queue<Utf8Buffer> POOL = new ConcurrentLinkedQueue<>();
+
+    private final byte[] bytes;
+    private final String sha256Hex;
+
+    private JsonPayload(byte[] bytes, String sha256Hex) {
+        this.bytes = bytes;
+        this.sha256Hex = sha256Hex;
+    }
+
+    /**
+     * 序列化对象并计算摘要
+     *
+     * @param gson Gson 实例
+     * @param src  待序列化对象
+     * @return JSON 请求体
+     */
+    public static JsonPayload of(Gson gson, Object src) {
+        Utf8Buffer buffer = POOL.poll();
+        if (buffer == null) {
+            buffer = new Utf8Buffer();
+        }
+        try {
+            gson.toJson(src, buffer);
+            buffer.flushPending();
+            MessageDigest digest = CryptoUtils.acquireDigest();
+            byte[] hash;
+            try {
+                digest.update(buffer.buf, 0, buffer.count);
+                hash = digest.digest();
+            } finally {
+                CryptoUtils.releaseDigest(digest);
+            }
+            return new JsonPayload(Arrays.copyOf(buffer.buf, buffer.count), CryptoUtils.hex(hash));
+        } finally {
+            buffer.reset();
+            if (buffer.buf.length <= MAX_POOLED_CAPACITY) {
+                POOL.offer(buffer);
+            }
+        }
+    }
+
+    /**
+     * 获取 UTF-8 编码的请求体（调用方不应修改）
+     *
+     * @return 请求体字节
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * 获取请求体 SHA-256 摘要的小写十六进制
+     *
+     * @return 摘要
+     */
+    public String sha256Hex() {
+        return sha256Hex;
+    }
+
+    /**
+     * 获取请求体长度（字节）
+     *
+     * @return 长度
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * 以字符串形式返回请求体，仅用于日志与调试
+     *
+     * @return 请求体字符串
+     */
+    public String asString() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonPayload{length=" + bytes.length + ", sha256=" + sha256Hex + "}";
+    }
+
+    /**
+     * 直接按 UTF-8 编码写入字节数组的 Writer
+     * <p>
+     * 不使用 {@link java.io.OutputStreamWriter}，避免每次创建编码器及其内部缓冲区。
+     * 孤立的代理字符按 {@link String#getBytes} 的行为替换为 '?'。
+     * </p>
+     */
+    private static final class Utf8Buffer extends Writer {
+        private byte[] buf = new byte[1024];
+        private int count;
+        private char pendingHigh;
+
+        @Override
+        public void write(int c) {
+            encode((char) c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off, end = off + len; i < end; i++) {
+                encode(cbuf[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            for (int i = off, end = off + len; i < end; i++) {
+                encode(str.charAt(i));
+            }
+        }
+
+        @Override
+        public void flush() {
+            // 数据直接写入缓冲区，无需刷新
+        }
+
+        @Override
+        public void close() {
+            // 缓冲区由池管理，不关闭
+        }
+
+        private void encode(char c) {
+            if (pendingHigh != 0) {
+                char high = pendingHigh;
+                pendingHigh = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int cp = Character.toCodePoint(high, c);
+                    ensure(4);
+                    buf[count++] = (byte) (0xF0 | (cp >> 18));
+                    buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[count++] = (byte) (0x80 | (cp & 0x3F));
+                    return;
+                }
+                put('?');
+            }
+            if (c < 0x80) {
+                put(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[count++] = (byte) (0xC0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                pendingHigh = c;
+            } else if (Character.isLowSurrogate(c)) {
+                put('?');
+            } else {
+                ensure(3);
+                buf[count++] = (byte) (0xE0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        private void put(char ascii) {
+            ensure(1);
+            buf[count++] = (byte) ascii;
+        }
+
+        /**
+         * 输出末尾遗留的孤立高代理字符
+         */
+        void flushPending() {
+            if (pendingHigh != 0) {
+                pendingHigh = 0;
+                put('?');
+            }
+        }
+
+        void reset() {
+            count = 0;
+            pendingHigh = 0;
+        }
+
+        private void ensure(int extra) {
+            if (count + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+            }
+        }
+    }
+}
@@ -66,6 +66,26 @@ public class MessageValidator {
         return isValidChinaMobile(phoneNumber) || isValidInternationalMobile(phoneNumber);
     }
     
+    /**
+     * 规范化手机号：去除首尾空白，不带区号的 11 位号码补全 +86，其他格式原样返回
+     * <p>
+     * 厂商返回的逐接收人结果可能带区号且不保证与请求顺序一致，按规范化后的号码匹配请求中的接收人。
+     * </p>
+     *
+     * @param phoneNumber 手机号
+     * @return 规范化后的手机号；传入 null 时返回 null
+     */
+    public static String normalizeMobile(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        String phone = phoneNumber.trim();
+        if (!phone.startsWith("+") && phone.length() == 11) {
+            return "+86" + phone;
+        }
+        return phone;
+    }
+
     /**
      * 验证邮箱地址
      * 
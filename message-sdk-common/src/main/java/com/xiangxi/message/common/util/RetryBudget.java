@@ -0,0 +1,261 @@
+package com.xiangxi.message.common.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 进程级重试预算
+ *
+ * <p>厂商部分不可用时，各层重试会成倍放大发往厂商的流量。重试预算按 routeKey（如 {@code SMS:TENCENT_SMS}）
+ * 统计最近一个窗口内的首次请求数与重试数，重试数最多为 minRetries + ratio × 首次请求数：</p>
+ * <ul>
+ *   <li>首次请求调用 {@link #onAttempt(String)} 计数，重试前调用 {@link #tryRetry(String)} 申请额度；</li>
+ *   <li>额度不足时不再重试，调用方应以 {@link #RETRY_BUDGET_EXHAUSTED} 立即失败；</li>
+ *   <li>上层重试经由下层会计数首次请求的调用（如发送器 → HTTP 客户端）时，在 {@link #asRetry(Supplier)} 中发起，
+ *       下层据 {@link #isRetrying()} 不再把它计为首次请求；</li>
+ *   <li>计数使用分段计数器（{@link LongAdder}），发送热路径上的计数无竞争；
+ *       窗口按上一窗口的剩余比例加权，近似滑动窗口；并发申请时额度可能被略微超出。</li>
+ * </ul>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * RetryBudget.shared().configure(new RetryBudget.Settings(0.1, 10, Duration.ofSeconds(10)));
+ * RetryBudget budget = RetryBudget.shared();
+ * budget.onAttempt("SMS:TENCENT_SMS");
+ * if (!budget.tryRetry("SMS:TENCENT_SMS")) {
+ *     // 预算耗尽，放弃重试
+ * }
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class RetryBudget {
+
+    /**
+     * 重试预算耗尽时的错误码
+     */
+    public static final String RETRY_BUDGET_EXHAUSTED = "RETRY_BUDGET_EXHAUSTED";
+
+    private static final RetryBudget SHARED = new RetryBudget(Settings.defaults());
+
+    /**
+     * 当前线程上发起的调用是否为已申请过额度的重试
+     */
+    private static final ThreadLocal<Boolean> RETRYING = new ThreadLocal<>();
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private volatile Settings settings;
+
+    /**
+     * 预算参数
+     *
+     * @param ratio      重试数相对首次请求数的上限，如 0.1 表示重试最多为首次请求的 10%
+     * @param minRetries 每个窗口无论流量多少都允许的重试数，保证低流量时仍可重试
+     * @param window     统计窗口
+     */
+    public record Settings(double ratio, int minRetries, Duration window) {
+        public Settings {
+            if (!(ratio >= 0)) {
+                throw new IllegalArgumentException("ratio must be non-negative");
+            }
+            if (minRetries < 0) {
+                throw new IllegalArgumentException("minRetries must be non-negative");
+            }
+            if (window == null || window.isNegative() || window.isZero()) {
+                throw new IllegalArgumentException("window must be positive");
+            }
+        }
+
+        /**
+         * 默认参数：重试不超过首次请求的 10%，每 10 秒至少允许 10 次重试
+         *
+         * @return 默认参数
+         */
+        public static Settings defaults() {
+            return new Settings(0.1, 10, Duration.ofSeconds(10));
+        }
+    }
+
+    /**
+     * 创建独立的重试预算；进程内通常使用 {@link #shared()}
+     *
+     * @param settings 预算参数
+     */
+    public RetryBudget(Settings settings) {
+        this.settings = Objects.requireNonNull(settings, "settings must not be null");
+    }
+
+    /**
+     * 获取 SDK 全局共享的重试预算，客户端与发送器的重试均在此计数
+     *
+     * @return 重试预算
+     */
+    public static RetryBudget shared() {
+        return SHARED;
+    }
+
+    /**
+     * 更新预算参数，对下一个统计窗口生效
+     *
+     * @param newSettings 新参数
+     */
+    public void configure(Settings newSettings) {
+        this.settings = Objects.requireNonNull(newSettings, "settings must not be null");
+    }
+
+    /**
+     * 获取当前参数
+     *
+     * @return 当前参数
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * 记录一次首次请求
+     *
+     * @param routeKey 路由键
+     */
+    public void onAttempt(String routeKey) {
+        bucket(routeKey).current(settings).attempts.increment();
+    }
+
+    /**
+     * 申请一次重试额度
+     *
+     * @param routeKey 路由键
+     * @return 额度充足时返回 true 并计入重试数
+     */
+    public boolean tryRetry(String routeKey) {
+        Settings current = settings;
+        long now = System.nanoTime();
+        Window window = bucket(routeKey).current(current, now);
+        window.retries.increment();
+        if (window.retryCount(now, current) > window.allowed(now, current)) {
+            window.retries.decrement();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 获取 routeKey 当前剩余的重试额度
+     *
+     * @param routeKey 路由键
+     * @return 剩余额度；尚无请求时为 minRetries
+     */
+    public long getAvailable(String routeKey) {
+        Settings current = settings;
+        long now = System.nanoTime();
+        Window window = bucket(routeKey).current(current, now);
+        return Math.max(0, (long) Math.floor(window.allowed(now, current) - window.retryCount(now, current)));
+    }
+
+    /**
+     * 以重试身份执行操作
+     * <p>
+     * 调用方已通过 {@link #tryRetry(String)} 为本次重试申请额度；操作执行期间在当前线程上发起的请求
+     * 不应再由下层按首次请求计数，否则每次重试都会抬高允许的重试数。只作用于当前线程，
+     * 下层在其他线程上延后发起的请求不受影响。
+     * </p>
+     *
+     * @param action 发起重试的操作
+     * @param <T>    返回值类型
+     * @return 操作的返回值
+     */
+    public static <T> T asRetry(Supplier<T> action) {
+        if (RETRYING.get() != null) {
+            return action.get();
+        }
+        RETRYING.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            RETRYING.remove();
+        }
+    }
+
+    /**
+     * 当前线程是否处于 {@link #asRetry(Supplier)} 中
+     *
+     * @return 处于重试中时返回 true，此时不应调用 {@link #onAttempt(String)}
+     */
+    public static boolean isRetrying() {
+        return RETRYING.get() != null;
+    }
+
+    private Bucket bucket(String routeKey) {
+        return buckets.computeIfAbsent(routeKey, k -> new Bucket());
+    }
+
+    /**
+     * 单个路由的统计窗口，到期后整体替换为新窗口
+     */
+    private static final class Bucket {
+        private final AtomicReference<Window> window = new AtomicReference<>(new Window(System.nanoTime(), 0, 0));
+
+        Window current(Settings settings) {
+            return current(settings, System.nanoTime());
+        }
+
+        Window current(Settings settings, long now) {
+            long length = settings.window().toNanos();
+            for (;;) {
+                Window w = window.get();
+                long elapsed = now - w.start;
+                if (elapsed < length) {
+                    return w;
+                }
+                // 紧邻的上一窗口参与加权，更早的窗口丢弃
+                Window next = elapsed < 2 * length
+                        ? new Window(w.start + length, w.attempts.sum(), w.retries.sum())
+                        : new Window(now, 0, 0);
+                if (window.compareAndSet(w, next)) {
+                    return next;
+                }
+            }
+        }
+    }
+
+    /**
+     * 一个统计窗口：本窗口的分段计数器与上一窗口的总数
+     */
+    private static final class Window {
+        private final long start;
+        private final long previousAttempts;
+        private final long previousRetries;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+
+        Window(long start, long previousAttempts, long previousRetries) {
+            this.start = start;
+            this.previousAttempts = previousAttempts;
+            this.previousRetries = previousRetries;
+        }
+
+        /**
+         * 上一窗口在滑动窗口中的剩余比例
+         */
+        private double previousWeight(long now, Settings settings) {
+            double length = settings.window().toNanos();
+            return Math.max(0, 1 - (now - start) / length);
+        }
+
+        double allowed(long now, Settings settings) {
+            double attemptCount = attempts.sum() + previousAttempts * previousWeight(now, settings);
+            return settings.minRetries() + settings.ratio() * attemptCount;
+        }
+
+        double retryCount(long now, Settings settings) {
+            return retries.sum() + previousRetries * previousWeight(now, settings);
+        }
+    }
+}
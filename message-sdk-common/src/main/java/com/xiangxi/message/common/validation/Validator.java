@@ -2,7 +2,11 @@ package com.xiangxi.message.common.validation;
 
 import com.xiangxi.message.common.annotation.Required;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -59,7 +63,8 @@ public class Validator {
     /**
      * 校验对象中带有@Required注解的字段
      * 
-     * <p>使用反射机制遍历对象的所有字段，检查带有@Required注解的字段是否为空。</p>
+     * <p>每个类首次校验时通过反射解析一次字段与注解，生成由 {@link MethodHandle} 组成的校验计划并缓存；
+     * 此后对同一类的校验只是遍历计划依次取值判断，不再调用反射 API，校验通过时不分配对象。</p>
      * 
      * @param obj 待校验的对象，不能为null
      * @throws ValidationException 当校验失败时抛出，包含所有校验错误信息
@@ -70,59 +75,111 @@ public class Validator {
             throw new IllegalArgumentException("校验对象不能为null");
         }
 
-        List<ValidationException.ValidationError> errors = new ArrayList<>();
-        Class<?> clazz = obj.getClass();
-        Field[] fields = clazz.getDeclaredFields();
-
-        for (Field field : fields) {
-            Required required = field.getAnnotation(Required.class);
-            if (required != null) {
-                field.setAccessible(true);
-                try {
-                    Object value = field.get(obj);
-                    if (isEmpty(value)) {
-                        String fieldName = getFieldName(field, required);
-                        String message = required.message().isEmpty() ? 
-                            fieldName + "不能为空" : required.message();
-                        String valueStr = value == null ? "null" : value.toString();
-                        errors.add(new ValidationException.ValidationError(fieldName, valueStr, message));
-                    }
-                } catch (IllegalAccessException e) {
-                    errors.add(new ValidationException.ValidationError(field.getName(), 
-                        "null", "字段访问异常: " + field.getName()));
+        List<ValidationException.ValidationError> errors = null;
+        for (RequiredRule rule : PLANS.get(obj.getClass())) {
+            ValidationException.ValidationError error = rule.check(obj);
+            if (error != null) {
+                if (errors == null) {
+                    errors = new ArrayList<>();
                 }
+                errors.add(error);
             }
         }
         
-        if (!errors.isEmpty()) {
+        if (errors != null) {
             throw new ValidationException(errors);
         }
     }
     
     /**
-     * 校验单个字段
-     * @param obj 对象实例
+     * 按类缓存的校验计划：类中所有带 @Required 注解字段的取值句柄
+     */
+    private static final ClassValue<RequiredRule[]> PLANS = new ClassValue<>() {
+        @Override
+        protected RequiredRule[] computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+    
+    /**
+     * 解析类的 @Required 字段，生成校验计划
+     * <p>
+     * record 类型优先使用组件访问器，普通类直接读取字段；句柄统一适配为 {@code (Object)Object}，
+     * 以便在校验时通过 {@code invokeExact} 调用。
+     * </p>
+     * @param type 待校验的类
+     * @return 校验计划，没有 @Required 字段时为空数组
+     */
+    private static RequiredRule[] compile(Class<?> type) {
+        List<RequiredRule> rules = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            Required required = field.getAnnotation(Required.class);
+            if (required == null) {
+                continue;
+            }
+            String fieldName = getFieldName(field, required);
+            String message = required.message().isEmpty() ? fieldName + "不能为空" : required.message();
+            rules.add(new RequiredRule(field.getName(), fieldName, message, getter(type, field)));
+        }
+        return rules.toArray(new RequiredRule[0]);
+    }
+    
+    /**
+     * 创建字段取值句柄
+     * @param type 声明字段的类
      * @param field 字段
-     * @param required 注解信息
-     * @throws ValidationException 校验失败时抛出
+     * @return 类型为 {@code (Object)Object} 的句柄；无法访问时返回null，校验时按字段访问异常处理
      */
-    private static void validateField(Object obj, Field field, Required required) throws ValidationException {
+    private static MethodHandle getter(Class<?> type, Field field) {
         try {
-            field.setAccessible(true);
-            Object value = field.get(obj);
-            
-            String fieldName = getFieldName(field, required);
-            
-            if (isEmpty(value)) {
-                 String message = required.message().isEmpty() ? 
-                     fieldName + "不能为空" : required.message();
-                 String valueStr = value == null ? "null" : value.toString();
-                 throw new ValidationException(fieldName, valueStr, message);
-             }
-             
-         } catch (IllegalAccessException e) {
-             throw new ValidationException(field.getName(), "null", "无法访问字段: " + field.getName());
-         }
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle handle = null;
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    if (component.getName().equals(field.getName())) {
+                        handle = lookup.unreflect(component.getAccessor());
+                        break;
+                    }
+                }
+            }
+            if (handle == null) {
+                handle = lookup.unreflectGetter(field);
+            }
+            return handle.asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 单个必填字段的校验规则
+     * @param name 字段名
+     * @param fieldName 字段显示名称
+     * @param message 校验失败时的错误消息
+     * @param getter 取值句柄，为null表示字段不可访问
+     */
+    private record RequiredRule(String name, String fieldName, String message, MethodHandle getter) {
+        
+        /**
+         * 校验字段
+         * @param obj 对象实例
+         * @return 校验通过返回null，否则返回校验错误
+         */
+        ValidationException.ValidationError check(Object obj) {
+            if (getter == null) {
+                return new ValidationException.ValidationError(name, "null", "字段访问异常: " + name);
+            }
+            Object value;
+            try {
+                value = (Object) getter.invokeExact(obj);
+            } catch (Throwable e) {
+                return new ValidationException.ValidationError(name, "null", "字段访问异常: " + name);
+            }
+            if (!isEmpty(value)) {
+                return null;
+            }
+            return new ValidationException.ValidationError(fieldName, value == null ? "null" : value.toString(), message);
+        }
     }
     
     /**
@@ -143,7 +200,7 @@ public class Validator {
             return ((Collection<?>) value).isEmpty();
         }
         
-        if (value.getClass().isArray()) {
+        if (value instanceof Object[]) {
             return ((Object[]) value).length == 0;
         }
         
@@ -0,0 +1,279 @@
+package com.xiangxi.message.manager;
+
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.exception.SendErrorCodes;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发限制器。
+ * <p>
+ * 按 routeKey 限制同时在途的厂商调用数，上限根据观测到的耗时自动调整（Gradient 算法）：
+ * 每个采样窗口（至少 100ms 且 10 个样本）的平均耗时与长期基线比较，高于基线时按比例收缩上限，
+ * 耗时恢复后逐步放大；窗口内出现超时、连接异常等 IO 错误时按比例快速收缩。
+ * 这样厂商变慢时多余请求会被立即拒绝，而不是占满线程一直等到读超时。
+ * </p>
+ * <p>
+ * 超过上限的请求以 {@link #CONCURRENCY_LIMITED} 错误码快速失败；
+ * 参数校验失败（VALIDATION_ERROR）不产生厂商耗时，不参与调整。
+ * </p>
+ *
+ * <pre>{@code
+ * AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimiter.Settings.defaults());
+ * MessageSenderManager.addGuard(limiter);
+ * int limit = limiter.getLimit("SMS:TENCENT_SMS");
+ * }</pre>
+ */
+public class AdaptiveConcurrencyLimiter implements SendGuard {
+
+    /**
+     * 在途请求达到上限被拒绝时的错误码
+     */
+    public static final String CONCURRENCY_LIMITED = SendErrorCodes.CONCURRENCY_LIMITED;
+
+    /**
+     * IO 错误时上限的收缩比例
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * 基线耗时最多允许高于短期耗时的倍数，超过时基线向短期耗时回落，避免长期偏高导致上限只增不减
+     */
+    private static final double MAX_DRIFT = 2.0;
+
+    /**
+     * 采样窗口的最短时长，窗口内的耗时取平均后调整一次上限，避免单个样本造成抖动
+     */
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 采样窗口的最少样本数
+     */
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final Settings settings;
+
+    /**
+     * 按 routeKey 的限制状态
+     */
+    private final Map<String, RouteLimit> routes = new ConcurrentHashMap<>();
+
+    /**
+     * 限制参数
+     *
+     * @param initialLimit 初始上限
+     * @param minLimit     最小上限，至少为 1
+     * @param maxLimit     最大上限
+     * @param tolerance    耗时容忍倍数，短期耗时不超过基线的该倍数时不收缩，至少为 1
+     * @param smoothing    每次调整向新上限靠近的比例，取值 (0, 1]
+     * @param longWindow   基线耗时的平滑窗口（采样窗口数）
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                           double smoothing, int longWindow) {
+        public Settings {
+            if (minLimit < 1 || maxLimit < minLimit) {
+                throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= maxLimit");
+            }
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("initialLimit must be within [minLimit, maxLimit]");
+            }
+            if (!(tolerance >= 1)) {
+                throw new IllegalArgumentException("tolerance must be at least 1");
+            }
+            if (!(smoothing > 0 && smoothing <= 1)) {
+                throw new IllegalArgumentException("smoothing must be within (0, 1]");
+            }
+            if (longWindow < 1) {
+                throw new IllegalArgumentException("longWindow must be positive");
+            }
+        }
+
+        /**
+         * 默认参数：初始 20，范围 [4, 500]，容忍 1.5 倍，平滑 0.2，基线窗口 600
+         *
+         * @return 默认参数
+         */
+        public static Settings defaults() {
+            return new Settings(20, 4, 500, 1.5, 0.2, 600);
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter(Settings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public Permit acquire(SendContext context) throws MessageSendException {
+        RouteLimit route = routes.computeIfAbsent(context.routeKey(), k -> new RouteLimit(settings));
+        if (!route.tryAcquire()) {
+            throw new MessageSendException("Concurrency limit reached: " + context.routeKey()
+                    + " (limit=" + route.limit + ")", CONCURRENCY_LIMITED, context.type(), context.channel());
+        }
+        return new Permit() {
+            @Override
+            public void release(long latencyNanos, Throwable error) {
+                route.release(latencyNanos, error);
+            }
+
+            @Override
+            public void abandon() {
+                route.inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * 获取 routeKey 当前的并发上限
+     *
+     * @param routeKey 路由键
+     * @return 当前上限；该路由尚无请求时返回初始上限
+     */
+    public int getLimit(String routeKey) {
+        RouteLimit route = routes.get(routeKey);
+        return route == null ? settings.initialLimit() : route.limit;
+    }
+
+    /**
+     * 获取 routeKey 当前的在途请求数
+     *
+     * @param routeKey 路由键
+     * @return 在途请求数
+     */
+    public int getInFlight(String routeKey) {
+        RouteLimit route = routes.get(routeKey);
+        return route == null ? 0 : route.inFlight.get();
+    }
+
+    /**
+     * 获取所有已产生请求的路由的当前上限
+     *
+     * @return routeKey 到当前上限的快照
+     */
+    public Map<String, Integer> getLimits() {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        routes.forEach((key, route) -> limits.put(key, route.limit));
+        return limits;
+    }
+
+    /**
+     * 获取限制参数
+     *
+     * @return 限制参数
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * 单个路由的限制状态：获取许可是无锁的 CAS；归还时在锁内累计采样窗口，窗口结束时调整一次上限
+     */
+    private static final class RouteLimit {
+        private final Settings settings;
+        private final double longAlpha;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 当前上限，取整后对外可见
+         */
+        private volatile int limit;
+
+        /**
+         * 以下字段仅在持有锁时访问
+         */
+        private double estimatedLimit;
+        private double longRtt;
+        private long windowStart = System.nanoTime();
+        private long windowRttSum;
+        private int windowSamples;
+        private int windowMaxInFlight;
+        private boolean windowDropped;
+
+        RouteLimit(Settings settings) {
+            this.settings = settings;
+            this.longAlpha = 2.0 / (settings.longWindow() + 1);
+            this.estimatedLimit = settings.initialLimit();
+            this.limit = settings.initialLimit();
+        }
+
+        boolean tryAcquire() {
+            for (;;) {
+                int current = inFlight.get();
+                if (current >= limit) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(long latencyNanos, Throwable error) {
+            int inFlightBefore = inFlight.getAndDecrement();
+            if (error instanceof MessageSendException mse && SendErrorCodes.VALIDATION_ERROR.equals(mse.getErrorCode())) {
+                return;
+            }
+            long now = System.nanoTime();
+            synchronized (this) {
+                if (isIoError(error)) {
+                    windowDropped = true;
+                } else {
+                    windowRttSum += Math.max(1L, latencyNanos);
+                    windowSamples++;
+                }
+                windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+                if (now - windowStart < WINDOW_NANOS || (windowSamples < MIN_WINDOW_SAMPLES && !windowDropped)) {
+                    return;
+                }
+                if (windowDropped) {
+                    estimatedLimit = Math.max(settings.minLimit(), estimatedLimit * BACKOFF_RATIO);
+                } else {
+                    update((double) windowRttSum / windowSamples, windowMaxInFlight);
+                }
+                limit = (int) estimatedLimit;
+                windowStart = now;
+                windowRttSum = 0;
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+                windowDropped = false;
+            }
+        }
+
+        private void update(double rtt, int maxInFlight) {
+            if (longRtt == 0) {
+                longRtt = rtt;
+            } else {
+                longRtt += (rtt - longRtt) * longAlpha;
+                if (longRtt / rtt > MAX_DRIFT) {
+                    longRtt *= 0.95;
+                }
+            }
+            // 在途请求远低于上限（受应用自身流量限制）时耗时不能反映上限是否合适，上限保持不变，既不放大也不收缩；
+            // IO 错误的收缩不受此限制
+            if (maxInFlight < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, settings.tolerance() * longRtt / rtt));
+            double queueSize = Math.sqrt(estimatedLimit);
+            double target = estimatedLimit * gradient + queueSize;
+            double next = estimatedLimit * (1 - settings.smoothing()) + target * settings.smoothing();
+            estimatedLimit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), next));
+        }
+
+        private static boolean isIoError(Throwable error) {
+            for (Throwable t = error; t != null; t = t.getCause()) {
+                if (t instanceof IOException) {
+                    return true;
+                }
+                if (t.getCause() == t) {
+                    break;
+                }
+            }
+            return false;
+        }
+    }
+}
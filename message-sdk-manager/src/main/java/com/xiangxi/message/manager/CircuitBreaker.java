@@ -0,0 +1,314 @@
+package com.xiangxi.message.manager;
+
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.exception.SendErrorCodes;
+import com.xiangxi.message.common.model.MessageResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 熔断器。
+ * <p>
+ * 按 routeKey 统计最近 windowSize 次调用中厂商故障（见 {@link FailureClassifier#isVendorFailure(Throwable)}，
+ * 以及所有接收人均因厂商内部错误失败的响应，见 {@link FailureClassifier#isVendorFailure(MessageResponse)}）的比例，
+ * 达到阈值后打开：等待期内的请求直接以 {@link #CIRCUIT_OPEN} 失败，不再为已经不可用的厂商支付连接与读取超时。
+ * 等待期结束后进入半开，只放行 halfOpenProbes 个探测请求：全部成功则关闭并清空窗口，任一失败则重新打开。
+ * </p>
+ * <p>
+ * 参数校验失败、HTTP 4xx、模板签名等业务错误说明厂商可用，按成功计；本地限流、并发限制的拒绝不计入。
+ * CLOSED 状态下获取许可不加锁，只读取 volatile 字段；窗口统计与状态切换在归还时加锁进行。
+ * </p>
+ *
+ * <pre>{@code
+ * CircuitBreaker breaker = new CircuitBreaker(CircuitBreaker.Settings.defaults());
+ * MessageSenderManager.addGuard(breaker);
+ * CircuitState state = breaker.getState("SMS:TENCENT_SMS");
+ * }</pre>
+ */
+public class CircuitBreaker implements SendGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * 熔断打开或半开探测名额已满时的错误码
+     */
+    public static final String CIRCUIT_OPEN = SendErrorCodes.CIRCUIT_OPEN;
+
+    private final Settings settings;
+
+    /**
+     * 按 routeKey 的熔断状态
+     */
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * 熔断参数
+     *
+     * @param windowSize           滑动窗口大小（最近调用次数）
+     * @param minimumCalls         窗口内至少有多少次调用才计算失败率
+     * @param failureRateThreshold 打开熔断的失败率阈值，取值 (0, 1]
+     * @param openDuration         打开后等待多久进入半开
+     * @param halfOpenProbes       半开状态放行的探测请求数
+     */
+    public record Settings(int windowSize, int minimumCalls, double failureRateThreshold,
+                           Duration openDuration, int halfOpenProbes) {
+        public Settings {
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("windowSize must be positive");
+            }
+            if (minimumCalls < 1 || minimumCalls > windowSize) {
+                throw new IllegalArgumentException("minimumCalls must be within [1, windowSize]");
+            }
+            if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+                throw new IllegalArgumentException("failureRateThreshold must be within (0, 1]");
+            }
+            if (openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalArgumentException("openDuration must be positive");
+            }
+            if (halfOpenProbes < 1) {
+                throw new IllegalArgumentException("halfOpenProbes must be positive");
+            }
+        }
+
+        /**
+         * 默认参数：窗口 50 次，至少 20 次调用，失败率 50%，打开 30 秒，半开探测 3 次
+         *
+         * @return 默认参数
+         */
+        public static Settings defaults() {
+            return new Settings(50, 20, 0.5, Duration.ofSeconds(30), 3);
+        }
+    }
+
+    public CircuitBreaker(Settings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public Permit acquire(SendContext context) throws MessageSendException {
+        return breakers.computeIfAbsent(context.routeKey(), k -> new Breaker(k, settings)).acquire(context);
+    }
+
+    /**
+     * 获取 routeKey 的熔断状态
+     *
+     * @param routeKey 路由键
+     * @return 熔断状态；尚无请求时为 {@link CircuitState#CLOSED}
+     */
+    public CircuitState getState(String routeKey) {
+        Breaker breaker = breakers.get(routeKey);
+        return breaker == null ? CircuitState.CLOSED : breaker.state;
+    }
+
+    /**
+     * 获取所有已产生请求的路由的熔断状态
+     *
+     * @return routeKey 到熔断状态的快照
+     */
+    public Map<String, CircuitState> getStates() {
+        Map<String, CircuitState> states = new LinkedHashMap<>();
+        breakers.forEach((key, breaker) -> states.put(key, breaker.state));
+        return states;
+    }
+
+    /**
+     * 获取 routeKey 当前窗口内的厂商故障率
+     *
+     * @param routeKey 路由键
+     * @return 故障率；窗口内调用次数不足 minimumCalls 时返回 -1
+     */
+    public double getFailureRate(String routeKey) {
+        Breaker breaker = breakers.get(routeKey);
+        return breaker == null ? -1 : breaker.failureRate();
+    }
+
+    /**
+     * 将 routeKey 的熔断器重置为关闭状态并清空窗口
+     *
+     * @param routeKey 路由键
+     */
+    public void reset(String routeKey) {
+        Breaker breaker = breakers.get(routeKey);
+        if (breaker != null) {
+            breaker.reset();
+        }
+    }
+
+    /**
+     * 获取熔断参数
+     *
+     * @return 熔断参数
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * 单个路由的熔断状态
+     */
+    private static final class Breaker {
+        private final String routeKey;
+        private final Settings settings;
+        private final long openNanos;
+
+        private volatile CircuitState state = CircuitState.CLOSED;
+
+        /**
+         * 以下字段仅在持有锁时访问
+         */
+        private final boolean[] outcomes;
+        private int index;
+        private int calls;
+        private int failures;
+        private long openUntil;
+        private int probesIssued;
+        private int probesSucceeded;
+
+        /**
+         * 状态切换次数，许可只统计其获取时所处阶段的结果；仅在持有锁时写入
+         */
+        private volatile long generation;
+
+        Breaker(String routeKey, Settings settings) {
+            this.routeKey = routeKey;
+            this.settings = settings;
+            this.openNanos = settings.openDuration().toNanos();
+            this.outcomes = new boolean[settings.windowSize()];
+        }
+
+        Permit acquire(SendContext context) throws MessageSendException {
+            if (state == CircuitState.CLOSED) {
+                return new CallPermit(this, generation, false);
+            }
+            synchronized (this) {
+                if (state == CircuitState.OPEN) {
+                    if (System.nanoTime() - openUntil < 0) {
+                        throw rejected(context);
+                    }
+                    transition(CircuitState.HALF_OPEN);
+                }
+                if (state == CircuitState.HALF_OPEN) {
+                    if (probesIssued >= settings.halfOpenProbes()) {
+                        throw rejected(context);
+                    }
+                    probesIssued++;
+                    return new CallPermit(this, generation, true);
+                }
+                return new CallPermit(this, generation, false);
+            }
+        }
+
+        synchronized void onClosedCall(long permitGeneration, boolean failure) {
+            if (permitGeneration != generation || state != CircuitState.CLOSED) {
+                return;
+            }
+            if (calls == outcomes.length) {
+                if (outcomes[index]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            outcomes[index] = failure;
+            if (failure) {
+                failures++;
+            }
+            index = (index + 1) % outcomes.length;
+            if (calls >= settings.minimumCalls() && failures >= settings.failureRateThreshold() * calls) {
+                transition(CircuitState.OPEN);
+            }
+        }
+
+        synchronized void onProbe(long permitGeneration, Boolean failure) {
+            if (permitGeneration != generation || state != CircuitState.HALF_OPEN) {
+                return;
+            }
+            if (failure == null) {
+                // 探测未真正到达厂商，归还名额
+                probesIssued--;
+            } else if (failure) {
+                transition(CircuitState.OPEN);
+            } else if (++probesSucceeded >= settings.halfOpenProbes()) {
+                transition(CircuitState.CLOSED);
+            }
+        }
+
+        synchronized double failureRate() {
+            return calls < settings.minimumCalls() ? -1 : (double) failures / calls;
+        }
+
+        synchronized void reset() {
+            transition(CircuitState.CLOSED);
+        }
+
+        /**
+         * 切换状态，调用方需持有锁
+         */
+        private void transition(CircuitState next) {
+            CircuitState previous = state;
+            generation++;
+            probesIssued = 0;
+            probesSucceeded = 0;
+            if (next == CircuitState.OPEN) {
+                openUntil = System.nanoTime() + openNanos;
+                log.warn("Circuit opened: route={}, failures={}/{}, retryAfter={}ms",
+                        routeKey, failures, calls, settings.openDuration().toMillis());
+            } else if (next == CircuitState.CLOSED) {
+                index = 0;
+                calls = 0;
+                failures = 0;
+                log.info("Circuit closed: route={}", routeKey);
+            } else {
+                log.info("Circuit half-open: route={}, probes={}", routeKey, settings.halfOpenProbes());
+            }
+            state = next;
+            if (log.isDebugEnabled()) {
+                log.debug("Circuit state changed: route={}, {} -> {}", routeKey, previous, next);
+            }
+        }
+
+        private MessageSendException rejected(SendContext context) {
+            return new MessageSendException("Circuit open: " + routeKey, CIRCUIT_OPEN, context.type(), context.channel());
+        }
+    }
+
+    /**
+     * 一次调用的许可，归还时按调用结果更新所属阶段的统计
+     */
+    private record CallPermit(Breaker breaker, long generation, boolean probe) implements Permit {
+
+        @Override
+        public void release(long latencyNanos, Throwable error) {
+            release(latencyNanos, null, error);
+        }
+
+        @Override
+        public void release(long latencyNanos, Object result, Throwable error) {
+            if (FailureClassifier.isValidationError(error)) {
+                if (probe) {
+                    breaker.onProbe(generation, null);
+                }
+                return;
+            }
+            boolean failure = FailureClassifier.isVendorFailure(error)
+                    || result instanceof MessageResponse response && FailureClassifier.isVendorFailure(response);
+            if (probe) {
+                breaker.onProbe(generation, failure);
+            } else {
+                breaker.onClosedCall(generation, failure);
+            }
+        }
+
+        @Override
+        public void abandon() {
+            if (probe) {
+                breaker.onProbe(generation, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.xiangxi.message.manager;
+
+/**
+ * 熔断器状态
+ *
+ * @see CircuitBreaker
+ */
+public enum CircuitState {
+    /**
+     * 关闭：正常放行，统计滑动窗口内的失败率
+     */
+    CLOSED,
+    /**
+     * 打开：直接以 {@link CircuitBreaker#CIRCUIT_OPEN} 拒绝，等待期结束后进入半开
+     */
+    OPEN,
+    /**
+     * 半开：只放行少量探测请求，全部成功则关闭，任一失败则重新打开
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,21 @@
+package com.xiangxi.message.manager;
+
+/**
+ * 异步发送的调度模式。
+ *
+ * @see MessageSenderManager#sendAsync(String, String, Object, Object)
+ */
+public enum DispatchMode {
+
+    /**
+     * 直接调用 {@link com.xiangxi.message.api.MessageSender#sendAsync(Object, Object)}，
+     * 由渠道实现负责非阻塞发送（默认）。
+     */
+    ASYNC,
+
+    /**
+     * 每次发送在独立的虚拟线程上执行阻塞的 {@link com.xiangxi.message.api.MessageSender#send(Object, Object)}，
+     * 并按 routeKey 限制并发数。
+     */
+    VIRTUAL_THREAD
+}
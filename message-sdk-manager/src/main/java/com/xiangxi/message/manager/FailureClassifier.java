@@ -0,0 +1,143 @@
+package com.xiangxi.message.manager;
+
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.exception.SendErrorCodes;
+import com.xiangxi.message.common.exception.VendorError;
+import com.xiangxi.message.common.model.MessageResponse;
+import com.xiangxi.message.common.model.MessageSendResult;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 发送异常分类
+ * <p>
+ * 区分“厂商不可用”（网络错误、超时、HTTP 5xx、厂商内部错误）与“请求本身的问题”
+ * （参数校验失败、HTTP 4xx、模板或签名错误等业务错误），供熔断、故障转移等发送保护判断厂商健康状况。
+ * 本地发送保护的拒绝（限流、并发限制、熔断）不属于厂商故障。
+ * 厂商调用的详情取自异常链中的 {@link VendorError}（HTTP 客户端异常）；
+ * 厂商以失败响应报告的错误按 {@link MessageResponse} 中每个接收人的错误码判断。
+ * </p>
+ */
+public final class FailureClassifier {
+
+    private FailureClassifier() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 判断异常是否表示厂商不可用
+     *
+     * @param error 发送异常
+     * @return 网络错误、超时、HTTP 5xx 或厂商内部错误时返回 true
+     */
+    public static boolean isVendorFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException) {
+                return true;
+            }
+            if (t instanceof VendorError ve) {
+                if (ve.getHttpStatusCode() != null) {
+                    return ve.getHttpStatusCode() >= 500;
+                }
+                if (ve.isNetworkError() || ve.isTimeoutError()
+                        || SendErrorCodes.isVendorInternalError(ve.getErrorCode())) {
+                    return true;
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断失败响应是否表示厂商不可用：所有接收人均失败，且错误码均为厂商内部错误
+     *
+     * @param response 调用结果
+     * @return 厂商不可用时返回 true；部分成功或存在请求本身的错误时返回 false
+     */
+    public static boolean isVendorFailure(MessageResponse response) {
+        return allFailed(response, false);
+    }
+
+    /**
+     * 判断失败响应是否值得改由其他厂商发送：所有接收人均失败，且错误码均为厂商内部错误或厂商限流
+     *
+     * @param response 调用结果
+     * @return 可转移到其他厂商时返回 true
+     */
+    public static boolean isFailoverable(MessageResponse response) {
+        return allFailed(response, true);
+    }
+
+    private static boolean allFailed(MessageResponse response, boolean includeThrottled) {
+        List<MessageSendResult> results = response == null ? null : response.getResults();
+        if (results == null || results.isEmpty()) {
+            return false;
+        }
+        for (MessageSendResult result : results) {
+            String code = result.getErrorCode();
+            if (result.isSuccess() || !(SendErrorCodes.isVendorInternalError(code)
+                    || includeThrottled && SendErrorCodes.isThrottled(code))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断异常是否为厂商限流（HTTP 429、腾讯云 RequestLimitExceeded / LimitExceeded、阿里云 Throttling / 业务流控）
+     *
+     * @param error 发送异常
+     * @return 厂商限流时返回 true
+     */
+    public static boolean isThrottled(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof VendorError ve) {
+                if (ve.getHttpStatusCode() != null && ve.getHttpStatusCode() == 429) {
+                    return true;
+                }
+                if (SendErrorCodes.isThrottled(ve.getErrorCode())) {
+                    return true;
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断异常是否为本地发送保护的拒绝（限流、并发限制、熔断），此时请求未发往厂商
+     *
+     * @param error 发送异常
+     * @return 本地拒绝时返回 true
+     */
+    public static boolean isLocalRejection(Throwable error) {
+        return error instanceof MessageSendException mse && SendErrorCodes.isLocalRejection(mse.getErrorCode());
+    }
+
+    /**
+     * 判断失败后是否值得改由其他厂商发送：厂商不可用、厂商限流或被本地发送保护拒绝。
+     * 参数、模板、签名等请求本身的问题换厂商也不会成功，返回 false。
+     *
+     * @param error 发送异常
+     * @return 可转移到其他厂商时返回 true
+     */
+    public static boolean isFailoverable(Throwable error) {
+        return isLocalRejection(error) || isThrottled(error) || isVendorFailure(error);
+    }
+
+    /**
+     * 判断异常是否为参数校验失败（请求未发往厂商）
+     *
+     * @param error 发送异常
+     * @return 参数校验失败时返回 true
+     */
+    public static boolean isValidationError(Throwable error) {
+        return error instanceof MessageSendException mse && SendErrorCodes.VALIDATION_ERROR.equals(mse.getErrorCode());
+    }
+}
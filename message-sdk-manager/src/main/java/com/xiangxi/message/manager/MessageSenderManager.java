@@ -3,13 +3,18 @@ package com.xiangxi.message.manager;
 
 import com.xiangxi.message.api.MessageSender;
 import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.util.FutureUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 import java.util.Objects;
 
 /**
@@ -30,9 +35,26 @@ import java.util.Objects;
  * 使用方式：
  * <ul>
  *   <li>{@link #getSender(String, String)} 根据 type 与 channel 获取具体实现；</li>
- *   <li>{@link #send(String, String, Object, Object)} 直接发送消息并发布发送事件。</li>
+ *   <li>{@link #send(String, String, Object, Object)} 直接发送消息并发布发送事件；</li>
+ *   <li>{@link #sendAsync(String, String, Object, Object)} 异步发送消息，不阻塞调用线程；</li>
+ *   <li>{@link #invoke(MessageSender, Object, Object)} / {@link #invokeAsync(MessageSender, Object, Object)}
+ *       经过发送保护与发送观测调用指定的 Sender，供短信批量发送等上层调度复用。</li>
  * </ul>
  * </p>
+ * <p>
+ * 异步调度模式：默认 {@link DispatchMode#ASYNC} 直接使用渠道自身的非阻塞实现；
+ * 通过 {@link #setDispatcher(VirtualThreadDispatcher)} 切换为 {@link DispatchMode#VIRTUAL_THREAD}，
+ * 每次发送在独立虚拟线程上执行，并按 routeKey 限制并发。
+ * </p>
+ * <p>
+ * 发送保护：通过 {@link #addGuard(SendGuard)} 注册限流、并发控制、熔断等 {@link SendGuard}，
+ * 每次调用渠道前按注册顺序获取许可，调用结束后归还。建议的注册顺序为熔断 → 限流 → 并发控制，
+ * 使被熔断的请求不消耗令牌与并发额度。
+ * </p>
+ * <p>
+ * 发送观测：通过 {@link #addObserver(SendObserver)} 注册指标、追踪等 {@link SendObserver}，
+ * 每次渠道调用开始与结束时回调，未注册时没有额外开销。
+ * </p>
  */
 public class MessageSenderManager {
 
@@ -50,6 +72,21 @@ public class MessageSenderManager {
      */
     private static volatile boolean initialized = false;
 
+    /**
+     * 虚拟线程调度器，为 null 时使用 {@link DispatchMode#ASYNC}
+     */
+    private static volatile VirtualThreadDispatcher dispatcher;
+
+    /**
+     * 已注册的发送保护，按注册顺序生效
+     */
+    private static final List<SendGuard> guards = new CopyOnWriteArrayList<>();
+
+    /**
+     * 已注册的发送观测
+     */
+    private static final List<SendObserver> observers = new CopyOnWriteArrayList<>();
+
     /**
      * 惰性初始化：通过 SPI 加载所有 {@link MessageSender} 实现并缓存。
      * 注意：此方法应在 synchronized 块中调用，由 {@link #ensureInitialized()} 负责同步。
@@ -144,7 +181,7 @@ public class MessageSenderManager {
         // 简单的调试日志
         log.debug("Sending message: type={}, channel={}", type, channel);
         try {
-            R result = sender.send(config, message);
+            R result = invoke(sender, config, message);
             log.debug("Message sent successfully: type={}, channel={}", type, channel);
             return result;
         } catch (MessageSendException e) {
@@ -156,5 +193,350 @@ public class MessageSenderManager {
         }
     }
 
-}
+    /**
+     * 设置虚拟线程调度器
+     *
+     * @param virtualThreadDispatcher 调度器；传入 null 恢复为 {@link DispatchMode#ASYNC}
+     */
+    public static void setDispatcher(VirtualThreadDispatcher virtualThreadDispatcher) {
+        dispatcher = virtualThreadDispatcher;
+        log.info("MessageSenderManager dispatch mode: {}", getDispatchMode());
+    }
 
+    /**
+     * 获取当前的虚拟线程调度器
+     *
+     * @return 调度器，未设置时返回 null
+     */
+    public static VirtualThreadDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * 获取当前的异步调度模式
+     *
+     * @return 调度模式
+     */
+    public static DispatchMode getDispatchMode() {
+        return dispatcher == null ? DispatchMode.ASYNC : DispatchMode.VIRTUAL_THREAD;
+    }
+
+    /**
+     * 注册发送保护
+     *
+     * @param guard 发送保护
+     */
+    public static void addGuard(SendGuard guard) {
+        guards.add(Objects.requireNonNull(guard, "guard must not be null"));
+        log.info("Registered SendGuard: {}", guard.getClass().getSimpleName());
+    }
+
+    /**
+     * 移除发送保护
+     *
+     * @param guard 发送保护
+     * @return 是否存在并已移除
+     */
+    public static boolean removeGuard(SendGuard guard) {
+        return guards.remove(guard);
+    }
+
+    /**
+     * 获取已注册的发送保护
+     *
+     * @return 只读列表，按生效顺序排列
+     */
+    public static List<SendGuard> getGuards() {
+        return Collections.unmodifiableList(guards);
+    }
+
+    /**
+     * 注册发送观测
+     *
+     * @param observer 发送观测
+     */
+    public static void addObserver(SendObserver observer) {
+        observers.add(Objects.requireNonNull(observer, "observer must not be null"));
+        log.info("Registered SendObserver: {}", observer.getClass().getSimpleName());
+    }
+
+    /**
+     * 移除发送观测
+     *
+     * @param observer 发送观测
+     * @return 是否存在并已移除
+     */
+    public static boolean removeObserver(SendObserver observer) {
+        return observers.remove(observer);
+    }
+
+    /**
+     * 获取已注册的发送观测
+     *
+     * @return 只读列表
+     */
+    public static List<SendObserver> getObservers() {
+        return Collections.unmodifiableList(observers);
+    }
+
+    /**
+     * 经过已注册的发送保护与发送观测同步调用指定的 Sender
+     * <p>
+     * 与 {@link #send(String, String, Object, Object)} 的区别在于不按 type/channel 查找 Sender，
+     * 上层调度（如短信批量发送的每个子请求）可传入已获取或包装过的 Sender。
+     * </p>
+     *
+     * @param sender  发送器
+     * @param config  发送配置
+     * @param message 发送消息体
+     * @param <C>     配置类型
+     * @param <M>     消息体类型
+     * @param <R>     返回类型
+     * @return 发送结果
+     * @throws MessageSendException 发送失败或被发送保护拒绝时抛出
+     */
+    public static <C, M, R> R invoke(MessageSender<C, M, R> sender, C config, M message) throws MessageSendException {
+        Object[] observing = observers.toArray();
+        if (observing.length == 0) {
+            return call(sender, config, message);
+        }
+        SendContext context = contextOf(sender, config);
+        notifyStart(observing, context, message);
+        long start = System.nanoTime();
+        try {
+            R result = call(sender, config, message);
+            notifyComplete(observing, context, message, result, null, System.nanoTime() - start);
+            return result;
+        } catch (MessageSendException | RuntimeException e) {
+            notifyComplete(observing, context, message, null, e, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * 经过已注册的发送保护与发送观测异步调用指定的 Sender，调度模式与
+     * {@link #sendAsync(String, String, Object, Object)} 一致
+     *
+     * @param sender  发送器
+     * @param config  发送配置
+     * @param message 发送消息体
+     * @param <C>     配置类型
+     * @param <M>     消息体类型
+     * @param <R>     返回类型
+     * @return 发送结果的 Future；发送失败或被发送保护拒绝时异常完成
+     */
+    public static <C, M, R> CompletableFuture<R> invokeAsync(MessageSender<C, M, R> sender, C config, M message) {
+        Object[] observing = observers.toArray();
+        if (observing.length == 0) {
+            return callAsync(sender, config, message);
+        }
+        return observe(observing, contextOf(sender, config), message, () -> callAsync(sender, config, message));
+    }
+
+    /**
+     * 观测一次异步调用：返回调用本身的 Future，取消可传递到调用
+     */
+    private static <R> CompletableFuture<R> observe(Object[] observing, SendContext context, Object message,
+                                                    Supplier<CompletableFuture<R>> call) {
+        notifyStart(observing, context, message);
+        long start = System.nanoTime();
+        CompletableFuture<R> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> notifyComplete(observing, context, message, result,
+                error == null ? null : FutureUtils.unwrap(error), System.nanoTime() - start));
+        return future;
+    }
+
+    private static void notifyStart(Object[] observing, SendContext context, Object message) {
+        for (Object observer : observing) {
+            try {
+                ((SendObserver) observer).onStart(context, message);
+            } catch (RuntimeException e) {
+                log.warn("SendObserver start callback failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void notifyComplete(Object[] observing, SendContext context, Object message, Object result,
+                                       Throwable error, long latencyNanos) {
+        for (Object observer : observing) {
+            try {
+                ((SendObserver) observer).onComplete(context, message, result, error, latencyNanos);
+            } catch (RuntimeException e) {
+                log.warn("SendObserver complete callback failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 经过发送保护同步调用渠道
+     */
+    private static <C, M, R> R call(MessageSender<C, M, R> sender, C config, M message) throws MessageSendException {
+        Object[] snapshot = guards.toArray();
+        if (snapshot.length == 0) {
+            return sender.send(config, message);
+        }
+        SendContext context = contextOf(sender, config);
+        SendGuard.Permit[] permits = new SendGuard.Permit[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            try {
+                permits[i] = ((SendGuard) snapshot[i]).acquire(context);
+            } catch (MessageSendException | RuntimeException e) {
+                abandon(permits, i);
+                throw e;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            R result = sender.send(config, message);
+            release(permits, System.nanoTime() - start, result, null);
+            return result;
+        } catch (MessageSendException | RuntimeException e) {
+            release(permits, System.nanoTime() - start, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 经过发送保护异步调用渠道：虚拟线程模式下在虚拟线程上同步调用，否则使用渠道的非阻塞实现
+     */
+    private static <C, M, R> CompletableFuture<R> callAsync(MessageSender<C, M, R> sender, C config, M message) {
+        VirtualThreadDispatcher current = dispatcher;
+        if (current != null) {
+            return current.dispatch(sender.routeKey(), () -> call(sender, config, message));
+        }
+        Object[] snapshot = guards.toArray();
+        if (snapshot.length == 0) {
+            return sender.sendAsync(config, message);
+        }
+        SendContext context = contextOf(sender, config);
+        SendGuard.Permit[] permits = new SendGuard.Permit[snapshot.length];
+        CompletableFuture<R> result = new CompletableFuture<>();
+        acquireAsync(snapshot, context, permits, 0).whenComplete((ignored, rejected) -> {
+            if (rejected != null) {
+                result.completeExceptionally(FutureUtils.unwrap(rejected));
+                return;
+            }
+            if (result.isDone()) {
+                abandon(permits, permits.length);
+                return;
+            }
+            long start = System.nanoTime();
+            CompletableFuture<R> call;
+            try {
+                call = sender.sendAsync(config, message);
+            } catch (RuntimeException e) {
+                // 渠道同步抛出时同样归还许可，否则并发额度与半开探测名额会永久泄漏
+                release(permits, System.nanoTime() - start, null, e);
+                result.completeExceptionally(e);
+                return;
+            }
+            FutureUtils.propagateCancellation(result, call);
+            call.whenComplete((value, error) -> {
+                if (call.isCancelled()) {
+                    abandon(permits, permits.length);
+                    result.cancel(true);
+                    return;
+                }
+                Throwable cause = error == null ? null : FutureUtils.unwrap(error);
+                release(permits, System.nanoTime() - start, value, cause);
+                if (cause != null) {
+                    result.completeExceptionally(cause);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * 按顺序异步获取许可；任一保护拒绝时归还已获取的许可
+     */
+    private static CompletableFuture<Void> acquireAsync(Object[] snapshot, SendContext context,
+                                                        SendGuard.Permit[] permits, int index) {
+        if (index == snapshot.length) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<SendGuard.Permit> next;
+        try {
+            next = ((SendGuard) snapshot[index]).acquireAsync(context);
+        } catch (RuntimeException e) {
+            next = CompletableFuture.failedFuture(e);
+        }
+        return next.handle((permit, error) -> {
+            if (error != null) {
+                abandon(permits, index);
+                return CompletableFuture.<Void>failedFuture(FutureUtils.unwrap(error));
+            }
+            permits[index] = permit;
+            return acquireAsync(snapshot, context, permits, index + 1);
+        }).thenCompose(f -> f);
+    }
+
+    private static <C> SendContext contextOf(MessageSender<C, ?, ?> sender, C config) {
+        return new SendContext(sender.type(), sender.channel(), sender.routeKey(), sender.accountKey(config));
+    }
+
+    private static void release(SendGuard.Permit[] permits, long latencyNanos, Object result, Throwable error) {
+        for (SendGuard.Permit permit : permits) {
+            try {
+                permit.release(latencyNanos, result, error);
+            } catch (RuntimeException e) {
+                log.warn("SendGuard permit release failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void abandon(SendGuard.Permit[] permits, int count) {
+        for (int i = 0; i < count; i++) {
+            if (permits[i] == null) {
+                continue;
+            }
+            try {
+                permits[i].abandon();
+            } catch (RuntimeException e) {
+                log.warn("SendGuard permit abandon failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 异步发送消息：根据 type 与 channel 路由到具体实现。
+     * <p>
+     * {@link DispatchMode#ASYNC} 模式下调用其 {@link MessageSender#sendAsync(Object, Object)}；
+     * {@link DispatchMode#VIRTUAL_THREAD} 模式下在虚拟线程上调用其 {@link MessageSender#send(Object, Object)}。
+     * 调用线程不会阻塞等待渠道响应；发送失败时返回的 Future 以
+     * {@link MessageSendException} 异常完成。
+     * </p>
+     *
+     * @param type    消息类型
+     * @param channel 渠道
+     * @param config  发送配置
+     * @param message 发送消息体
+     * @param <C>     配置类型
+     * @param <M>     消息体类型
+     * @param <R>     返回类型
+     * @return 发送结果的 Future
+     * @throws IllegalArgumentException 当指定 type/channel 未找到对应实现时抛出
+     */
+    public static <C, M, R> CompletableFuture<R> sendAsync(String type, String channel, C config, M message) {
+        MessageSender<C, M, R> sender = getSender(type, channel);
+        Objects.requireNonNull(config, "config must not be null");
+        Objects.requireNonNull(message, "message must not be null");
+        log.debug("Sending message asynchronously: type={}, channel={}", type, channel);
+        CompletableFuture<R> future = invokeAsync(sender, config, message);
+        future.whenComplete((result, error) -> {
+            if (error == null) {
+                log.debug("Message sent successfully: type={}, channel={}", type, channel);
+            } else if (!future.isCancelled()) {
+                log.warn("Message send failed: type={}, channel={}, error={}", type, channel, error.getMessage());
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,21 @@
+package com.xiangxi.message.manager;
+
+/**
+ * 令牌不足时的获取方式
+ *
+ * @see TokenBucketRateLimiter
+ */
+public enum RateLimitMode {
+    /**
+     * 阻塞调用线程直到获得令牌（不超过最长等待时间）
+     */
+    BLOCKING,
+    /**
+     * 同步发送时阻塞等待；异步发送时不阻塞调用线程，令牌就绪后再发起调用
+     */
+    ASYNC_WAIT,
+    /**
+     * 不等待，令牌不足时立即以 {@link TokenBucketRateLimiter#RATE_LIMITED} 拒绝
+     */
+    FAIL_FAST
+}
@@ -0,0 +1,21 @@
+package com.xiangxi.message.manager;
+
+/**
+ * 一次发送的路由上下文，供 {@link SendGuard} 判断与统计
+ *
+ * @param type       消息类型，如 SMS
+ * @param channel    渠道，如 TENCENT_SMS
+ * @param routeKey   路由键，格式 type:channel
+ * @param accountKey 厂商账号标识，见 {@link com.xiangxi.message.api.MessageSender#accountKey(Object)}，可能为 null
+ */
+public record SendContext(String type, String channel, String routeKey, String accountKey) {
+
+    /**
+     * 路由键与账号组合的统计键；账号为空时即为路由键
+     *
+     * @return 统计键，格式 type:channel 或 type:channel@account
+     */
+    public String accountScopedKey() {
+        return accountKey == null || accountKey.isEmpty() ? routeKey : routeKey + "@" + accountKey;
+    }
+}
@@ -0,0 +1,86 @@
+package com.xiangxi.message.manager;
+
+import com.xiangxi.message.common.exception.MessageSendException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 发送保护扩展点。
+ * <p>
+ * 通过 {@link MessageSenderManager#addGuard(SendGuard)} 注册后，经由 MessageSenderManager 的每次发送
+ * （send、sendAsync、invoke、invokeAsync，包括短信批量发送的每个子请求）都会先按注册顺序获取所有保护的许可，任一保护拒绝则不发起调用；
+ * 发送结束后以耗时、调用结果与异常归还许可，保护据此更新统计（限流令牌、并发上限、熔断窗口等）。
+ * </p>
+ * <p>
+ * 实现必须线程安全，且 {@link #acquire(SendContext)} 以外的方法不应抛出异常。
+ * </p>
+ */
+public interface SendGuard {
+
+    /**
+     * 同步获取许可，可阻塞等待
+     *
+     * @param context 发送上下文
+     * @return 许可，发送结束后由管理器归还
+     * @throws MessageSendException 拒绝发送时抛出，错误码区分拒绝原因
+     */
+    Permit acquire(SendContext context) throws MessageSendException;
+
+    /**
+     * 异步获取许可，不阻塞调用线程
+     * <p>
+     * 默认实现直接调用 {@link #acquire(SendContext)}；需要等待的实现应覆盖此方法，在等待结束后完成 Future。
+     * </p>
+     *
+     * @param context 发送上下文
+     * @return 许可的 Future，拒绝时以 {@link MessageSendException} 异常完成
+     */
+    default CompletableFuture<Permit> acquireAsync(SendContext context) {
+        try {
+            return CompletableFuture.completedFuture(acquire(context));
+        } catch (MessageSendException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 发送许可
+     */
+    interface Permit {
+
+        /**
+         * 不需要归还动作的许可
+         */
+        Permit NOOP = (latencyNanos, error) -> {
+        };
+
+        /**
+         * 发送结束后归还许可
+         *
+         * @param latencyNanos 厂商调用耗时（纳秒）
+         * @param error        发送异常，成功时为 null
+         */
+        void release(long latencyNanos, Throwable error);
+
+        /**
+         * 发送结束后归还许可，附带调用结果
+         * <p>
+         * 管理器调用此方法。默认忽略结果，委托给 {@link #release(long, Throwable)}；
+         * 需要识别厂商以失败响应（而非异常）报告的错误的保护可覆盖此方法。
+         * </p>
+         *
+         * @param latencyNanos 厂商调用耗时（纳秒）
+         * @param result       调用结果，发送异常时为 null
+         * @param error        发送异常，成功返回结果时为 null
+         */
+        default void release(long latencyNanos, Object result, Throwable error) {
+            release(latencyNanos, error);
+        }
+
+        /**
+         * 许可已获取但未发起调用（后续保护拒绝或调用被取消）时归还，不计入调用结果
+         */
+        default void abandon() {
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.xiangxi.message.manager;
+
+/**
+ * 发送观测扩展点。
+ * <p>
+ * 通过 {@link MessageSenderManager#addObserver(SendObserver)} 注册后，经由 MessageSenderManager 的每次渠道调用
+ * （send、sendAsync、invoke、invokeAsync，包括短信批量发送的每个子请求）开始时回调 {@link #onStart(SendContext, Object)}，
+ * 结束时回调 {@link #onComplete(SendContext, Object, Object, Throwable, long)}，用于指标、追踪等。
+ * 耗时包含 {@link SendGuard} 的等待；被发送保护拒绝或被取消的调用同样以异常结束。
+ * </p>
+ * <p>
+ * 实现必须线程安全、不应阻塞且不应抛出异常；回调可能在 OkHttp 调度线程上执行。
+ * </p>
+ */
+public interface SendObserver {
+
+    /**
+     * 调用开始
+     *
+     * @param context 发送上下文
+     * @param message 发送消息体，如 SmsRequest、SmsBulkRequest
+     */
+    default void onStart(SendContext context, Object message) {
+    }
+
+    /**
+     * 调用结束，与 {@link #onStart(SendContext, Object)} 一一对应
+     *
+     * @param context      发送上下文
+     * @param message      发送消息体
+     * @param result       发送结果，失败时为 null
+     * @param error        发送异常，成功时为 null；取消时为 {@link java.util.concurrent.CancellationException}
+     * @param latencyNanos 调用耗时（纳秒）
+     */
+    void onComplete(SendContext context, Object message, Object result, Throwable error, long latencyNanos);
+}
@@ -0,0 +1,224 @@
+package com.xiangxi.message.manager;
+
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.exception.SendErrorCodes;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 令牌桶限流器。
+ * <p>
+ * 按 routeKey 配置速率，按 routeKey + 厂商账号（{@link SendContext#accountScopedKey()}）分别计数，
+ * 在请求发出前按厂商账号的 QPS 配额主动控速，而不是等厂商返回 RequestLimitExceeded 再失败。
+ * </p>
+ * <p>
+ * 实现为 GCRA（通用信元速率算法），与令牌桶等价：每个桶只有一个 {@link AtomicLong} 记录“理论到达时间”，
+ * 获取令牌是一次 CAS，无锁且不需要后台补充线程。需要等待时先预约令牌再等待，等待期间不占用其他请求的令牌。
+ * </p>
+ * <p>
+ * 获取方式见 {@link RateLimitMode}；未配置速率的 routeKey 不限流。
+ * </p>
+ *
+ * <pre>{@code
+ * TokenBucketRateLimiter limiter = new TokenBucketRateLimiter()
+ *     .setLimit("SMS:TENCENT_SMS", new TokenBucketRateLimiter.RateLimit(
+ *         100, 20, RateLimitMode.ASYNC_WAIT, Duration.ofSeconds(1)));
+ * MessageSenderManager.addGuard(limiter);
+ * }</pre>
+ */
+public class TokenBucketRateLimiter implements SendGuard {
+
+    /**
+     * 令牌不足被拒绝时的错误码
+     */
+    public static final String RATE_LIMITED = SendErrorCodes.RATE_LIMITED;
+
+    /**
+     * 按 routeKey 配置的速率
+     */
+    private final Map<String, RateLimit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * 按 routeKey + 账号的令牌桶
+     */
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 速率配置
+     *
+     * @param permitsPerSecond 每秒令牌数（QPS），必须大于 0
+     * @param burst            桶容量，即空闲后允许的瞬时突发请求数，至少为 1
+     * @param mode             令牌不足时的获取方式
+     * @param maxWait          最长等待时间，预计等待超过该值时直接拒绝；{@link RateLimitMode#FAIL_FAST} 下忽略
+     */
+    public record RateLimit(double permitsPerSecond, int burst, RateLimitMode mode, Duration maxWait) {
+        public RateLimit {
+            if (!(permitsPerSecond > 0)) {
+                throw new IllegalArgumentException("permitsPerSecond must be positive");
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be at least 1");
+            }
+            if (mode == null) {
+                mode = RateLimitMode.BLOCKING;
+            }
+            if (maxWait == null || maxWait.isNegative() || mode == RateLimitMode.FAIL_FAST) {
+                maxWait = Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * 设置 routeKey 的速率；已有的令牌桶按新速率重建
+     *
+     * @param routeKey 路由键，如 SMS:TENCENT_SMS
+     * @param limit    速率配置
+     * @return 当前限流器
+     */
+    public TokenBucketRateLimiter setLimit(String routeKey, RateLimit limit) {
+        limits.put(routeKey, limit);
+        buckets.keySet().removeIf(key -> key.equals(routeKey) || key.startsWith(routeKey + "@"));
+        return this;
+    }
+
+    /**
+     * 移除 routeKey 的速率配置，之后该路由不再限流
+     *
+     * @param routeKey 路由键
+     */
+    public void removeLimit(String routeKey) {
+        limits.remove(routeKey);
+        buckets.keySet().removeIf(key -> key.equals(routeKey) || key.startsWith(routeKey + "@"));
+    }
+
+    /**
+     * 获取所有速率配置
+     *
+     * @return 只读视图，key 为 routeKey
+     */
+    public Map<String, RateLimit> getLimits() {
+        return Collections.unmodifiableMap(limits);
+    }
+
+    /**
+     * 获取当前可立即使用的令牌数
+     *
+     * @param accountScopedKey 统计键，见 {@link SendContext#accountScopedKey()}
+     * @return 可用令牌数；未产生过请求或未限流时返回 -1
+     */
+    public double getAvailablePermits(String accountScopedKey) {
+        Bucket bucket = buckets.get(accountScopedKey);
+        return bucket == null ? -1 : bucket.available(System.nanoTime());
+    }
+
+    @Override
+    public Permit acquire(SendContext context) throws MessageSendException {
+        RateLimit limit = limits.get(context.routeKey());
+        if (limit == null) {
+            return Permit.NOOP;
+        }
+        long waitNanos = reserve(context, limit);
+        if (waitNanos > 0) {
+            long deadline = System.nanoTime() + waitNanos;
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new MessageSendException("Interrupted while waiting for rate limit permit",
+                            "INTERRUPTED", context.type(), context.channel());
+                }
+            }
+        }
+        return Permit.NOOP;
+    }
+
+    /**
+     * {@link RateLimitMode#ASYNC_WAIT} 下不阻塞调用线程，令牌就绪时完成；其他模式同 {@link #acquire(SendContext)}
+     */
+    @Override
+    public CompletableFuture<Permit> acquireAsync(SendContext context) {
+        RateLimit limit = limits.get(context.routeKey());
+        if (limit == null || limit.mode() != RateLimitMode.ASYNC_WAIT) {
+            return SendGuard.super.acquireAsync(context);
+        }
+        long waitNanos;
+        try {
+            waitNanos = reserve(context, limit);
+        } catch (MessageSendException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(Permit.NOOP);
+        }
+        return CompletableFuture.supplyAsync(() -> Permit.NOOP,
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * 预约一个令牌
+     *
+     * @return 需要等待的纳秒数
+     * @throws MessageSendException 预计等待超过上限时抛出
+     */
+    private long reserve(SendContext context, RateLimit limit) throws MessageSendException {
+        Bucket bucket = buckets.computeIfAbsent(context.accountScopedKey(), k -> new Bucket(limit));
+        long waitNanos = bucket.reserve(System.nanoTime(), limit.maxWait().toNanos());
+        if (waitNanos < 0) {
+            throw new MessageSendException("Rate limit exceeded: " + context.accountScopedKey()
+                    + " (" + limit.permitsPerSecond() + "/s)", RATE_LIMITED, context.type(), context.channel());
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 单个账号的令牌桶（GCRA）
+     */
+    private static final class Bucket {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+
+        /**
+         * 理论到达时间（TAT）；与当前时间的差值即已预支的令牌时长
+         */
+        private final AtomicLong tat;
+
+        Bucket(RateLimit limit) {
+            this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / limit.permitsPerSecond()));
+            this.toleranceNanos = intervalNanos * (limit.burst() - 1);
+            this.tat = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * 预约令牌
+         *
+         * @return 需要等待的纳秒数；超过 maxWaitNanos 时返回 -1 且不消耗令牌
+         */
+        long reserve(long now, long maxWaitNanos) {
+            for (;;) {
+                long current = tat.get();
+                long base = current - now > 0 ? current : now;
+                long waitNanos = base - toleranceNanos - now;
+                if (waitNanos > maxWaitNanos) {
+                    return -1;
+                }
+                if (tat.compareAndSet(current, base + intervalNanos)) {
+                    return Math.max(0, waitNanos);
+                }
+            }
+        }
+
+        double available(long now) {
+            long current = tat.get();
+            long debt = current - now > 0 ? current - now : 0;
+            return Math.max(0, (double) (toleranceNanos + intervalNanos - debt) / intervalNanos);
+        }
+    }
+}
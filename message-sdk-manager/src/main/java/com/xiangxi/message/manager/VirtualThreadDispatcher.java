@@ -0,0 +1,143 @@
+package com.xiangxi.message.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 虚拟线程发送调度器。
+ * <p>
+ * 每个发送任务运行在独立的虚拟线程上，阻塞在 HTTP 调用上的只是虚拟线程，
+ * 不会占用平台线程，因此上万并发发送不需要上万个操作系统线程。
+ * </p>
+ * <p>
+ * 并发控制：按 routeKey（type:channel）维护一个信号量，限制同一渠道的在途发送数；
+ * 超出上限的任务在各自的虚拟线程上排队等待，不会阻塞调用线程。
+ * </p>
+ *
+ * @see DispatchMode#VIRTUAL_THREAD
+ */
+public class VirtualThreadDispatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadDispatcher.class);
+
+    /**
+     * 不限制并发
+     */
+    public static final int UNLIMITED = 0;
+
+    private final ExecutorService executor;
+
+    /**
+     * 每个 routeKey 的最大并发数，{@link #UNLIMITED} 表示不限制
+     */
+    private final int maxConcurrencyPerRoute;
+
+    /**
+     * 按 routeKey 缓存的并发许可
+     */
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * 创建不限制并发的调度器
+     */
+    public VirtualThreadDispatcher() {
+        this(UNLIMITED);
+    }
+
+    /**
+     * 创建调度器
+     *
+     * @param maxConcurrencyPerRoute 每个 routeKey 的最大并发数，0 表示不限制
+     */
+    public VirtualThreadDispatcher(int maxConcurrencyPerRoute) {
+        if (maxConcurrencyPerRoute < 0) {
+            throw new IllegalArgumentException("maxConcurrencyPerRoute must be non-negative");
+        }
+        this.maxConcurrencyPerRoute = maxConcurrencyPerRoute;
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("message-sdk-dispatch-", 0).factory());
+    }
+
+    /**
+     * 在虚拟线程上执行发送任务
+     * <p>
+     * 取消返回的 Future 会中断执行任务的虚拟线程。
+     * </p>
+     *
+     * @param routeKey 路由键，用于并发控制
+     * @param task     发送任务
+     * @param <R>      返回类型
+     * @return 任务结果的 Future，任务抛出的异常原样作为异常结果
+     */
+    public <R> CompletableFuture<R> dispatch(String routeKey, Callable<R> task) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Semaphore semaphore = maxConcurrencyPerRoute == UNLIMITED ? null
+                : permits.computeIfAbsent(routeKey, k -> new Semaphore(maxConcurrencyPerRoute));
+        Future<?> running = executor.submit(() -> {
+            if (semaphore != null) {
+                try {
+                    semaphore.acquire();
+                } catch (InterruptedException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                if (semaphore != null) {
+                    semaphore.release();
+                }
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 获取每个 routeKey 的最大并发数
+     *
+     * @return 最大并发数，0 表示不限制
+     */
+    public int getMaxConcurrencyPerRoute() {
+        return maxConcurrencyPerRoute;
+    }
+
+    /**
+     * 获取指定 routeKey 当前的在途发送数
+     *
+     * @param routeKey 路由键
+     * @return 在途发送数；不限制并发时返回 -1
+     */
+    public int getInFlight(String routeKey) {
+        if (maxConcurrencyPerRoute == UNLIMITED) {
+            return -1;
+        }
+        Semaphore semaphore = permits.get(routeKey);
+        return semaphore == null ? 0 : maxConcurrencyPerRoute - semaphore.availablePermits();
+    }
+
+    /**
+     * 关闭调度器，不再接受新任务；已提交的任务继续执行
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        log.debug("VirtualThreadDispatcher closed");
+    }
+}
@@ -0,0 +1,149 @@
+package com.xiangxi.message.sms.manager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲请求策略。
+ * <p>
+ * 用于 {@link SmsFailoverRouter}：首选渠道在其近期耗时的 percentile 分位内仍未返回时，
+ * 向下一个渠道再发送一次，先成功者生效，另一方被取消（底层 OkHttp Call 随之取消）。
+ * 以少量额外请求换取更低的尾延迟，适用于登录验证码等对时延敏感的模板。
+ * </p>
+ * <p>
+ * 对冲次数受预算限制：每个经过该策略的请求积累 budgetRatio 个额度，每次对冲消耗 1 个，
+ * 额外流量因此不超过 budgetRatio（如 0.05 即 5%）；额度上限为 {@link #MAX_BURST} 次，避免长时间空闲后集中对冲。
+ * 首选渠道样本不足 {@link #MIN_SAMPLES} 个时不对冲。
+ * </p>
+ *
+ * <pre>{@code
+ * SmsFailoverRouter router = SmsFailoverRouter.builder()
+ *     .route("TENCENT_SMS", tencentConfig)
+ *     .route("ALI_SMS", aliyunConfig)
+ *     .hedging("LOGIN_OTP", new HedgingPolicy(0.95, Duration.ofMillis(20), 0.05))
+ *     .build();
+ * }</pre>
+ */
+public final class HedgingPolicy {
+
+    /**
+     * 计算分位耗时所需的最少样本数
+     */
+    public static final int MIN_SAMPLES = 20;
+
+    /**
+     * 预算最多积累的对冲次数
+     */
+    public static final int MAX_BURST = 10;
+
+    /**
+     * 预算的定点精度：1 次对冲 = UNIT
+     */
+    private static final long UNIT = 1_000_000L;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+    private final long deposit;
+
+    /**
+     * 剩余预算（定点数）
+     */
+    private final AtomicLong balance = new AtomicLong();
+
+    private final AtomicLong hedges = new AtomicLong();
+
+    /**
+     * 创建对冲策略
+     *
+     * @param percentile  触发对冲的耗时分位，取值 (0, 1)，如 0.95
+     * @param minDelay    最短对冲延迟，分位耗时小于该值时按该值等待
+     * @param budgetRatio 对冲请求占请求总数的上限，取值 (0, 1]，如 0.05
+     */
+    public HedgingPolicy(double percentile, Duration minDelay, double budgetRatio) {
+        if (!(percentile > 0 && percentile < 1)) {
+            throw new IllegalArgumentException("percentile must be within (0, 1)");
+        }
+        if (minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("minDelay must not be negative");
+        }
+        if (!(budgetRatio > 0 && budgetRatio <= 1)) {
+            throw new IllegalArgumentException("budgetRatio must be within (0, 1]");
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetRatio = budgetRatio;
+        this.deposit = Math.max(1L, (long) (budgetRatio * UNIT));
+    }
+
+    /**
+     * 默认策略：p95 触发，最短 10ms，额外流量不超过 5%
+     *
+     * @return 默认策略
+     */
+    public static HedgingPolicy defaults() {
+        return new HedgingPolicy(0.95, Duration.ofMillis(10), 0.05);
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public Duration getMinDelay() {
+        return Duration.ofNanos(minDelayNanos);
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    /**
+     * 获取已发出的对冲请求数
+     *
+     * @return 对冲请求数
+     */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /**
+     * 根据首选渠道的分位耗时计算对冲延迟
+     *
+     * @param percentileNanos 分位耗时（纳秒）
+     * @return 对冲延迟（纳秒）
+     */
+    long delayNanos(long percentileNanos) {
+        return Math.max(minDelayNanos, percentileNanos);
+    }
+
+    /**
+     * 记录一个请求，积累对冲额度
+     */
+    void onRequest() {
+        long max = MAX_BURST * UNIT;
+        for (;;) {
+            long current = balance.get();
+            if (current >= max || balance.compareAndSet(current, Math.min(max, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 尝试消耗一次对冲额度
+     *
+     * @return 额度充足时返回 true
+     */
+    boolean tryAcquire() {
+        for (;;) {
+            long current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - UNIT)) {
+                hedges.incrementAndGet();
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,604 @@
+package com.xiangxi.message.sms.manager;
+
+import com.xiangxi.message.common.enums.MessageType;
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.model.MessageResponse;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.manager.FailureClassifier;
+import com.xiangxi.message.manager.MessageSenderManager;
+import com.xiangxi.message.sms.model.SmsRequest;
+import com.xiangxi.message.sms.model.SmsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * 多厂商短信路由器。
+ * <p>
+ * 在多个已配置的短信渠道之间按健康状况选择：每个渠道维护耗时与厂商故障率的 EWMA，
+ * 按“耗时 ×（1 + 4 × 故障率）”从低到高排序，优先使用最快且健康的渠道；
+ * 发送失败且错误可转移（见 {@link FailureClassifier#isFailoverable(Throwable)}）时立即改由下一个渠道发送，
+ * 参数、模板等请求本身的错误直接返回，不做转移。
+ * </p>
+ * <p>
+ * 统计随空闲时间向中性先验衰减（时间常数 decay），先验为各渠道代价与故障率按新鲜度加权的均值：
+ * 长时间未被选中的故障渠道逐渐回到正在使用的渠道的水平，重新变为健康、在故障转移与对冲中被尝试，
+ * 因而恢复后能重新获得流量；空闲渠道只会向均值靠拢，不会因为没有流量排到更快的渠道之前。尚无样本的渠道直接取先验。
+ * 故障率超过 50% 的渠道排在健康渠道之后，仅在其他渠道都失败时使用。
+ * </p>
+ * <p>
+ * 同一请求在各渠道的模板 ID 往往不同，可为每个渠道提供 translator 将请求转换为该厂商的形式。
+ * 注意：读取超时时前一个厂商可能已经下发，转移后接收人可能收到两条短信，适用于验证码等允许重复的场景。
+ * 所有接收人均因厂商内部错误或限流失败的响应（见 {@link FailureClassifier#isFailoverable(MessageResponse)}）同样转移，
+ * 最后一个渠道仍如此时返回该响应；部分成功或请求本身导致的逐接收人失败不会触发转移。
+ * </p>
+ * <p>
+ * 可按模板启用对冲（见 {@link HedgingPolicy}）：首选渠道超过其分位耗时仍未返回时，提前向下一个渠道发送。
+ * </p>
+ *
+ * <pre>{@code
+ * SmsFailoverRouter router = SmsFailoverRouter.builder()
+ *     .route("TENCENT_SMS", tencentConfig)
+ *     .route("ALI_SMS", aliyunConfig, r -> r.withTemplateId("SMS_123456"))
+ *     .build();
+ * SmsResponse response = router.send(SmsRequest.of("13800138000", "1234567", Map.of("1", "8888")));
+ * }</pre>
+ */
+public class SmsFailoverRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(SmsFailoverRouter.class);
+
+    /**
+     * 没有可用渠道时的错误码
+     */
+    public static final String NO_ROUTE_AVAILABLE = "NO_ROUTE_AVAILABLE";
+
+    /**
+     * 默认统计衰减时间常数
+     */
+    public static final Duration DEFAULT_DECAY = Duration.ofSeconds(10);
+
+    /**
+     * 每个样本在 EWMA 中的权重
+     */
+    private static final double ALPHA = 0.2;
+
+    /**
+     * 故障率对代价的放大系数
+     */
+    private static final double ERROR_PENALTY = 4.0;
+
+    /**
+     * 故障率超过该值的渠道视为不健康
+     */
+    private static final double UNHEALTHY_ERROR_RATE = 0.5;
+
+    /**
+     * 每个渠道保留的最近耗时样本数，用于计算对冲延迟
+     */
+    private static final int LATENCY_SAMPLES = 128;
+
+    private final List<Route> routes;
+
+    /**
+     * 按渠道的统计
+     */
+    private final Map<String, RouteState> states = new HashMap<>();
+
+    /**
+     * 所有模板默认的对冲策略，null 表示不对冲
+     */
+    private final HedgingPolicy defaultPolicy;
+
+    /**
+     * 按模板ID的对冲策略
+     */
+    private final Map<String, HedgingPolicy> templatePolicies;
+
+    private SmsFailoverRouter(List<Route> routes, Duration decay, HedgingPolicy defaultPolicy,
+                              Map<String, HedgingPolicy> templatePolicies) {
+        this.routes = List.copyOf(routes);
+        this.defaultPolicy = defaultPolicy;
+        this.templatePolicies = Map.copyOf(templatePolicies);
+        for (Route r : this.routes) {
+            if (states.put(r.channel(), new RouteState(decay.toNanos())) != null) {
+                throw new IllegalArgumentException("Duplicate route: " + r.channel());
+            }
+        }
+    }
+
+    /**
+     * 创建 Builder 实例
+     *
+     * @return Builder 实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 候选渠道
+     *
+     * @param channel    渠道，如 TENCENT_SMS
+     * @param config     该渠道的发送配置
+     * @param translator 将请求转换为该厂商形式（如替换模板 ID）
+     */
+    public record Route(String channel, Object config, UnaryOperator<SmsRequest> translator) {
+        public Route {
+            Objects.requireNonNull(channel, "channel must not be null");
+            Objects.requireNonNull(config, "config must not be null");
+            if (translator == null) {
+                translator = UnaryOperator.identity();
+            }
+        }
+    }
+
+    /**
+     * 渠道统计快照
+     *
+     * @param latencyMillis 平均耗时（毫秒，EWMA），尚无样本时为 0
+     * @param errorRate     厂商故障率（EWMA）
+     * @param samples       样本数
+     * @param score         当前代价（已按空闲时间向其他渠道均值衰减），越小越优先
+     */
+    public record RouteStats(double latencyMillis, double errorRate, long samples, double score) {
+    }
+
+    /**
+     * 异步发送，按健康状况依次尝试各渠道
+     *
+     * @param request 短信请求
+     * @return 响应的 Future；所有渠道都失败时以最后一个错误异常完成
+     */
+    public CompletableFuture<SmsResponse> sendAsync(SmsRequest request) {
+        List<Route> ranked = rank();
+        HedgingPolicy policy = ranked.size() < 2 ? null
+                : templatePolicies.getOrDefault(request.templateId(), defaultPolicy);
+        CompletableFuture<SmsResponse> result = new CompletableFuture<>();
+        if (policy == null) {
+            attempt(ranked, 0, ranked.size(), request, null, result);
+        } else {
+            new Hedge(ranked, request, policy, result).start();
+        }
+        return result;
+    }
+
+    /**
+     * 同步发送，按健康状况依次尝试各渠道
+     *
+     * @param request 短信请求
+     * @return 响应
+     * @throws MessageSendException 所有渠道都失败或请求本身有误时抛出
+     */
+    public SmsResponse send(SmsRequest request) throws MessageSendException {
+        CompletableFuture<SmsResponse> future = sendAsync(request);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MessageSendException("Send interrupted", e, "INTERRUPTED", MessageType.SMS.getTypeName(), null);
+        } catch (Exception e) {
+            Throwable cause = FutureUtils.unwrap(e);
+            if (cause instanceof MessageSendException mse) {
+                throw mse;
+            }
+            throw new MessageSendException("Send failed", cause, "UNEXPECTED_ERROR", MessageType.SMS.getTypeName(), null);
+        }
+    }
+
+    /**
+     * 按当前代价排序的渠道：健康渠道在前，同代价按注册顺序
+     *
+     * @return 排序后的渠道
+     */
+    public List<Route> rank() {
+        Map<String, Estimate> estimates = estimate(System.nanoTime());
+        List<Route> ranked = new ArrayList<>(routes);
+        ranked.sort(Comparator.comparing((Route r) -> !estimates.get(r.channel()).healthy())
+                .thenComparingDouble(r -> estimates.get(r.channel()).score()));
+        return ranked;
+    }
+
+    /**
+     * 获取各渠道的统计快照
+     *
+     * @return 渠道到统计的映射，按注册顺序
+     */
+    public Map<String, RouteStats> getStats() {
+        long now = System.nanoTime();
+        Map<String, Estimate> estimates = estimate(now);
+        Map<String, RouteStats> stats = new LinkedHashMap<>();
+        for (Route r : routes) {
+            Sample s = route(r).sample(now);
+            stats.put(r.channel(), new RouteStats(s.latencyNanos() / 1_000_000.0, s.errorRate(), s.samples(),
+                    estimates.get(r.channel()).score()));
+        }
+        return stats;
+    }
+
+    /**
+     * 各渠道按空闲时间向中性先验衰减后的代价与故障率
+     * <p>
+     * 先验为有样本渠道按新鲜度加权的均值，刚有调用的渠道占主导；全部渠道都很久未调用时退化为简单均值。
+     * 由于先验位于各渠道之间，衰减只会拉近渠道间的差距，不会改变代价的先后顺序。
+     * </p>
+     */
+    private Map<String, Estimate> estimate(long now) {
+        Map<String, Sample> samples = new HashMap<>();
+        double weightSum = 0;
+        double weightedScore = 0;
+        double weightedError = 0;
+        double scoreSum = 0;
+        double errorSum = 0;
+        int sampled = 0;
+        for (Route r : routes) {
+            Sample s = route(r).sample(now);
+            samples.put(r.channel(), s);
+            if (s.samples() > 0) {
+                weightSum += s.weight();
+                weightedScore += s.score() * s.weight();
+                weightedError += s.errorRate() * s.weight();
+                scoreSum += s.score();
+                errorSum += s.errorRate();
+                sampled++;
+            }
+        }
+        double priorScore = 0;
+        double priorError = 0;
+        if (weightSum > 0) {
+            priorScore = weightedScore / weightSum;
+            priorError = weightedError / weightSum;
+        } else if (sampled > 0) {
+            priorScore = scoreSum / sampled;
+            priorError = errorSum / sampled;
+        }
+        Map<String, Estimate> estimates = new HashMap<>();
+        for (Route r : routes) {
+            Sample s = samples.get(r.channel());
+            double weight = s.samples() > 0 ? s.weight() : 0;
+            estimates.put(r.channel(), new Estimate(priorScore + (s.score() - priorScore) * weight,
+                    priorError + (s.errorRate() - priorError) * weight));
+        }
+        return estimates;
+    }
+
+    /**
+     * 依次尝试 ranked 中 [index, end) 的渠道，直到成功、遇到不可转移的错误或渠道用尽
+     */
+    private void attempt(List<Route> ranked, int index, int end, SmsRequest request, Throwable lastError,
+                         CompletableFuture<SmsResponse> result) {
+        if (result.isDone()) {
+            return;
+        }
+        if (index >= end) {
+            result.completeExceptionally(lastError != null ? lastError
+                    : new MessageSendException("No SMS route available", NO_ROUTE_AVAILABLE,
+                    MessageType.SMS.getTypeName(), null));
+            return;
+        }
+        Route r = ranked.get(index);
+        RouteState state = route(r);
+        long start = System.nanoTime();
+        CompletableFuture<SmsResponse> call;
+        try {
+            call = MessageSenderManager.sendAsync(MessageType.SMS.getTypeName(), r.channel(), r.config(),
+                    r.translator().apply(request));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        FutureUtils.propagateCancellation(result, call);
+        call.whenComplete((response, error) -> {
+            long now = System.nanoTime();
+            if (error == null) {
+                state.record(now, now - start, FailureClassifier.isVendorFailure(response));
+                if (index + 1 >= end || !FailureClassifier.isFailoverable(response)) {
+                    result.complete(response);
+                    return;
+                }
+                log.warn("SMS route failed for all recipients, failing over: channel={}, next={}, message={}",
+                        r.channel(), ranked.get(index + 1).channel(), response.getMessage());
+                attempt(ranked, index + 1, end, request, lastError, result);
+                return;
+            }
+            Throwable cause = FutureUtils.unwrap(error);
+            if (cause instanceof CancellationException) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            boolean failover = cause instanceof IllegalArgumentException || FailureClassifier.isFailoverable(cause);
+            if (!FailureClassifier.isLocalRejection(cause) && !(cause instanceof IllegalArgumentException)) {
+                state.record(now, now - start, FailureClassifier.isVendorFailure(cause));
+            }
+            if (!failover) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (index + 1 < end) {
+                log.warn("SMS route failed, failing over: channel={}, next={}, error={}",
+                        r.channel(), ranked.get(index + 1).channel(), cause.getMessage());
+            }
+            attempt(ranked, index + 1, end, request, cause, result);
+        });
+    }
+
+    private RouteState route(Route r) {
+        return states.get(r.channel());
+    }
+
+    /**
+     * 一次对冲发送：主路仅发往首选渠道；备路从第二个渠道开始按顺序故障转移。
+     * 主路失败且可转移时立即启动备路（即普通故障转移，不消耗预算）；
+     * 主路超过分位耗时仍未返回且预算充足时提前启动备路。先成功者生效，完成后取消另一路。
+     */
+    private final class Hedge {
+        private final List<Route> ranked;
+        private final SmsRequest request;
+        private final HedgingPolicy policy;
+        private final CompletableFuture<SmsResponse> result;
+        private final CompletableFuture<SmsResponse> primary = new CompletableFuture<>();
+        private final CompletableFuture<SmsResponse> secondary = new CompletableFuture<>();
+        private final AtomicBoolean secondaryStarted = new AtomicBoolean();
+
+        /**
+         * 尚未失败的路数
+         */
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+
+        Hedge(List<Route> ranked, SmsRequest request, HedgingPolicy policy, CompletableFuture<SmsResponse> result) {
+            this.ranked = ranked;
+            this.request = request;
+            this.policy = policy;
+            this.result = result;
+        }
+
+        void start() {
+            policy.onRequest();
+            result.whenComplete((value, error) -> {
+                primary.cancel(true);
+                secondary.cancel(true);
+            });
+            primary.whenComplete((response, error) -> {
+                if (error == null) {
+                    if (!FailureClassifier.isFailoverable(response)) {
+                        result.complete(response);
+                        return;
+                    }
+                    startSecondary();
+                    legFailed(response, null);
+                    return;
+                }
+                Throwable cause = FutureUtils.unwrap(error);
+                if (!FailureClassifier.isFailoverable(cause) && !(cause instanceof IllegalArgumentException)) {
+                    result.completeExceptionally(cause);
+                    return;
+                }
+                startSecondary();
+                legFailed(null, cause);
+            });
+            secondary.whenComplete((response, error) -> {
+                if (error == null && !FailureClassifier.isFailoverable(response)) {
+                    result.complete(response);
+                } else {
+                    legFailed(response, error == null ? null : FutureUtils.unwrap(error));
+                }
+            });
+            attempt(ranked, 0, 1, request, null, primary);
+            long p = route(ranked.get(0)).percentileNanos(policy.getPercentile());
+            if (p > 0 && !result.isDone()) {
+                CompletableFuture.delayedExecutor(policy.delayNanos(p), TimeUnit.NANOSECONDS).execute(() -> {
+                    if (!result.isDone() && !secondaryStarted.get() && policy.tryAcquire()) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Hedging SMS request: primary={}, hedge={}, template={}",
+                                    ranked.get(0).channel(), ranked.get(1).channel(), request.templateId());
+                        }
+                        startSecondary();
+                    }
+                });
+            }
+        }
+
+        private void startSecondary() {
+            if (result.isDone() || !secondaryStarted.compareAndSet(false, true)) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            attempt(ranked, 1, ranked.size(), request, null, secondary);
+        }
+
+        /**
+         * 一路失败：以异常失败，或返回了所有接收人均因厂商错误失败的响应。两路都失败时以后完成的一路为准
+         */
+        private void legFailed(SmsResponse response, Throwable cause) {
+            if (outstanding.decrementAndGet() == 0) {
+                if (cause == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            }
+        }
+    }
+
+    /**
+     * SmsFailoverRouter 构建器，渠道注册顺序即代价相同时的优先顺序
+     */
+    public static class Builder {
+        private final List<Route> routes = new ArrayList<>();
+        private Duration decay = DEFAULT_DECAY;
+        private HedgingPolicy defaultPolicy;
+        private final Map<String, HedgingPolicy> templatePolicies = new HashMap<>();
+
+        /**
+         * 添加渠道，请求原样发送
+         *
+         * @param channel 渠道，如 TENCENT_SMS
+         * @param config  该渠道的发送配置
+         * @return Builder 实例
+         */
+        public Builder route(String channel, Object config) {
+            return route(channel, config, null);
+        }
+
+        /**
+         * 添加渠道
+         *
+         * @param channel    渠道，如 TENCENT_SMS
+         * @param config     该渠道的发送配置
+         * @param translator 将请求转换为该厂商形式，如替换模板 ID
+         * @return Builder 实例
+         */
+        public Builder route(String channel, Object config, UnaryOperator<SmsRequest> translator) {
+            this.routes.add(new Route(channel, config, translator));
+            return this;
+        }
+
+        /**
+         * 设置统计衰减时间常数：渠道空闲该时长后，其代价与故障率和各渠道均值的差距缩小为约 37%
+         *
+         * @param decay 时间常数
+         * @return Builder 实例
+         */
+        public Builder decay(Duration decay) {
+            this.decay = decay;
+            return this;
+        }
+
+        /**
+         * 为所有模板启用对冲
+         *
+         * @param policy 对冲策略，null 表示不对冲
+         * @return Builder 实例
+         */
+        public Builder hedging(HedgingPolicy policy) {
+            this.defaultPolicy = policy;
+            return this;
+        }
+
+        /**
+         * 为指定模板启用对冲，优先于 {@link #hedging(HedgingPolicy)}
+         *
+         * @param templateId 模板ID（转换前的业务模板ID）
+         * @param policy     对冲策略
+         * @return Builder 实例
+         */
+        public Builder hedging(String templateId, HedgingPolicy policy) {
+            this.templatePolicies.put(Objects.requireNonNull(templateId, "templateId must not be null"),
+                    Objects.requireNonNull(policy, "policy must not be null"));
+            return this;
+        }
+
+        /**
+         * 构建 SmsFailoverRouter 实例
+         *
+         * @return SmsFailoverRouter 实例
+         * @throws IllegalStateException 如果未添加渠道
+         */
+        public SmsFailoverRouter build() {
+            if (routes.isEmpty()) {
+                throw new IllegalStateException("至少需要一个渠道");
+            }
+            if (decay == null || decay.isNegative() || decay.isZero()) {
+                throw new IllegalStateException("decay must be positive");
+            }
+            return new SmsFailoverRouter(routes, decay, defaultPolicy, templatePolicies);
+        }
+    }
+
+    /**
+     * 渠道统计的一致快照
+     *
+     * @param latencyNanos 平均耗时（EWMA）
+     * @param errorRate    厂商故障率（EWMA）
+     * @param samples      样本数
+     * @param score        未衰减的代价
+     * @param weight       按空闲时间计算的统计权重，刚更新时为 1，空闲越久越接近 0
+     */
+    private record Sample(double latencyNanos, double errorRate, long samples, double score, double weight) {
+    }
+
+    /**
+     * 衰减后的代价与故障率
+     */
+    private record Estimate(double score, double errorRate) {
+        boolean healthy() {
+            return errorRate <= UNHEALTHY_ERROR_RATE;
+        }
+    }
+
+    /**
+     * 单个渠道的统计
+     */
+    private static final class RouteState {
+        private final long decayNanos;
+        private double latencyNanos;
+        private double errorRate;
+        private long samples;
+        private long lastUpdate = System.nanoTime();
+
+        /**
+         * 最近成功调用的耗时，用于计算对冲延迟
+         */
+        private final long[] recent = new long[LATENCY_SAMPLES];
+        private int recentCount;
+        private int recentIndex;
+
+        RouteState(long decayNanos) {
+            this.decayNanos = decayNanos;
+        }
+
+        synchronized void record(long now, long latency, boolean failure) {
+            if (!failure) {
+                recent[recentIndex] = latency;
+                recentIndex = (recentIndex + 1) % recent.length;
+                recentCount = Math.min(recentCount + 1, recent.length);
+            }
+            if (samples == 0) {
+                latencyNanos = latency;
+                errorRate = failure ? 1 : 0;
+            } else {
+                latencyNanos += (latency - latencyNanos) * ALPHA;
+                errorRate += ((failure ? 1 : 0) - errorRate) * ALPHA;
+            }
+            samples++;
+            lastUpdate = now;
+        }
+
+        /**
+         * 最近成功调用耗时的分位值
+         *
+         * @return 分位耗时（纳秒）；样本不足时返回 -1
+         */
+        long percentileNanos(double percentile) {
+            long[] samples;
+            synchronized (this) {
+                if (recentCount < HedgingPolicy.MIN_SAMPLES) {
+                    return -1;
+                }
+                samples = Arrays.copyOf(recent, recentCount);
+            }
+            Arrays.sort(samples);
+            return samples[Math.min(samples.length - 1, (int) Math.ceil(percentile * samples.length) - 1)];
+        }
+
+        synchronized Sample sample(long now) {
+            return new Sample(latencyNanos, errorRate, samples, latencyNanos * (1 + ERROR_PENALTY * errorRate),
+                    Math.exp(-(double) (now - lastUpdate) / decayNanos));
+        }
+    }
+}
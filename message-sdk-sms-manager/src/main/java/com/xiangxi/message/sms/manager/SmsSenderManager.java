@@ -0,0 +1,326 @@
+package com.xiangxi.message.sms.manager;
+
+import com.xiangxi.message.api.MessageSender;
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.manager.DispatchMode;
+import com.xiangxi.message.manager.MessageSenderManager;
+import com.xiangxi.message.manager.SendGuard;
+import com.xiangxi.message.manager.SendObserver;
+import com.xiangxi.message.sms.ISmsSender;
+import com.xiangxi.message.sms.SmsBatchExecutor;
+import com.xiangxi.message.sms.SmsPartialRetry;
+import com.xiangxi.message.sms.model.SmsBulkRequest;
+import com.xiangxi.message.sms.model.SmsRequest;
+import com.xiangxi.message.sms.model.SmsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 短信批量发送调度入口
+ *
+ * <p>在 {@link MessageSenderManager} 的通用发送之上提供短信特有的批量发送与个性化批量发送：
+ * 请求按渠道单次上限切分为子请求并行发送，每个子请求经由 {@link MessageSenderManager#invokeAsync}
+ * 分别经过已注册的 {@link SendGuard} 与 {@link SendObserver}，合并后的响应包含每个接收人的结果。</p>
+ *
+ * <pre>{@code
+ * SmsResponse response = SmsSenderManager.sendBatch("SMS", "TENCENT_SMS", config, request);
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class SmsSenderManager {
+
+    private static final Logger log = LoggerFactory.getLogger(SmsSenderManager.class);
+
+    /**
+     * 默认批量发送并行度
+     */
+    public static final int DEFAULT_BATCH_PARALLELISM = 8;
+
+    /**
+     * 批量发送时每个批次最多同时在途的子请求数
+     */
+    private static volatile int batchParallelism = DEFAULT_BATCH_PARALLELISM;
+
+    private SmsSenderManager() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 设置批量发送的默认并行度
+     *
+     * @param parallelism 每个批次最多同时在途的子请求数，必须大于 0
+     */
+    public static void setBatchParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("batch parallelism must be positive");
+        }
+        batchParallelism = parallelism;
+    }
+
+    /**
+     * 获取批量发送的默认并行度
+     *
+     * @return 并行度
+     */
+    public static int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    /**
+     * 异步批量发送短信，使用默认并行度
+     *
+     * @see #sendBatchAsync(String, String, Object, SmsRequest, int)
+     */
+    public static <C> CompletableFuture<SmsResponse> sendBatchAsync(String type, String channel, C config,
+                                                                    SmsRequest request) {
+        return sendBatchAsync(type, channel, config, request, batchParallelism);
+    }
+
+    /**
+     * 异步批量发送短信：接收人数量不受渠道单次上限限制。
+     * <p>
+     * 请求按 {@link ISmsSender#maxRecipientsPerRequest()} 切分为子请求，最多 parallelism 个同时在途，
+     * 合并后的响应包含每个接收人的结果（全部成功 SUCCESS / 全部失败 FAILED / 否则 PARTIAL_SUCCESS）。
+     * 子请求的发送方式与 {@link MessageSenderManager#sendAsync(String, String, Object, Object)} 一致，
+     * {@link DispatchMode#VIRTUAL_THREAD} 模式下同样受 routeKey 并发上限约束，每个子请求分别经过已注册的 {@link SendGuard}。
+     * </p>
+     *
+     * @param type        消息类型
+     * @param channel     渠道
+     * @param config      发送配置
+     * @param request     短信请求
+     * @param parallelism 最大并行子请求数
+     * @param <C>         配置类型
+     * @return 合并后响应的 Future；子请求失败不会使其异常完成
+     * @throws IllegalArgumentException 当指定 type/channel 未找到对应实现或不是短信发送器时抛出
+     */
+    public static <C> CompletableFuture<SmsResponse> sendBatchAsync(String type, String channel, C config,
+                                                                    SmsRequest request, int parallelism) {
+        ISmsSender<C> sender = getSmsSender(type, channel);
+        Objects.requireNonNull(config, "config must not be null");
+        Objects.requireNonNull(request, "request must not be null");
+        List<SmsRequest> chunks = SmsBatchExecutor.split(request, sender.maxRecipientsPerRequest());
+        if (log.isDebugEnabled()) {
+            log.debug("Sending batch: type={}, channel={}, recipients={}, chunks={}, parallelism={}",
+                    type, channel, request.getRecipientCount(), chunks.size(), parallelism);
+        }
+        CompletableFuture<SmsResponse> future = SmsBatchExecutor.execute(chunks, parallelism,
+                chunk -> MessageSenderManager.invokeAsync(sender, config, chunk), sender.channel());
+        future.whenComplete((response, error) -> {
+            if (response != null && log.isDebugEnabled()) {
+                log.debug("Batch sent: type={}, channel={}, code={}", type, channel, response.getCode());
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 异步批量发送短信，并只向可重试的失败接收人重发，使用默认并行度
+     * <p>
+     * 首次发送与每轮重发均按 {@link #sendBatchAsync(String, String, Object, SmsRequest, int)} 执行，
+     * 重发只包含上一轮中错误码可重试的接收人（见 {@link SmsPartialRetry}），已成功的接收人不会重复发送；
+     * 每轮重发占用该渠道 routeKey 的一次重试预算。
+     * </p>
+     *
+     * @param type    消息类型
+     * @param channel 渠道
+     * @param config  发送配置
+     * @param request 短信请求
+     * @param retry   部分重试策略
+     * @param <C>     配置类型
+     * @return 合并后响应的 Future；子请求失败不会使其异常完成
+     * @throws IllegalArgumentException 当指定 type/channel 未找到对应实现或不是短信发送器时抛出
+     */
+    public static <C> CompletableFuture<SmsResponse> sendBatchAsync(String type, String channel, C config,
+                                                                    SmsRequest request, SmsPartialRetry retry) {
+        Objects.requireNonNull(retry, "retry must not be null");
+        ISmsSender<C> sender = getSmsSender(type, channel);
+        int parallelism = batchParallelism;
+        return retry.execute(sender.routeKey(), request, r -> sendBatchAsync(type, channel, config, r, parallelism));
+    }
+
+    /**
+     * 批量发送短信，使用默认并行度，阻塞等待所有子请求完成
+     *
+     * @see #sendBatch(String, String, Object, SmsRequest, int)
+     */
+    public static <C> SmsResponse sendBatch(String type, String channel, C config, SmsRequest request)
+            throws MessageSendException {
+        return sendBatch(type, channel, config, request, batchParallelism);
+    }
+
+    /**
+     * 批量发送短信，阻塞等待所有子请求完成
+     *
+     * @param type        消息类型
+     * @param channel     渠道
+     * @param config      发送配置
+     * @param request     短信请求
+     * @param parallelism 最大并行子请求数
+     * @param <C>         配置类型
+     * @return 合并后的响应
+     * @throws MessageSendException 等待被中断时抛出
+     * @see #sendBatchAsync(String, String, Object, SmsRequest, int)
+     */
+    public static <C> SmsResponse sendBatch(String type, String channel, C config, SmsRequest request,
+                                            int parallelism) throws MessageSendException {
+        return await(sendBatchAsync(type, channel, config, request, parallelism), "Batch", type, channel);
+    }
+
+    /**
+     * 批量发送短信，并只向可重试的失败接收人重发，阻塞等待所有轮次完成
+     *
+     * @param type    消息类型
+     * @param channel 渠道
+     * @param config  发送配置
+     * @param request 短信请求
+     * @param retry   部分重试策略
+     * @param <C>     配置类型
+     * @return 合并后的响应
+     * @throws MessageSendException 等待被中断时抛出
+     * @see #sendBatchAsync(String, String, Object, SmsRequest, SmsPartialRetry)
+     */
+    public static <C> SmsResponse sendBatch(String type, String channel, C config, SmsRequest request,
+                                            SmsPartialRetry retry) throws MessageSendException {
+        return await(sendBatchAsync(type, channel, config, request, retry), "Batch", type, channel);
+    }
+
+    /**
+     * 异步发送个性化批量短信，使用默认并行度
+     *
+     * @see #sendBulkAsync(String, String, Object, SmsBulkRequest, int)
+     */
+    public static <C> CompletableFuture<SmsResponse> sendBulkAsync(String type, String channel, C config,
+                                                                   SmsBulkRequest request) {
+        return sendBulkAsync(type, channel, config, request, batchParallelism);
+    }
+
+    /**
+     * 异步发送个性化批量短信：每个接收人使用各自的模板参数。
+     * <p>
+     * 具体合并方式由渠道决定：腾讯云将参数相同的接收人合并为每次最多 200 个号码的 SendSms，
+     * 阿里云映射为 SendBatchSms。合并后的响应包含每个接收人的结果。
+     * 请求按 {@link ISmsSender#splitBulk(SmsBulkRequest)} 切分，与 {@link #sendBatchAsync(String, String, Object, SmsRequest, int)}
+     * 一样每个子请求分别经过已注册的 {@link SendGuard} 与 {@link SendObserver}。
+     * </p>
+     *
+     * @param type        消息类型
+     * @param channel     渠道
+     * @param config      发送配置
+     * @param request     个性化批量请求
+     * @param parallelism 最大并行子请求数
+     * @param <C>         配置类型
+     * @return 合并后响应的 Future；子请求失败不会使其异常完成
+     * @throws IllegalArgumentException 当指定 type/channel 未找到对应实现或不是短信发送器时抛出
+     */
+    public static <C> CompletableFuture<SmsResponse> sendBulkAsync(String type, String channel, C config,
+                                                                   SmsBulkRequest request, int parallelism) {
+        ISmsSender<C> sender = getSmsSender(type, channel);
+        Objects.requireNonNull(config, "config must not be null");
+        Objects.requireNonNull(request, "request must not be null");
+        List<SmsBulkRequest> chunks = sender.splitBulk(request);
+        if (log.isDebugEnabled()) {
+            log.debug("Sending bulk: type={}, channel={}, recipients={}, chunks={}, parallelism={}",
+                    type, channel, request.getRecipientCount(), chunks.size(), parallelism);
+        }
+        BulkChunkSender<C> chunkSender = new BulkChunkSender<>(sender);
+        return SmsBatchExecutor.execute(chunks, parallelism,
+                chunk -> MessageSenderManager.invokeAsync(chunkSender, config, chunk),
+                SmsBulkRequest::phoneNumbers, sender.channel());
+    }
+
+    /**
+     * 发送个性化批量短信，使用默认并行度，阻塞等待所有子请求完成
+     *
+     * @see #sendBulkAsync(String, String, Object, SmsBulkRequest, int)
+     */
+    public static <C> SmsResponse sendBulk(String type, String channel, C config, SmsBulkRequest request)
+            throws MessageSendException {
+        return await(sendBulkAsync(type, channel, config, request), "Bulk", type, channel);
+    }
+
+    private static SmsResponse await(CompletableFuture<SmsResponse> future, String kind, String type, String channel)
+            throws MessageSendException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MessageSendException(kind + " send interrupted", e, "INTERRUPTED", type, channel);
+        } catch (Exception e) {
+            throw new MessageSendException(kind + " send failed", FutureUtils.unwrap(e), "UNEXPECTED_ERROR", type, channel);
+        }
+    }
+
+    /**
+     * 获取短信发送器
+     *
+     * @throws IllegalArgumentException 当指定 type/channel 未找到对应实现或不是短信发送器时抛出
+     */
+    private static <C> ISmsSender<C> getSmsSender(String type, String channel) {
+        MessageSender<C, SmsRequest, SmsResponse> found = MessageSenderManager.getSender(type, channel);
+        if (!(found instanceof ISmsSender<C> sender)) {
+            throw new IllegalArgumentException("MessageSender for type: " + type + ", channel: " + channel
+                    + " does not support batch send");
+        }
+        return sender;
+    }
+
+    /**
+     * 以个性化批量子请求为消息体的 Sender 视图，路由与账号信息取自短信发送器，
+     * 使子请求与普通发送共用同一 routeKey 的发送保护
+     */
+    private record BulkChunkSender<C>(ISmsSender<C> sender)
+            implements MessageSender<C, SmsBulkRequest, SmsResponse> {
+
+        @Override
+        public String type() {
+            return sender.type();
+        }
+
+        @Override
+        public String channel() {
+            return sender.channel();
+        }
+
+        @Override
+        public String routeKey() {
+            return sender.routeKey();
+        }
+
+        @Override
+        public String accountKey(C config) {
+            return sender.accountKey(config);
+        }
+
+        @Override
+        public SmsResponse send(C config, SmsBulkRequest message) throws MessageSendException {
+            CompletableFuture<SmsResponse> future = sender.sendBulkChunkAsync(config, message);
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new MessageSendException("Bulk send interrupted", e, "INTERRUPTED", type(), channel());
+            } catch (Exception e) {
+                Throwable cause = FutureUtils.unwrap(e);
+                if (cause instanceof MessageSendException mse) {
+                    throw mse;
+                }
+                throw new MessageSendException("Bulk send failed", cause, "UNEXPECTED_ERROR", type(), channel());
+            }
+        }
+
+        @Override
+        public CompletableFuture<SmsResponse> sendAsync(C config, SmsBulkRequest message) {
+            return sender.sendBulkChunkAsync(config, message);
+        }
+    }
+}
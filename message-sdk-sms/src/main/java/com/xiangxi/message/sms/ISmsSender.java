@@ -1,9 +1,15 @@
 package com.xiangxi.message.sms;
 
 import com.xiangxi.message.api.MessageSender;
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.sms.model.SmsBulkRequest;
 import com.xiangxi.message.sms.model.SmsRequest;
 import com.xiangxi.message.sms.model.SmsResponse;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 短信发送器接口。
  *
@@ -13,9 +19,137 @@ import com.xiangxi.message.sms.model.SmsResponse;
  * - {@link #type()} 必须返回统一的短信类型标识（例如："SMS"）。
  * - {@link #channel()} 返回渠道编码（例如："TENCENT_SMS"、"ALI_SMS"）。
  * - {@link #send(Object, Object)} 抛出的异常应转换为统一的业务异常，由上层捕获并记录。
+ * - {@link #maxRecipientsPerRequest()} 返回渠道单次请求支持的接收人上限，批量发送据此切分。
+ * - {@link #splitBulk(SmsBulkRequest)} 与 {@link #sendBulkChunkAsync(Object, SmsBulkRequest)} 决定个性化批量的切分与子请求发送，
+ *   上层调度可逐个子请求施加发送保护。
  *
  * @param <C> 配置类型（含密钥/地域/签名等渠道初始化所需信息）
  */
 public interface ISmsSender<C> extends MessageSender<C, SmsRequest, SmsResponse> {
-    // 继承父接口的所有方法，无需额外定义
-}
\ No newline at end of file
+
+    /**
+     * 单次请求支持的最大接收人数
+     * <p>
+     * 默认按单个接收人处理，支持多接收人的渠道应覆盖此方法。
+     * </p>
+     *
+     * @return 接收人上限，必须大于 0
+     */
+    default int maxRecipientsPerRequest() {
+        return 1;
+    }
+
+    /**
+     * 异步批量发送：接收人数量不受渠道单次上限限制
+     * <p>
+     * 请求按 {@link #maxRecipientsPerRequest()} 切分为子请求，最多 parallelism 个子请求同时在途，
+     * 合并后的响应按原始顺序包含每个接收人的结果，状态码语义见 {@link SmsBatchExecutor}。
+     * 子请求失败不会使返回的 Future 异常完成，失败体现在对应接收人的结果中。
+     * </p>
+     *
+     * @param config      发送配置
+     * @param request     短信请求，可包含任意数量接收人
+     * @param parallelism 最大并行子请求数
+     * @return 合并后响应的 Future
+     */
+    default CompletableFuture<SmsResponse> sendBatchAsync(C config, SmsRequest request, int parallelism) {
+        return SmsBatchExecutor.execute(SmsBatchExecutor.split(request, maxRecipientsPerRequest()), parallelism,
+                chunk -> sendAsync(config, chunk), channel());
+    }
+
+    /**
+     * 批量发送，阻塞等待所有子请求完成
+     *
+     * @param config      发送配置
+     * @param request     短信请求，可包含任意数量接收人
+     * @param parallelism 最大并行子请求数
+     * @return 合并后的响应
+     * @throws MessageSendException 等待被中断时抛出
+     * @see #sendBatchAsync(Object, SmsRequest, int)
+     */
+    default SmsResponse sendBatch(C config, SmsRequest request, int parallelism) throws MessageSendException {
+        CompletableFuture<SmsResponse> future = sendBatchAsync(config, request, parallelism);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MessageSendException("Batch send interrupted", e, "INTERRUPTED", type(), channel());
+        } catch (Exception e) {
+            throw new MessageSendException("Batch send failed", FutureUtils.unwrap(e), "UNEXPECTED_ERROR", type(), channel());
+        }
+    }
+
+    /**
+     * 将个性化批量请求切分为子请求，每个子请求对应渠道的一次调用
+     * <p>
+     * 默认实现将参数完全相同的接收人分组，并按 {@link #maxRecipientsPerRequest()} 切分；
+     * 渠道有原生个性化批量接口时可覆盖此方法，按该接口的单次上限切分。
+     * </p>
+     *
+     * @param request 个性化批量请求
+     * @return 子请求列表
+     */
+    default List<SmsBulkRequest> splitBulk(SmsBulkRequest request) {
+        return request.partitionByParams(maxRecipientsPerRequest());
+    }
+
+    /**
+     * 异步发送 {@link #splitBulk(SmsBulkRequest)} 切分出的单个子请求
+     * <p>
+     * 默认实现将子请求合并为普通请求发送（子请求内参数不同时按参数分组依次发送）；
+     * 渠道有原生个性化批量接口时可覆盖此方法。
+     * </p>
+     *
+     * @param config 发送配置
+     * @param chunk  子请求
+     * @return 子请求响应的 Future，包含每个接收人的结果
+     */
+    default CompletableFuture<SmsResponse> sendBulkChunkAsync(C config, SmsBulkRequest chunk) {
+        List<SmsRequest> requests = chunk.groupByParams(maxRecipientsPerRequest());
+        if (requests.size() == 1) {
+            return sendAsync(config, requests.get(0));
+        }
+        return SmsBatchExecutor.execute(requests, 1, r -> sendAsync(config, r), channel());
+    }
+
+    /**
+     * 异步发送个性化批量短信：每个接收人使用各自的模板参数
+     * <p>
+     * 请求按 {@link #splitBulk(SmsBulkRequest)} 切分，每个子请求由 {@link #sendBulkChunkAsync(Object, SmsBulkRequest)} 发送，
+     * 最多 parallelism 个同时在途，结果按子请求顺序逐接收人给出。
+     * </p>
+     *
+     * @param config      发送配置
+     * @param request     个性化批量请求
+     * @param parallelism 最大并行子请求数
+     * @return 合并后响应的 Future
+     */
+    default CompletableFuture<SmsResponse> sendBulkAsync(C config, SmsBulkRequest request, int parallelism) {
+        return SmsBatchExecutor.execute(splitBulk(request), parallelism, chunk -> sendBulkChunkAsync(config, chunk),
+                SmsBulkRequest::phoneNumbers, channel());
+    }
+
+    /**
+     * 发送个性化批量短信，阻塞等待所有子请求完成
+     *
+     * @param config      发送配置
+     * @param request     个性化批量请求
+     * @param parallelism 最大并行子请求数
+     * @return 合并后的响应
+     * @throws MessageSendException 等待被中断时抛出
+     * @see #sendBulkAsync(Object, SmsBulkRequest, int)
+     */
+    default SmsResponse sendBulk(C config, SmsBulkRequest request, int parallelism) throws MessageSendException {
+        CompletableFuture<SmsResponse> future = sendBulkAsync(config, request, parallelism);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MessageSendException("Bulk send interrupted", e, "INTERRUPTED", type(), channel());
+        } catch (Exception e) {
+            throw new MessageSendException("Bulk send failed", FutureUtils.unwrap(e), "UNEXPECTED_ERROR", type(), channel());
+        }
+    }
+}
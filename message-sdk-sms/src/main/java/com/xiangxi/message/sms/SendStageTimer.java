@@ -0,0 +1,83 @@
+package com.xiangxi.message.sms;
+
+import com.xiangxi.message.sms.model.SendStage;
+import com.xiangxi.message.sms.model.SmsResponse;
+
+/**
+ * 单次发送的阶段计时
+ *
+ * <p>渠道实现在每个阶段结束时调用 {@link #mark(SendStage)}，把距上一次标记的耗时累加到该阶段；
+ * 同一阶段可多次标记（如配置校验与消息校验之间穿插转换）。耗时存放在以 {@link SendStage#ordinal()}
+ * 为下标的定长 long 数组中，每次标记只有一次 {@link System#nanoTime()} 与数组写入，不分配对象。</p>
+ *
+ * <p>全局关闭（{@link #setEnabled(boolean)}）后 {@link #start()} 返回共享的空实现，标记不做任何事，
+ * 响应中不附带阶段耗时。各阶段在同一次发送中先后发生（异步发送时跨线程传递由 Future 保证可见性），
+ * 实例不支持并发标记。</p>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class SendStageTimer {
+
+    private static final SendStageTimer DISABLED = new SendStageTimer(null);
+
+    private static volatile boolean enabled = true;
+
+    private final long[] nanos;
+    private long last;
+
+    private SendStageTimer(long[] nanos) {
+        this.nanos = nanos;
+        this.last = nanos == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * 开始一次发送的计时
+     *
+     * @return 计时器；全局关闭时返回不记录的共享实例
+     */
+    public static SendStageTimer start() {
+        return enabled ? new SendStageTimer(new long[SendStage.values().length]) : DISABLED;
+    }
+
+    /**
+     * 设置是否记录阶段耗时，默认开启
+     */
+    public static void setEnabled(boolean enabled) {
+        SendStageTimer.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 是否在记录阶段耗时
+     */
+    public boolean isRecording() {
+        return nanos != null;
+    }
+
+    /**
+     * 结束一个阶段：距上一次标记（或开始计时）的耗时累加到该阶段
+     *
+     * @param stage 刚结束的阶段
+     */
+    public void mark(SendStage stage) {
+        if (nanos == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        nanos[stage.ordinal()] += now - last;
+        last = now;
+    }
+
+    /**
+     * 各阶段耗时，交给 {@link SmsResponse.Builder#stageNanos(long[])}
+     *
+     * @return 以 {@link SendStage#ordinal()} 为下标的耗时数组（纳秒）；未记录时为 null
+     */
+    public long[] stageNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,372 @@
+package com.xiangxi.message.sms;
+
+import com.xiangxi.message.common.enums.MessageCode;
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.model.MessageSendResult;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.sms.model.SendStage;
+import com.xiangxi.message.sms.model.SmsRequest;
+import com.xiangxi.message.sms.model.SmsResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 短信批量发送执行器
+ *
+ * <p>将任意数量接收人的请求按渠道单次上限切分为多个子请求，以固定并行度发送，
+ * 并把各子请求的逐接收人结果按原始顺序合并为一个 {@link SmsResponse}：</p>
+ * <ul>
+ *   <li>同时在途的子请求不超过 parallelism，某个子请求完成后立即发送下一个；</li>
+ *   <li>子请求整体失败（抛出异常）时，其所有接收人记为失败，不影响其他子请求；</li>
+ *   <li>合并后全部成功为 {@link MessageCode#SUCCESS}，全部失败为 {@link MessageCode#FAILED}，
+ *       否则为 {@link MessageCode#PARTIAL_SUCCESS}；</li>
+ *   <li>取消返回的 Future 会停止发送剩余子请求，并取消在途子请求。</li>
+ * </ul>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * List<SmsRequest> chunks = SmsBatchExecutor.split(request, sender.maxRecipientsPerRequest());
+ * SmsResponse response = SmsBatchExecutor.execute(chunks, 8,
+ *         chunk -> sender.sendAsync(config, chunk), sender.channel()).join();
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class SmsBatchExecutor {
+
+    /**
+     * 子请求失败且异常未携带错误码时使用的错误码
+     */
+    public static final String BATCH_CHUNK_FAILED = "BATCH_CHUNK_FAILED";
+
+    private SmsBatchExecutor() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 按单次请求的接收人上限切分请求，模板、签名与扩展参数保持不变
+     *
+     * @param request       原始请求
+     * @param maxRecipients 单次请求的接收人上限
+     * @return 子请求列表；接收人未超过上限时只包含原始请求
+     */
+    public static List<SmsRequest> split(SmsRequest request, int maxRecipients) {
+        if (maxRecipients <= 0) {
+            throw new IllegalArgumentException("maxRecipients must be positive");
+        }
+        List<String> phones = request.phoneNumbers();
+        if (phones == null || phones.size() <= maxRecipients) {
+            return List.of(request);
+        }
+        List<SmsRequest> chunks = new ArrayList<>((phones.size() + maxRecipients - 1) / maxRecipients);
+        for (int from = 0; from < phones.size(); from += maxRecipients) {
+            List<String> slice = List.copyOf(phones.subList(from, Math.min(from + maxRecipients, phones.size())));
+            chunks.add(new SmsRequest(slice, request.templateId(), request.templateParams(),
+                    request.signName(), request.properties()));
+        }
+        return chunks;
+    }
+
+    /**
+     * 以固定并行度发送子请求并合并结果
+     *
+     * @param chunks      子请求列表
+     * @param parallelism 最大并行子请求数
+     * @param sendChunk   单个子请求的异步发送函数
+     * @param channel     渠道标识，用于合并后的响应
+     * @return 合并后的响应；该 Future 不会因子请求失败而异常完成
+     */
+    public static CompletableFuture<SmsResponse> execute(List<SmsRequest> chunks, int parallelism,
+                                                         Function<SmsRequest, CompletableFuture<SmsResponse>> sendChunk,
+                                                         String channel) {
+        return execute(chunks, parallelism, sendChunk, SmsRequest::phoneNumbers, channel);
+    }
+
+    /**
+     * 以固定并行度发送任意类型的子请求并合并结果
+     *
+     * @param chunks       子请求列表
+     * @param parallelism  最大并行子请求数
+     * @param sendChunk    单个子请求的异步发送函数
+     * @param recipientsOf 子请求的接收人列表，用于子请求失败或响应缺少明细时生成逐接收人结果
+     * @param channel      渠道标识，用于合并后的响应
+     * @param <T>          子请求类型
+     * @return 合并后的响应；该 Future 不会因子请求失败而异常完成
+     */
+    public static <T> CompletableFuture<SmsResponse> execute(List<T> chunks, int parallelism,
+                                                             Function<T, CompletableFuture<SmsResponse>> sendChunk,
+                                                             Function<T, List<String>> recipientsOf,
+                                                             String channel) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        return new Run<>(chunks, sendChunk, recipientsOf, channel).start(Math.min(parallelism, chunks.size()));
+    }
+
+    /**
+     * 合并多个子请求的响应
+     * <p>
+     * 只有一个子请求时沿用其全部耗时；多个子请求时渠道调用耗时取最长者，发送阶段耗时按阶段求和
+     * （任一子请求未附带时不附带），网络阶段耗时无法合并，不附带。
+     * </p>
+     *
+     * @param channel   渠道标识
+     * @param responses 子请求响应，按接收人原始顺序排列
+     * @return 合并后的响应
+     */
+    public static SmsResponse merge(String channel, List<SmsResponse> responses) {
+        List<MessageSendResult> results = new ArrayList<>();
+        StringBuilder requestIds = new StringBuilder();
+        for (SmsResponse response : responses) {
+            if (response.getResults() != null) {
+                results.addAll(response.getResults());
+            }
+            if (response.getRequestId() != null) {
+                if (!requestIds.isEmpty()) {
+                    requestIds.append(',');
+                }
+                requestIds.append(response.getRequestId());
+            }
+        }
+        MessageCode code = aggregate(results);
+        SmsResponse.Builder merged = SmsResponse.builder()
+                .channel(channel)
+                .code(code.getCode())
+                .message(code.getDescription())
+                .requestId(requestIds.isEmpty() ? null : requestIds.toString())
+                .results(results)
+                .rawResponse(responses);
+        if (responses.size() == 1) {
+            merged.timingsFrom(responses.get(0));
+        } else if (!responses.isEmpty()) {
+            merged.responseTime(longestResponseTime(responses)).stageNanos(sumStageNanos(responses));
+        }
+        return merged.build();
+    }
+
+    private static Duration longestResponseTime(List<SmsResponse> responses) {
+        Duration longest = null;
+        for (SmsResponse response : responses) {
+            Duration time = response.getResponseTime();
+            if (time != null && (longest == null || time.compareTo(longest) > 0)) {
+                longest = time;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * 按阶段累加各响应的发送阶段耗时
+     *
+     * @return 各阶段之和；任一响应未附带阶段耗时时为 null
+     */
+    static long[] sumStageNanos(List<SmsResponse> responses) {
+        SendStage[] stages = SendStage.values();
+        long[] sum = new long[stages.length];
+        for (SmsResponse response : responses) {
+            if (!response.hasStageTimings()) {
+                return null;
+            }
+            for (SendStage stage : stages) {
+                sum[stage.ordinal()] += response.getStageNanos(stage);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 根据逐接收人结果计算整体状态码
+     *
+     * @param results 逐接收人结果
+     * @return 全部成功为 SUCCESS，全部失败（或没有结果）为 FAILED，否则为 PARTIAL_SUCCESS
+     */
+    public static MessageCode aggregate(List<MessageSendResult> results) {
+        boolean anySuccess = false;
+        boolean anyFail = false;
+        for (MessageSendResult result : results) {
+            if (result.isSuccess()) {
+                anySuccess = true;
+            } else {
+                anyFail = true;
+            }
+        }
+        if (anySuccess && anyFail) {
+            return MessageCode.PARTIAL_SUCCESS;
+        }
+        return anySuccess ? MessageCode.SUCCESS : MessageCode.FAILED;
+    }
+
+    /**
+     * 将整体失败的子请求转换为逐接收人的失败结果
+     *
+     * @param channel 渠道标识
+     * @param chunk   子请求
+     * @param error   失败原因
+     * @return 失败响应
+     */
+    public static SmsResponse failed(String channel, SmsRequest chunk, Throwable error) {
+        return failed(channel, chunk.phoneNumbers(), error);
+    }
+
+    /**
+     * 将整体失败的子请求转换为逐接收人的失败结果
+     *
+     * @param channel    渠道标识
+     * @param recipients 子请求的接收人
+     * @param error      失败原因
+     * @return 失败响应
+     */
+    public static SmsResponse failed(String channel, List<String> recipients, Throwable error) {
+        String errorCode = error instanceof MessageSendException mse && mse.hasErrorCode()
+                ? mse.getErrorCode() : BATCH_CHUNK_FAILED;
+        LocalDateTime now = LocalDateTime.now();
+        List<MessageSendResult> results = new ArrayList<>(recipients.size());
+        for (String phone : recipients) {
+            MessageSendResult r = new MessageSendResult();
+            r.setReceiver(phone);
+            r.setSuccess(false);
+            r.setErrorCode(errorCode);
+            r.setErrorMsg(error.getMessage());
+            r.setSendTime(now);
+            results.add(r);
+        }
+        return SmsResponse.builder()
+                .channel(channel)
+                .code(MessageCode.FAILED.getCode())
+                .message(error.getMessage())
+                .results(results)
+                .rawResponse(error)
+                .build();
+    }
+
+    /**
+     * 为未返回逐接收人结果的响应补齐明细，按整体状态记为全部成功或全部失败
+     */
+    private static SmsResponse withRecipients(List<String> recipients, SmsResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        List<MessageSendResult> results = new ArrayList<>(recipients.size());
+        for (String phone : recipients) {
+            MessageSendResult r = new MessageSendResult();
+            r.setReceiver(phone);
+            r.setSuccess(response.isSuccess());
+            if (!response.isSuccess()) {
+                r.setErrorCode(response.getCode());
+                r.setErrorMsg(response.getMessage());
+            }
+            r.setSendTime(now);
+            results.add(r);
+        }
+        return SmsResponse.builder()
+                .channel(response.getChannel())
+                .code(response.getCode())
+                .message(response.getMessage())
+                .requestId(response.getRequestId())
+                .results(results)
+                .rawResponse(response.getRawResponse())
+                .timingsFrom(response)
+                .build();
+    }
+
+    /**
+     * 一次批量发送的执行状态
+     */
+    private static final class Run<T> {
+        private final List<T> chunks;
+        private final Function<T, CompletableFuture<SmsResponse>> sendChunk;
+        private final Function<T, List<String>> recipientsOf;
+        private final String channel;
+        private final SmsResponse[] responses;
+        private final Set<CompletableFuture<SmsResponse>> inFlight = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<SmsResponse> result = new CompletableFuture<>();
+
+        Run(List<T> chunks, Function<T, CompletableFuture<SmsResponse>> sendChunk,
+            Function<T, List<String>> recipientsOf, String channel) {
+            this.chunks = chunks;
+            this.sendChunk = sendChunk;
+            this.recipientsOf = recipientsOf;
+            this.channel = channel;
+            this.responses = new SmsResponse[chunks.size()];
+            this.remaining = new AtomicInteger(chunks.size());
+        }
+
+        CompletableFuture<SmsResponse> start(int parallelism) {
+            if (chunks.isEmpty()) {
+                result.complete(merge(channel, List.of()));
+                return result;
+            }
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    inFlight.forEach(f -> f.cancel(true));
+                }
+            });
+            for (int i = 0; i < parallelism; i++) {
+                sendNext();
+            }
+            return result;
+        }
+
+        /**
+         * 发送下一个子请求；同步完成的子请求在循环内直接接续，避免回调递归导致栈过深
+         */
+        private void sendNext() {
+            while (!result.isDone()) {
+                int index = next.getAndIncrement();
+                if (index >= chunks.size()) {
+                    return;
+                }
+                T chunk = chunks.get(index);
+                CompletableFuture<SmsResponse> future;
+                try {
+                    future = sendChunk.apply(chunk);
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                if (future.isDone()) {
+                    complete(index, chunk, future);
+                    continue;
+                }
+                inFlight.add(future);
+                CompletableFuture<SmsResponse> pending = future;
+                future.whenComplete((response, error) -> {
+                    inFlight.remove(pending);
+                    if (complete(index, chunk, pending)) {
+                        sendNext();
+                    }
+                });
+                return;
+            }
+        }
+
+        /**
+         * 记录子请求结果
+         *
+         * @return 是否还有未完成的子请求
+         */
+        private boolean complete(int index, T chunk, CompletableFuture<SmsResponse> future) {
+            SmsResponse response;
+            try {
+                response = future.join();
+            } catch (RuntimeException e) {
+                response = failed(channel, recipientsOf.apply(chunk), FutureUtils.unwrap(e));
+            }
+            responses[index] = response.getResults() != null ? response
+                    : withRecipients(recipientsOf.apply(chunk), response);
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(merge(channel, List.of(responses)));
+                return false;
+            }
+            return true;
+        }
+    }
+}
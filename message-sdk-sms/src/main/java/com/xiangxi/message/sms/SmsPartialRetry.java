@@ -0,0 +1,287 @@
+package com.xiangxi.message.sms;
+
+import com.xiangxi.message.common.enums.MessageCode;
+import com.xiangxi.message.common.exception.SendErrorCodes;
+import com.xiangxi.message.common.model.MessageSendResult;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.common.util.MessageValidator;
+import com.xiangxi.message.common.util.RetryBudget;
+import com.xiangxi.message.sms.model.SmsRequest;
+import com.xiangxi.message.sms.model.SmsResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 按接收人的部分重试
+ *
+ * <p>多接收人请求部分成功（{@code PARTIAL_SUCCESS}）时，整体重发会让已成功的接收人重复收到短信并重复计费。
+ * 部分重试按接收人的 {@link MessageSendResult#getErrorCode()} 判断是否可重试，只向可重试的接收人重发，
+ * 并把重发结果合并回原响应。厂商不保证逐接收人结果与请求顺序一致，结果按规范化后的号码
+ * （{@link MessageValidator#normalizeMobile(String)}）与接收人匹配，不按下标：</p>
+ * <ul>
+ *   <li>可重试：厂商限流与暂时性内部错误，以及本地发送保护（限流、并发限制、熔断）拒绝、请求未发出的接收人；</li>
+ *   <li>不可重试：号码格式、号码级频控、模板、签名、余额等错误，无法确认是否已发出的错误，
+ *       以及响应中找不到对应结果的接收人；</li>
+ *   <li>每轮重发前按指数退避加抖动等待，等待由定时器调度，不占用线程；</li>
+ *   <li>每轮重发向 routeKey 的 {@link RetryBudget} 申请一次额度（首次请求由发送器的 HTTP 客户端计数，
+ *       重发在 {@link RetryBudget#asRetry(java.util.function.Supplier)} 中发起，不再计为首次请求）；
+ *       额度不足时停止重发，本应重发的接收人错误码置为 {@link RetryBudget#RETRY_BUDGET_EXHAUSTED}；</li>
+ *   <li>重发整体失败（抛出异常）时停止重试，保留此前的结果；取消返回的 Future 会取消在途的重发。</li>
+ * </ul>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * SmsResponse response = SmsSenderManager.sendBatchAsync("SMS", "TENCENT_SMS", config, request,
+ *         SmsPartialRetry.defaults()).join();
+ * // 或直接使用
+ * SmsResponse retried = SmsPartialRetry.defaults()
+ *         .execute(sender.routeKey(), request, r -> sender.sendAsync(config, r)).join();
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class SmsPartialRetry {
+
+    private final int maxRetries;
+    private final Duration backoff;
+    private final Predicate<String> retryableCode;
+
+    /**
+     * 创建部分重试策略，使用默认的错误码分类
+     *
+     * @param maxRetries 最多重发轮数
+     * @param backoff    首轮重发前的退避上限，之后每轮加倍
+     */
+    public SmsPartialRetry(int maxRetries, Duration backoff) {
+        this(maxRetries, backoff, SmsPartialRetry::isRetryableCode);
+    }
+
+    /**
+     * 创建部分重试策略
+     *
+     * @param maxRetries    最多重发轮数
+     * @param backoff       首轮重发前的退避上限，之后每轮加倍
+     * @param retryableCode 判断接收人错误码是否可重试
+     */
+    public SmsPartialRetry(int maxRetries, Duration backoff, Predicate<String> retryableCode) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must be non-negative");
+        }
+        if (backoff == null || backoff.isNegative()) {
+            throw new IllegalArgumentException("backoff must not be negative");
+        }
+        this.maxRetries = maxRetries;
+        this.backoff = backoff;
+        this.retryableCode = retryableCode;
+    }
+
+    /**
+     * 默认策略：最多重发 2 轮，首轮退避 500ms
+     *
+     * @return 默认策略
+     */
+    public static SmsPartialRetry defaults() {
+        return new SmsPartialRetry(2, Duration.ofMillis(500));
+    }
+
+    /**
+     * 默认的错误码分类：厂商暂时性错误（{@link SendErrorCodes#isTransient(String)}）与本地发送保护拒绝
+     * （请求未发往厂商，重发不会重复发送）可重试。号码级频控（LimitExceeded.*、isv.BUSINESS_LIMIT_CONTROL）
+     * 短时间内重发不会成功，不重试。
+     *
+     * @param errorCode 接收人错误码
+     * @return 可重试时返回 true
+     */
+    public static boolean isRetryableCode(String errorCode) {
+        return SendErrorCodes.isTransient(errorCode) || SendErrorCodes.isLocalRejection(errorCode);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getBackoff() {
+        return backoff;
+    }
+
+    /**
+     * 发送请求，并向可重试的失败接收人重发
+     *
+     * @param routeKey 路由键，用于申请重试预算
+     * @param request  原始请求
+     * @param send     发送函数，返回的逐接收人结果须带有接收人号码（{@link MessageSendResult#getReceiver()}）
+     * @return 合并后响应的 Future
+     */
+    public CompletableFuture<SmsResponse> execute(String routeKey, SmsRequest request,
+                                                  Function<SmsRequest, CompletableFuture<SmsResponse>> send) {
+        CompletableFuture<SmsResponse> result = new CompletableFuture<>();
+        CompletableFuture<SmsResponse> first;
+        try {
+            first = send.apply(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        FutureUtils.propagateCancellation(result, first);
+        first.whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(FutureUtils.unwrap(error));
+            } else {
+                retry(routeKey, request, response, 0, send, result);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取响应中可重试的接收人
+     * <p>
+     * 逐接收人结果按规范化后的号码与请求中的接收人匹配；同一号码出现多次时只重发一次，
+     * 成功结果优先，避免重复发送。响应中找不到结果的接收人无法确认是否已发出，不重发。
+     * </p>
+     *
+     * @param request  请求
+     * @param response 请求的响应
+     * @return 可重试接收人的号码（请求中的原始形式），按请求顺序排列
+     */
+    public List<String> retryablePhones(SmsRequest request, SmsResponse response) {
+        Map<String, MessageSendResult> byPhone = byPhone(response.getResults());
+        if (byPhone.isEmpty()) {
+            return List.of();
+        }
+        Map<String, String> phones = new LinkedHashMap<>();
+        for (String phone : request.phoneNumbers()) {
+            String key = MessageValidator.normalizeMobile(phone);
+            MessageSendResult r = byPhone.get(key);
+            if (r != null && !r.isSuccess() && retryableCode.test(r.getErrorCode())) {
+                phones.putIfAbsent(key, phone);
+            }
+        }
+        return new ArrayList<>(phones.values());
+    }
+
+    /**
+     * 将重发结果按号码合并回原响应，重新计算整体状态码
+     * <p>
+     * 原响应中号码与重发结果匹配的接收人替换为重发结果，其余保持不变；重发响应中与原响应不匹配的结果被忽略。
+     * 各轮依次发送，渠道调用耗时与发送阶段耗时取两者之和（不含退避等待），网络阶段耗时不附带。
+     * </p>
+     *
+     * @param original 原响应
+     * @param retried  重发的响应
+     * @return 合并后的响应
+     */
+    public static SmsResponse merge(SmsResponse original, SmsResponse retried) {
+        Map<String, MessageSendResult> retriedByPhone = byPhone(retried.getResults());
+        List<MessageSendResult> results = new ArrayList<>(original.getResults().size());
+        for (MessageSendResult r : original.getResults()) {
+            MessageSendResult replacement = r.getReceiver() == null ? null
+                    : retriedByPhone.get(MessageValidator.normalizeMobile(r.getReceiver()));
+            results.add(replacement != null ? replacement : r);
+        }
+        String requestId = original.getRequestId() == null ? retried.getRequestId()
+                : retried.getRequestId() == null ? original.getRequestId()
+                : original.getRequestId() + "," + retried.getRequestId();
+        MessageCode code = SmsBatchExecutor.aggregate(results);
+        return SmsResponse.builder()
+                .channel(original.getChannel())
+                .code(code.getCode())
+                .message(code.getDescription())
+                .requestId(requestId)
+                .results(results)
+                .rawResponse(List.of(original, retried))
+                .responseTime(original.getResponseTime() == null || retried.getResponseTime() == null ? null
+                        : original.getResponseTime().plus(retried.getResponseTime()))
+                .stageNanos(SmsBatchExecutor.sumStageNanos(List.of(original, retried)))
+                .build();
+    }
+
+    /**
+     * 按规范化后的号码索引逐接收人结果；同一号码有多个结果时成功结果优先
+     */
+    private static Map<String, MessageSendResult> byPhone(List<MessageSendResult> results) {
+        if (results == null || results.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, MessageSendResult> byPhone = new HashMap<>();
+        for (MessageSendResult r : results) {
+            if (r.getReceiver() == null) {
+                continue;
+            }
+            byPhone.merge(MessageValidator.normalizeMobile(r.getReceiver()), r,
+                    (existing, next) -> existing.isSuccess() ? existing : next);
+        }
+        return byPhone;
+    }
+
+    /**
+     * 重试预算耗尽：本应重发的接收人错误码置为 {@link RetryBudget#RETRY_BUDGET_EXHAUSTED}，原错误保留在错误描述中
+     * <p>
+     * 逐接收人结果由本次发送创建，直接修改，响应的其余部分（状态码、耗时）保持不变。
+     * </p>
+     */
+    private static SmsResponse budgetExhausted(SmsResponse response, List<String> phones) {
+        Set<String> exhausted = new HashSet<>();
+        for (String phone : phones) {
+            exhausted.add(MessageValidator.normalizeMobile(phone));
+        }
+        for (MessageSendResult r : response.getResults()) {
+            if (!r.isSuccess() && r.getReceiver() != null
+                    && exhausted.contains(MessageValidator.normalizeMobile(r.getReceiver()))) {
+                r.setErrorMsg("Retry budget exhausted, last error: " + r.getErrorCode()
+                        + (r.getErrorMsg() == null ? "" : " " + r.getErrorMsg()));
+                r.setErrorCode(RetryBudget.RETRY_BUDGET_EXHAUSTED);
+            }
+        }
+        return response;
+    }
+
+    private void retry(String routeKey, SmsRequest request, SmsResponse response, int round,
+                       Function<SmsRequest, CompletableFuture<SmsResponse>> send,
+                       CompletableFuture<SmsResponse> result) {
+        List<String> phones = round < maxRetries ? retryablePhones(request, response) : List.of();
+        if (phones.isEmpty() || result.isDone()) {
+            result.complete(response);
+            return;
+        }
+        if (!RetryBudget.shared().tryRetry(routeKey)) {
+            result.complete(budgetExhausted(response, phones));
+            return;
+        }
+        SmsRequest reduced = request.withPhoneNumbers(phones);
+        long bound = backoff.toNanos() << Math.min(round, 20);
+        long delay = bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound / 2, bound + 1);
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<SmsResponse> next;
+            try {
+                next = RetryBudget.asRetry(() -> send.apply(reduced));
+            } catch (RuntimeException e) {
+                result.complete(response);
+                return;
+            }
+            FutureUtils.propagateCancellation(result, next);
+            next.whenComplete((retried, error) -> {
+                if (error != null || retried.getResults() == null) {
+                    result.complete(response);
+                    return;
+                }
+                retry(routeKey, request, merge(response, retried), round + 1, send, result);
+            });
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.xiangxi.message.sms.model;
+
+/**
+ * 单次发送的阶段
+ *
+ * <p>用于 {@link SmsResponse#getStageNanos(SendStage)} 区分 SDK 自身的 CPU 耗时与厂商调用耗时，
+ * 各阶段耗时存放在以 {@link #ordinal()} 为下标的定长数组中。</p>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public enum SendStage {
+
+    /** 配置与消息参数校验 */
+    VALIDATE("validate"),
+    /** 统一请求转换为厂商请求对象 */
+    ADAPT("adapt"),
+    /** 请求体 JSON 序列化与摘要 */
+    SERIALIZE("serialize"),
+    /** 计算签名并构建 HTTP 请求 */
+    SIGN("sign"),
+    /** HTTP 调用（发出请求到开始读取响应体，含排队、重试与退避等待） */
+    HTTP("http"),
+    /** 响应体解析 */
+    PARSE("parse");
+
+    private final String stageName;
+
+    SendStage(String stageName) {
+        this.stageName = stageName;
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+}
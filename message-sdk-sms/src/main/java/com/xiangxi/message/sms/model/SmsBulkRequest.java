@@ -0,0 +1,240 @@
+package com.xiangxi.message.sms.model;
+
+import com.xiangxi.message.common.annotation.Required;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 个性化批量短信请求
+ *
+ * <p>与 {@link SmsRequest} 不同，每个接收人携带自己的模板参数（如姓名、验证码、券面额）。
+ * 发送时参数完全相同的接收人会被分到同一组，按渠道单次上限合并为尽量少的请求：
+ * 例如 10 万用户分属 5 档优惠券时，只需要按档位发送少量请求，而不是每人一次。</p>
+ *
+ * <h3>使用示例：</h3>
+ * <pre>{@code
+ * SmsBulkRequest request = SmsBulkRequest.builder()
+ *     .templateId("SMS_123456")
+ *     .add("13800138000", Map.of("coupon", "10"))
+ *     .add("13800138001", Map.of("coupon", "20"))
+ *     .build();
+ * }</pre>
+ *
+ * @param templateId 模板ID
+ * @param recipients 接收人及各自的模板参数
+ * @param signName   签名（可选）
+ * @param properties 扩展参数
+ * @author 初心
+ * @since 1.0.0
+ */
+public record SmsBulkRequest(@Required(message = "模板ID不能为空") String templateId,
+                             @Required(message = "接收人列表不能为空") List<Recipient> recipients,
+                             String signName, Map<String, Object> properties) {
+
+    /**
+     * 单个接收人
+     *
+     * @param phoneNumber    手机号
+     * @param templateParams 该接收人的模板参数，可为 null
+     */
+    public record Recipient(String phoneNumber, Map<String, String> templateParams) {
+    }
+
+    /**
+     * 获取接收人数量
+     *
+     * @return 接收人数量
+     */
+    public int getRecipientCount() {
+        return recipients != null ? recipients.size() : 0;
+    }
+
+    /**
+     * 获取全部手机号（与接收人顺序一致）
+     *
+     * @return 手机号列表
+     */
+    public List<String> phoneNumbers() {
+        List<String> phones = new ArrayList<>(getRecipientCount());
+        if (recipients != null) {
+            for (Recipient recipient : recipients) {
+                phones.add(recipient.phoneNumber());
+            }
+        }
+        return phones;
+    }
+
+    /**
+     * 将参数完全相同的接收人分组，并按单次上限切分为普通短信请求
+     * <p>
+     * 分组按参数首次出现的顺序排列，组内保持接收人的原始顺序；null 参数与空参数视为同一组。
+     * </p>
+     *
+     * @param maxRecipients 单次请求的接收人上限
+     * @return 短信请求列表
+     */
+    public List<SmsRequest> groupByParams(int maxRecipients) {
+        List<SmsRequest> requests = new ArrayList<>();
+        for (SmsBulkRequest group : partitionByParams(maxRecipients)) {
+            Map<String, String> params = group.recipients().get(0).templateParams();
+            requests.add(new SmsRequest(List.copyOf(group.phoneNumbers()), templateId, params == null ? Map.of() : params,
+                    signName, properties));
+        }
+        return requests;
+    }
+
+    /**
+     * 将参数完全相同的接收人分组，并按单次上限切分为个性化批量子请求，每个子请求内的接收人参数相同
+     * <p>
+     * 分组与顺序规则同 {@link #groupByParams(int)}。
+     * </p>
+     *
+     * @param maxRecipients 单次请求的接收人上限
+     * @return 子请求列表
+     */
+    public List<SmsBulkRequest> partitionByParams(int maxRecipients) {
+        if (maxRecipients <= 0) {
+            throw new IllegalArgumentException("maxRecipients must be positive");
+        }
+        Map<Map<String, String>, List<Recipient>> groups = new LinkedHashMap<>();
+        for (Recipient recipient : recipients) {
+            Map<String, String> params = recipient.templateParams() == null ? Map.of() : recipient.templateParams();
+            groups.computeIfAbsent(params, k -> new ArrayList<>()).add(recipient);
+        }
+        List<SmsBulkRequest> chunks = new ArrayList<>();
+        for (List<Recipient> group : groups.values()) {
+            slice(group, maxRecipients, chunks);
+        }
+        return chunks;
+    }
+
+    /**
+     * 按接收人原始顺序切分为个性化批量子请求，每个子请求内的接收人参数可以不同
+     *
+     * @param maxRecipients 单次请求的接收人上限
+     * @return 子请求列表；接收人未超过上限时只包含原始请求
+     */
+    public List<SmsBulkRequest> partition(int maxRecipients) {
+        if (maxRecipients <= 0) {
+            throw new IllegalArgumentException("maxRecipients must be positive");
+        }
+        if (getRecipientCount() <= maxRecipients) {
+            return List.of(this);
+        }
+        List<SmsBulkRequest> chunks = new ArrayList<>();
+        slice(recipients, maxRecipients, chunks);
+        return chunks;
+    }
+
+    private void slice(List<Recipient> list, int maxRecipients, List<SmsBulkRequest> chunks) {
+        for (int from = 0; from < list.size(); from += maxRecipients) {
+            List<Recipient> slice = List.copyOf(list.subList(from, Math.min(from + maxRecipients, list.size())));
+            chunks.add(new SmsBulkRequest(templateId, slice, signName, properties));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SmsBulkRequest{recipients=%d, templateId='%s', signName='%s'}",
+                getRecipientCount(), templateId, signName);
+    }
+
+    /**
+     * 创建 Builder 实例
+     *
+     * @return Builder 实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * SmsBulkRequest 构建器
+     */
+    public static class Builder {
+        private String templateId;
+        private final List<Recipient> recipients = new ArrayList<>();
+        private String signName;
+        private Map<String, Object> properties;
+
+        /**
+         * 设置模板ID
+         *
+         * @param templateId 模板ID
+         * @return Builder 实例
+         */
+        public Builder templateId(String templateId) {
+            this.templateId = templateId;
+            return this;
+        }
+
+        /**
+         * 添加接收人
+         *
+         * @param phoneNumber    手机号
+         * @param templateParams 该接收人的模板参数
+         * @return Builder 实例
+         */
+        public Builder add(String phoneNumber, Map<String, String> templateParams) {
+            this.recipients.add(new Recipient(phoneNumber, templateParams));
+            return this;
+        }
+
+        /**
+         * 批量添加接收人
+         *
+         * @param recipients 接收人列表
+         * @return Builder 实例
+         */
+        public Builder recipients(List<Recipient> recipients) {
+            this.recipients.addAll(recipients);
+            return this;
+        }
+
+        /**
+         * 设置签名
+         *
+         * @param signName 签名
+         * @return Builder 实例
+         */
+        public Builder signName(String signName) {
+            this.signName = signName;
+            return this;
+        }
+
+        /**
+         * 添加扩展参数
+         *
+         * @param key   参数键
+         * @param value 参数值
+         * @return Builder 实例
+         */
+        public Builder addProperty(String key, Object value) {
+            if (this.properties == null) {
+                this.properties = new HashMap<>();
+            }
+            this.properties.put(key, value);
+            return this;
+        }
+
+        /**
+         * 构建 SmsBulkRequest 实例
+         *
+         * @return SmsBulkRequest 实例
+         * @throws IllegalStateException 如果必填参数缺失
+         */
+        public SmsBulkRequest build() {
+            if (recipients.isEmpty()) {
+                throw new IllegalStateException("接收人列表不能为空");
+            }
+            if (templateId == null || templateId.trim().isEmpty()) {
+                throw new IllegalStateException("模板ID不能为空");
+            }
+            return new SmsBulkRequest(templateId, List.copyOf(recipients), signName, properties);
+        }
+    }
+}
@@ -220,6 +220,36 @@ public record SmsRequest(@Required(message = "手机号列表不能为空") List
 
     }
 
+    /**
+     * 创建模板ID不同、其余参数相同的请求，用于将同一请求转换为其他厂商的模板
+     *
+     * @param templateId 模板ID
+     * @return 新的短信请求
+     */
+    public SmsRequest withTemplateId(String templateId) {
+        return new SmsRequest(phoneNumbers, templateId, templateParams, signName, properties);
+    }
+
+    /**
+     * 创建模板参数不同、其余参数相同的请求，用于将同一请求转换为其他厂商的参数名
+     *
+     * @param templateParams 模板参数
+     * @return 新的短信请求
+     */
+    public SmsRequest withTemplateParams(Map<String, String> templateParams) {
+        return new SmsRequest(phoneNumbers, templateId, templateParams, signName, properties);
+    }
+
+    /**
+     * 创建接收人不同、其余参数相同的请求，用于只向部分接收人重发
+     *
+     * @param phoneNumbers 手机号列表
+     * @return 新的短信请求
+     */
+    public SmsRequest withPhoneNumbers(List<String> phoneNumbers) {
+        return new SmsRequest(phoneNumbers, templateId, templateParams, signName, properties);
+    }
+
     @Override
     public String toString() {
         return String.format("SmsRequest{phoneNumbers=%s, templateId='%s', signName='%s'}",
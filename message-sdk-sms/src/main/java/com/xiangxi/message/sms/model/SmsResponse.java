@@ -3,8 +3,10 @@ package com.xiangxi.message.sms.model;
 import com.xiangxi.message.common.enums.MessageType;
 import com.xiangxi.message.common.model.MessageResponse;
 import com.xiangxi.message.common.enums.MessageCode;
+import com.xiangxi.message.common.model.HttpTimings;
 import com.xiangxi.message.common.model.MessageSendResult;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -24,6 +26,9 @@ public class SmsResponse implements MessageResponse {
     private final String requestId;                 // 请求ID
     private final List<MessageSendResult> results;  // 每个接收人的发送结果
     private final Object rawResponse;
+    private final Duration responseTime;            // 渠道调用耗时（含转换、签名、HTTP 往返与解析），未知时为 null
+    private final HttpTimings httpTimings;          // HTTP 调用的网络阶段耗时，未记录时为 null
+    private final long[] stageNanos;                // 按 SendStage 下标的发送阶段耗时，未记录时为 null
 
     private SmsResponse(Builder builder) {
         this.channel = builder.channel;
@@ -32,6 +37,9 @@ public class SmsResponse implements MessageResponse {
         this.requestId = builder.requestId;
         this.results = builder.results;
         this.rawResponse = builder.rawResponse;
+        this.responseTime = builder.responseTime;
+        this.httpTimings = builder.httpTimings;
+        this.stageNanos = builder.stageNanos;
     }
 
     @Override
@@ -58,6 +66,23 @@ public class SmsResponse implements MessageResponse {
     @Override
     public Object getRawResponse() { return rawResponse; }
 
+    /** 渠道调用耗时，未知时为 null；合并多个子请求的响应见 {@code SmsBatchExecutor.merge} 与 {@code SmsPartialRetry.merge} */
+    public Duration getResponseTime() { return responseTime; }
+
+    /** HTTP 调用的网络阶段耗时（DNS、建连、TLS、写请求、首字节、连接复用）；未记录或合并多次 HTTP 调用的响应时为 null */
+    public HttpTimings getHttpTimings() { return httpTimings; }
+
+    /** 是否附带发送阶段耗时；关闭阶段计时时为 false，合并的响应只在各子请求均附带时为 true */
+    public boolean hasStageTimings() { return stageNanos != null; }
+
+    /**
+     * 发送阶段耗时（校验、转换、序列化、签名、HTTP、解析），用于区分 SDK 自身的 CPU 耗时与厂商调用耗时
+     *
+     * @param stage 阶段
+     * @return 该阶段耗时（纳秒），合并的响应为各子请求之和；未附带阶段耗时时为 -1
+     */
+    public long getStageNanos(SendStage stage) { return stageNanos == null ? -1 : stageNanos[stage.ordinal()]; }
+
     public static Builder builder() { return new Builder(); }
 
     public static class Builder {
@@ -67,6 +92,9 @@ public class SmsResponse implements MessageResponse {
         private String requestId;
         private List<MessageSendResult> results;
         private Object rawResponse;
+        private Duration responseTime;
+        private HttpTimings httpTimings;
+        private long[] stageNanos;
 
         public Builder channel(String channel) { this.channel = channel; return this; }
         public Builder code(String code) { this.code = code; return this; }
@@ -74,6 +102,18 @@ public class SmsResponse implements MessageResponse {
         public Builder requestId(String requestId) { this.requestId = requestId; return this; }
         public Builder results(List<MessageSendResult> results) { this.results = results; return this; }
         public Builder rawResponse(Object rawResponse) { this.rawResponse = rawResponse; return this; }
+        public Builder responseTime(Duration responseTime) { this.responseTime = responseTime; return this; }
+        public Builder httpTimings(HttpTimings httpTimings) { this.httpTimings = httpTimings; return this; }
+        /** 以 {@link SendStage#ordinal()} 为下标的阶段耗时数组，直接引用不复制 */
+        public Builder stageNanos(long[] stageNanos) { this.stageNanos = stageNanos; return this; }
+
+        /** 沿用另一响应的渠道调用耗时、网络阶段耗时与发送阶段耗时，用于按接收人拆分或改写响应 */
+        public Builder timingsFrom(SmsResponse source) {
+            this.responseTime = source.responseTime;
+            this.httpTimings = source.httpTimings;
+            this.stageNanos = source.stageNanos;
+            return this;
+        }
 
         public SmsResponse build() { return new SmsResponse(this); }
     }
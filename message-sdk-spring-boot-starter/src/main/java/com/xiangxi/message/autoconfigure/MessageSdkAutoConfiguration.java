@@ -1,13 +1,46 @@
 package com.xiangxi.message.autoconfigure;
 
+import com.xiangxi.message.client.HttpConnectionRegistry;
+import com.xiangxi.message.client.HttpPoolSettings;
+import com.xiangxi.message.common.enums.MessageType;
+import com.xiangxi.message.common.enums.SmsChannel;
+import com.xiangxi.message.common.util.RetryBudget;
+import com.xiangxi.message.manager.AdaptiveConcurrencyLimiter;
+import com.xiangxi.message.manager.CircuitBreaker;
 import com.xiangxi.message.manager.MessageSenderManager;
+import com.xiangxi.message.manager.SendGuard;
+import com.xiangxi.message.manager.TokenBucketRateLimiter;
+import com.xiangxi.message.sms.SendStageTimer;
+import com.xiangxi.message.sms.manager.SmsSenderManager;
+import com.xiangxi.message.sms.aliyun.AliyunConstant;
+import com.xiangxi.message.sms.tencent.TencentConstant;
+import com.xiangxi.message.manager.VirtualThreadDispatcher;
+import com.xiangxi.message.metrics.MessageSdkMetrics;
 import com.xiangxi.message.service.MessageSdkService;
 import com.xiangxi.message.config.SmsConfigManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Message SDK 自动配置类
@@ -19,6 +52,86 @@ import org.springframework.context.annotation.Configuration;
 @EnableConfigurationProperties({MessageSdkProperties.class, SmsVendorProperties.class})
 public class MessageSdkAutoConfiguration {
 
+    private static final Logger log = LoggerFactory.getLogger(MessageSdkAutoConfiguration.class);
+
+    /**
+     * 发送保护的注册顺序：熔断 → 限流 → 并发限制，使被熔断的请求不消耗令牌，被限流的请求不占用并发额度
+     */
+    private static final int GUARD_ORDER_CIRCUIT_BREAKER = 100;
+    private static final int GUARD_ORDER_RATE_LIMIT = 200;
+    private static final int GUARD_ORDER_CONCURRENCY = 300;
+
+
+    /**
+     * 配置 SDK 共享 HTTP 连接池（各厂商发送器按主机共用连接池与调度器）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpConnectionRegistry httpConnectionRegistry(MessageSdkProperties properties) {
+        MessageSdkProperties.HttpProperties http = properties.getHttp();
+        HttpConnectionRegistry registry = HttpConnectionRegistry.shared();
+        registry.configure(new HttpPoolSettings(
+                http.getMaxIdleConnections(),
+                http.getKeepAliveSeconds(),
+                http.getMaxRequests(),
+                http.getMaxRequestsPerHost()));
+        registry.setHttp2Enabled(http.isHttp2());
+        registry.setTimingsEnabled(http.isRecordTimings());
+        return registry;
+    }
+
+    /**
+     * 配置 SDK 全局重试预算（HTTP 客户端重试与短信部分重试共用）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryBudget retryBudget(MessageSdkProperties properties) {
+        MessageSdkProperties.RetryBudgetProperties budget = properties.getRetryBudget();
+        RetryBudget retryBudget = RetryBudget.shared();
+        retryBudget.configure(new RetryBudget.Settings(budget.getRatio(), budget.getMinRetries(),
+                Duration.ofSeconds(budget.getWindowSeconds())));
+        return retryBudget;
+    }
+
+    /**
+     * 应用启动完成后预热已启用厂商主机的连接（message.sdk.http.prewarm-connections &gt; 0 时生效），
+     * 之后按保活时间的一半周期性再次预热，使空闲连接在被连接池回收前得到复用，保持热连接；
+     * 预热异步进行，不阻塞启动，容器关闭时停止
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "message.sdk.http", name = "prewarm-connections")
+    public ApplicationListener<ApplicationReadyEvent> messageSdkConnectionPrewarmer(
+            MessageSdkProperties properties, SmsConfigManager smsConfigManager, HttpConnectionRegistry registry) {
+        return event -> {
+            MessageSdkProperties.HttpProperties http = properties.getHttp();
+            int connections = http.getPrewarmConnections();
+            if (connections <= 0) {
+                return;
+            }
+            List<String> hosts = Arrays.stream(smsConfigManager.getEnabledVendors())
+                    .map(vendor -> switch (vendor) {
+                        case "tencent" -> TencentConstant.HOST;
+                        case "aliyun" -> AliyunConstant.HOST;
+                        default -> "";
+                    })
+                    .filter(host -> !host.isEmpty())
+                    .toList();
+            if (hosts.isEmpty()) {
+                return;
+            }
+            Runnable prewarm = () -> hosts.forEach(host -> registry.prewarm(host, connections).exceptionally(e -> {
+                log.warn("Connection prewarm failed: host={}, error={}", host, e.getMessage());
+                return 0;
+            }));
+            prewarm.run();
+            long intervalSeconds = Math.max(1, http.getKeepAliveSeconds() / 2);
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("message-sdk-prewarm").daemon().factory());
+            scheduler.scheduleWithFixedDelay(prewarm, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+            event.getApplicationContext().addApplicationListener(
+                    (ApplicationListener<ContextClosedEvent>) closed -> scheduler.shutdownNow());
+        };
+    }
 
     /**
      * 配置短信配置管理器
@@ -30,11 +143,127 @@ public class MessageSdkAutoConfiguration {
     }
 
     /**
-     * 配置 MessageSdkService Bean
+     * 配置 MessageSdkService Bean，并将批量发送并行度应用到 {@link SmsSenderManager}
      */
     @Bean
     @ConditionalOnMissingBean
-    public MessageSdkService messageSdkService(SmsConfigManager smsConfigManager) {
+    public MessageSdkService messageSdkService(SmsConfigManager smsConfigManager, MessageSdkProperties properties) {
+        SmsSenderManager.setBatchParallelism(properties.getBatch().getParallelism());
+        SendStageTimer.setEnabled(properties.getMetrics().isStageTimings());
         return new MessageSdkService(smsConfigManager);
     }
-}
\ No newline at end of file
+
+    /**
+     * 配置虚拟线程调度器（message.sdk.dispatch.mode=virtual-thread 时启用），
+     * 并注册到 {@link MessageSenderManager}
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "message.sdk.dispatch", name = "mode", havingValue = "virtual-thread")
+    public VirtualThreadDispatcher virtualThreadDispatcher(MessageSdkProperties properties) {
+        VirtualThreadDispatcher dispatcher =
+                new VirtualThreadDispatcher(properties.getDispatch().getMaxConcurrencyPerRoute());
+        MessageSenderManager.setDispatcher(dispatcher);
+        return dispatcher;
+    }
+
+    /**
+     * 配置熔断器（message.sdk.circuit-breaker.enabled=true 时启用）
+     */
+    @Bean
+    @Order(GUARD_ORDER_CIRCUIT_BREAKER)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "message.sdk.circuit-breaker", name = "enabled", havingValue = "true")
+    public CircuitBreaker circuitBreaker(MessageSdkProperties properties) {
+        MessageSdkProperties.CircuitBreakerProperties breaker = properties.getCircuitBreaker();
+        return new CircuitBreaker(new CircuitBreaker.Settings(breaker.getWindowSize(), breaker.getMinimumCalls(),
+                breaker.getFailureRateThreshold(), Duration.ofSeconds(breaker.getOpenDurationSeconds()),
+                breaker.getHalfOpenProbes()));
+    }
+
+    /**
+     * 配置厂商账号限流器（message.sms.&lt;vendor&gt;.rate-limit.qps &gt; 0 时对该厂商生效）
+     */
+    @Bean
+    @Order(GUARD_ORDER_RATE_LIMIT)
+    @ConditionalOnMissingBean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(SmsVendorProperties smsVendorProperties) {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter();
+        applyRateLimit(limiter, SmsChannel.TENCENT_SMS, smsVendorProperties.getTencent().getRateLimit());
+        applyRateLimit(limiter, SmsChannel.ALI_SMS, smsVendorProperties.getAliyun().getRateLimit());
+        return limiter;
+    }
+
+    /**
+     * 配置自适应并发限制器（message.sdk.concurrency.enabled=true 时启用）
+     */
+    @Bean
+    @Order(GUARD_ORDER_CONCURRENCY)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "message.sdk.concurrency", name = "enabled", havingValue = "true")
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(MessageSdkProperties properties) {
+        MessageSdkProperties.ConcurrencyProperties concurrency = properties.getConcurrency();
+        AdaptiveConcurrencyLimiter.Settings defaults = AdaptiveConcurrencyLimiter.Settings.defaults();
+        return new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Settings(
+                concurrency.getInitialLimit(), concurrency.getMinLimit(), concurrency.getMaxLimit(),
+                concurrency.getTolerance(), defaults.smoothing(), defaults.longWindow()));
+    }
+
+    /**
+     * 将容器中的 {@link SendGuard} 按 {@link Order} 顺序注册到 {@link MessageSenderManager}，
+     * 容器关闭时移除
+     */
+    @Bean
+    public SmartInitializingSingleton messageSdkSendGuardRegistrar(ObjectProvider<SendGuard> guards,
+                                                                   ConfigurableApplicationContext context) {
+        return () -> {
+            List<SendGuard> registered = guards.orderedStream().toList();
+            registered.forEach(MessageSenderManager::addGuard);
+            context.addApplicationListener((ApplicationListener<ContextClosedEvent>) event ->
+                    registered.forEach(MessageSenderManager::removeGuard));
+        };
+    }
+
+    /**
+     * Micrometer 指标：类路径中存在 Micrometer 且容器中有唯一的 {@link MeterRegistry} 时，
+     * 将 {@link MessageSdkMetrics} 注册为发送观测与 HTTP 调用观测，容器关闭时移除
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "message.sdk.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class MetricsConfiguration {
+
+        @Bean
+        public SmartInitializingSingleton messageSdkMetricsRegistrar(ObjectProvider<MeterRegistry> registries,
+                                                                     ObjectProvider<AdaptiveConcurrencyLimiter> limiter,
+                                                                     MessageSdkProperties properties,
+                                                                     ConfigurableApplicationContext context) {
+            return () -> {
+                MeterRegistry registry = registries.getIfUnique();
+                if (registry == null) {
+                    return;
+                }
+                MessageSdkMetrics metrics = new MessageSdkMetrics(registry, limiter.getIfUnique(),
+                        properties.getMetrics().isPercentileHistogram());
+                MessageSenderManager.addObserver(metrics);
+                HttpConnectionRegistry.shared().addObserver(metrics);
+                context.addApplicationListener((ApplicationListener<ContextClosedEvent>) event -> {
+                    MessageSenderManager.removeObserver(metrics);
+                    HttpConnectionRegistry.shared().removeObserver(metrics);
+                });
+            };
+        }
+    }
+
+    private static void applyRateLimit(TokenBucketRateLimiter limiter, SmsChannel channel,
+                                       SmsVendorProperties.RateLimitProperties rateLimit) {
+        if (rateLimit.getQps() <= 0) {
+            return;
+        }
+        String routeKey = MessageType.SMS.getTypeName() + ":" + channel.getChannelName();
+        limiter.setLimit(routeKey, new TokenBucketRateLimiter.RateLimit(rateLimit.getQps(), rateLimit.getBurst(),
+                rateLimit.getMode(), Duration.ofMillis(rateLimit.getMaxWaitMillis())));
+        log.info("Rate limit enabled: route={}, qps={}, burst={}, mode={}",
+                routeKey, rateLimit.getQps(), rateLimit.getBurst(), rateLimit.getMode());
+    }
+}
@@ -1,6 +1,8 @@
 package com.xiangxi.message.autoconfigure;
 
+import com.xiangxi.message.manager.DispatchMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 /**
  * Message SDK 配置属性
@@ -25,6 +27,47 @@ public class MessageSdkProperties {
      */
     private String defaultChannel = "tencent";
 
+    /**
+     * 异步发送调度配置
+     */
+    @NestedConfigurationProperty
+    private DispatchProperties dispatch = new DispatchProperties();
+
+    /**
+     * 厂商 HTTP 共享连接池配置
+     */
+    @NestedConfigurationProperty
+    private HttpProperties http = new HttpProperties();
+
+    /**
+     * 批量发送配置
+     */
+    @NestedConfigurationProperty
+    private BatchProperties batch = new BatchProperties();
+
+    /**
+     * 自适应并发限制配置
+     */
+    @NestedConfigurationProperty
+    private ConcurrencyProperties concurrency = new ConcurrencyProperties();
+
+    /**
+     * 熔断配置
+     */
+    @NestedConfigurationProperty
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+    /**
+     * 重试预算配置
+     */
+    @NestedConfigurationProperty
+    private RetryBudgetProperties retryBudget = new RetryBudgetProperties();
+
+    /**
+     * Micrometer 指标配置
+     */
+    @NestedConfigurationProperty
+    private MetricsProperties metrics = new MetricsProperties();
 
     // Getters and Setters
     public boolean isEnabled() {
@@ -50,4 +93,446 @@ public class MessageSdkProperties {
     public void setDefaultChannel(String defaultChannel) {
         this.defaultChannel = defaultChannel;
     }
+
+    public DispatchProperties getDispatch() {
+        return dispatch;
+    }
+
+    public void setDispatch(DispatchProperties dispatch) {
+        this.dispatch = dispatch;
+    }
+
+    public HttpProperties getHttp() {
+        return http;
+    }
+
+    public void setHttp(HttpProperties http) {
+        this.http = http;
+    }
+
+    public BatchProperties getBatch() {
+        return batch;
+    }
+
+    public void setBatch(BatchProperties batch) {
+        this.batch = batch;
+    }
+
+    public ConcurrencyProperties getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(ConcurrencyProperties concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public CircuitBreakerProperties getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreakerProperties circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public RetryBudgetProperties getRetryBudget() {
+        return retryBudget;
+    }
+
+    public void setRetryBudget(RetryBudgetProperties retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    public MetricsProperties getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(MetricsProperties metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 异步发送调度配置
+     */
+    public static class DispatchProperties {
+        /**
+         * 调度模式：async（渠道原生异步）或 virtual-thread（虚拟线程）
+         */
+        private DispatchMode mode = DispatchMode.ASYNC;
+
+        /**
+         * 虚拟线程模式下每个渠道（routeKey）的最大并发发送数，0 表示不限制
+         */
+        private int maxConcurrencyPerRoute = 0;
+
+        public DispatchMode getMode() {
+            return mode;
+        }
+
+        public void setMode(DispatchMode mode) {
+            this.mode = mode;
+        }
+
+        public int getMaxConcurrencyPerRoute() {
+            return maxConcurrencyPerRoute;
+        }
+
+        public void setMaxConcurrencyPerRoute(int maxConcurrencyPerRoute) {
+            this.maxConcurrencyPerRoute = maxConcurrencyPerRoute;
+        }
+    }
+
+    /**
+     * 厂商 HTTP 共享连接池配置，同一厂商主机的所有发送器共用一个连接池
+     */
+    public static class HttpProperties {
+        /**
+         * 每个厂商主机保留的最大空闲连接数
+         */
+        private int maxIdleConnections = 32;
+
+        /**
+         * 空闲连接保活时间（秒）
+         */
+        private long keepAliveSeconds = 300;
+
+        /**
+         * 每个厂商主机异步请求的最大并发数
+         */
+        private int maxRequests = 256;
+
+        /**
+         * 单主机异步请求的最大并发数
+         */
+        private int maxRequestsPerHost = 128;
+
+        /**
+         * 是否通过 ALPN 协商 HTTP/2，关闭时固定使用 HTTP/1.1
+         */
+        private boolean http2 = true;
+
+        /**
+         * 每个已启用厂商主机的预热请求数：启动完成后预热，之后每隔 keep-alive-seconds 的一半再次预热以保持热连接，0 表示不预热
+         */
+        private int prewarmConnections = 0;
+
+        /**
+         * 是否记录网络阶段耗时（DNS、建连、TLS、写请求、首字节、连接复用），默认关闭
+         */
+        private boolean recordTimings = false;
+
+        public int getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        public void setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        public long getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(long keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public int getMaxRequests() {
+            return maxRequests;
+        }
+
+        public void setMaxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+        }
+
+        public int getMaxRequestsPerHost() {
+            return maxRequestsPerHost;
+        }
+
+        public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+        }
+
+        public boolean isHttp2() {
+            return http2;
+        }
+
+        public void setHttp2(boolean http2) {
+            this.http2 = http2;
+        }
+
+        public int getPrewarmConnections() {
+            return prewarmConnections;
+        }
+
+        public void setPrewarmConnections(int prewarmConnections) {
+            this.prewarmConnections = prewarmConnections;
+        }
+
+        public boolean isRecordTimings() {
+            return recordTimings;
+        }
+
+        public void setRecordTimings(boolean recordTimings) {
+            this.recordTimings = recordTimings;
+        }
+    }
+
+    /**
+     * 批量发送配置
+     */
+    public static class BatchProperties {
+        /**
+         * 每个批次最多同时在途的子请求数
+         */
+        private int parallelism = 8;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    /**
+     * 自适应并发限制配置：按渠道限制在途请求数，上限随厂商耗时自动调整
+     */
+    public static class ConcurrencyProperties {
+        /**
+         * 是否启用自适应并发限制
+         */
+        private boolean enabled = false;
+
+        /**
+         * 初始上限
+         */
+        private int initialLimit = 20;
+
+        /**
+         * 最小上限
+         */
+        private int minLimit = 4;
+
+        /**
+         * 最大上限
+         */
+        private int maxLimit = 500;
+
+        /**
+         * 耗时容忍倍数，短期耗时不超过基线的该倍数时不收缩上限
+         */
+        private double tolerance = 1.5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+    }
+
+    /**
+     * 熔断配置：按渠道统计厂商故障率，超过阈值后暂停调用该渠道
+     */
+    public static class CircuitBreakerProperties {
+        /**
+         * 是否启用熔断
+         */
+        private boolean enabled = false;
+
+        /**
+         * 滑动窗口大小（最近调用次数）
+         */
+        private int windowSize = 50;
+
+        /**
+         * 窗口内至少有多少次调用才计算失败率
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * 打开熔断的失败率阈值
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * 打开后等待多久进入半开（秒）
+         */
+        private long openDurationSeconds = 30;
+
+        /**
+         * 半开状态放行的探测请求数
+         */
+        private int halfOpenProbes = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getOpenDurationSeconds() {
+            return openDurationSeconds;
+        }
+
+        public void setOpenDurationSeconds(long openDurationSeconds) {
+            this.openDurationSeconds = openDurationSeconds;
+        }
+
+        public int getHalfOpenProbes() {
+            return halfOpenProbes;
+        }
+
+        public void setHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+        }
+    }
+
+    /**
+     * 重试预算配置：按渠道限制重试数占首次请求数的比例，厂商故障时避免重试放大流量
+     */
+    public static class RetryBudgetProperties {
+        /**
+         * 重试数相对首次请求数的上限
+         */
+        private double ratio = 0.1;
+
+        /**
+         * 每个窗口无论流量多少都允许的重试数
+         */
+        private int minRetries = 10;
+
+        /**
+         * 统计窗口（秒）
+         */
+        private long windowSeconds = 10;
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public int getMinRetries() {
+            return minRetries;
+        }
+
+        public void setMinRetries(int minRetries) {
+            this.minRetries = minRetries;
+        }
+
+        public long getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        public void setWindowSeconds(long windowSeconds) {
+            this.windowSeconds = windowSeconds;
+        }
+    }
+
+    /**
+     * Micrometer 指标配置：应用中存在 MeterRegistry 时自动注册发送指标
+     */
+    public static class MetricsProperties {
+        /**
+         * 是否启用发送指标
+         */
+        private boolean enabled = true;
+
+        /**
+         * 耗时指标是否发布分位直方图（用于在 Prometheus 等后端聚合计算 p95/p99）
+         */
+        private boolean percentileHistogram = true;
+
+        /**
+         * 是否记录单次发送的阶段耗时（校验、转换、序列化、签名、HTTP、解析），附带在 SmsResponse 上并发布为指标
+         */
+        private boolean stageTimings = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+
+        public boolean isStageTimings() {
+            return stageTimings;
+        }
+
+        public void setStageTimings(boolean stageTimings) {
+            this.stageTimings = stageTimings;
+        }
+    }
 }
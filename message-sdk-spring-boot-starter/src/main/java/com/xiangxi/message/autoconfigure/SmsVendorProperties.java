@@ -1,8 +1,14 @@
 package com.xiangxi.message.autoconfigure;
 
+import com.xiangxi.message.manager.RateLimitMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 短信厂商配置属性
  * 
@@ -28,6 +34,12 @@ public class SmsVendorProperties {
      */
     private String defaultVendor = "tencent";
 
+    /**
+     * 多厂商对冲请求配置
+     */
+    @NestedConfigurationProperty
+    private HedgingProperties hedging = new HedgingProperties();
+
     // Getters and Setters
     public TencentSmsProperties getTencent() {
         return tencent;
@@ -53,6 +65,14 @@ public class SmsVendorProperties {
         this.defaultVendor = defaultVendor;
     }
 
+    public HedgingProperties getHedging() {
+        return hedging;
+    }
+
+    public void setHedging(HedgingProperties hedging) {
+        this.hedging = hedging;
+    }
+
     /**
      * 腾讯云 SMS 配置
      */
@@ -63,6 +83,10 @@ public class SmsVendorProperties {
         private String region = "ap-beijing";
         private String signName;
         private boolean enabled = true;
+        @NestedConfigurationProperty
+        private RateLimitProperties rateLimit = new RateLimitProperties();
+        private Map<String, String> templates = new LinkedHashMap<>();
+        private Map<String, Map<String, String>> templateParams = new LinkedHashMap<>();
 
         // Getters and Setters
         public String getSecretId() { return secretId; }
@@ -77,6 +101,12 @@ public class SmsVendorProperties {
         public void setSignName(String signName) { this.signName = signName; }
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public RateLimitProperties getRateLimit() { return rateLimit; }
+        public void setRateLimit(RateLimitProperties rateLimit) { this.rateLimit = rateLimit; }
+        public Map<String, String> getTemplates() { return templates; }
+        public void setTemplates(Map<String, String> templates) { this.templates = templates; }
+        public Map<String, Map<String, String>> getTemplateParams() { return templateParams; }
+        public void setTemplateParams(Map<String, Map<String, String>> templateParams) { this.templateParams = templateParams; }
     }
 
     /**
@@ -88,6 +118,10 @@ public class SmsVendorProperties {
         private String signName;
         private String regionId = "cn-hangzhou";
         private boolean enabled = true;
+        @NestedConfigurationProperty
+        private RateLimitProperties rateLimit = new RateLimitProperties();
+        private Map<String, String> templates = new LinkedHashMap<>();
+        private Map<String, Map<String, String>> templateParams = new LinkedHashMap<>();
 
         // Getters and Setters
         public String getAccessKeyId() { return accessKeyId; }
@@ -100,5 +134,86 @@ public class SmsVendorProperties {
         public void setRegionId(String regionId) { this.regionId = regionId; }
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public RateLimitProperties getRateLimit() { return rateLimit; }
+        public void setRateLimit(RateLimitProperties rateLimit) { this.rateLimit = rateLimit; }
+        public Map<String, String> getTemplates() { return templates; }
+        public void setTemplates(Map<String, String> templates) { this.templates = templates; }
+        public Map<String, Map<String, String>> getTemplateParams() { return templateParams; }
+        public void setTemplateParams(Map<String, Map<String, String>> templateParams) { this.templateParams = templateParams; }
+    }
+
+    /**
+     * 厂商账号 QPS 限流配置，按渠道 + 账号（腾讯云 SdkAppId / 阿里云 AccessKeyId）分别计数
+     */
+    public static class RateLimitProperties {
+        /**
+         * 每秒允许的请求数，0 表示不限流
+         */
+        private double qps = 0;
+
+        /**
+         * 允许的瞬时突发请求数
+         */
+        private int burst = 1;
+
+        /**
+         * 令牌不足时的处理方式：blocking、async-wait 或 fail-fast
+         */
+        private RateLimitMode mode = RateLimitMode.BLOCKING;
+
+        /**
+         * 最长等待时间（毫秒），预计等待超过该值时直接拒绝
+         */
+        private long maxWaitMillis = 1000;
+
+        public double getQps() { return qps; }
+        public void setQps(double qps) { this.qps = qps; }
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+        public RateLimitMode getMode() { return mode; }
+        public void setMode(RateLimitMode mode) { this.mode = mode; }
+        public long getMaxWaitMillis() { return maxWaitMillis; }
+        public void setMaxWaitMillis(long maxWaitMillis) { this.maxWaitMillis = maxWaitMillis; }
+    }
+
+    /**
+     * 对冲请求配置：首选厂商超过分位耗时仍未返回时，向下一个厂商再发送一次，先成功者生效
+     */
+    public static class HedgingProperties {
+        /**
+         * 是否启用对冲，至少需要启用两个厂商
+         */
+        private boolean enabled = false;
+
+        /**
+         * 触发对冲的耗时分位
+         */
+        private double percentile = 0.95;
+
+        /**
+         * 最短对冲延迟（毫秒）
+         */
+        private long minDelayMillis = 10;
+
+        /**
+         * 对冲请求占请求总数的上限
+         */
+        private double budgetRatio = 0.05;
+
+        /**
+         * 启用对冲的业务模板ID，为空表示所有模板
+         */
+        private List<String> templates = new ArrayList<>();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+        public long getMinDelayMillis() { return minDelayMillis; }
+        public void setMinDelayMillis(long minDelayMillis) { this.minDelayMillis = minDelayMillis; }
+        public double getBudgetRatio() { return budgetRatio; }
+        public void setBudgetRatio(double budgetRatio) { this.budgetRatio = budgetRatio; }
+        public List<String> getTemplates() { return templates; }
+        public void setTemplates(List<String> templates) { this.templates = templates; }
     }
-}
\ No newline at end of file
+}
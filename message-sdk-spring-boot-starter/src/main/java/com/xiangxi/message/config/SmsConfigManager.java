@@ -1,11 +1,17 @@
 package com.xiangxi.message.config;
 
 import com.xiangxi.message.autoconfigure.SmsVendorProperties;
+import com.xiangxi.message.common.enums.SmsChannel;
+import com.xiangxi.message.sms.manager.HedgingPolicy;
+import com.xiangxi.message.sms.manager.SmsFailoverRouter;
+import com.xiangxi.message.sms.model.SmsRequest;
 import com.xiangxi.message.sms.tencent.TencentSmsConfig;
 import com.xiangxi.message.sms.aliyun.AliyunSmsConfig;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -80,6 +86,108 @@ public class SmsConfigManager {
         };
     }
 
+    /**
+     * 获取厂商对应的发送配置
+     *
+     * @param vendor 厂商（tencent/aliyun）
+     * @return 发送配置
+     */
+    public Object getSmsConfig(String vendor) {
+        return switch (vendor.toLowerCase()) {
+            case "tencent" -> getTencentSmsConfig();
+            case "aliyun" -> getAliyunSmsConfig();
+            default -> throw new IllegalArgumentException("不支持的厂商: " + vendor);
+        };
+    }
+
+    /**
+     * 获取厂商对应的渠道标识
+     *
+     * @param vendor 厂商（tencent/aliyun）
+     * @return 渠道标识，如 TENCENT_SMS
+     */
+    public String getChannel(String vendor) {
+        return switch (vendor.toLowerCase()) {
+            case "tencent" -> SmsChannel.TENCENT_SMS.getChannelName();
+            case "aliyun" -> SmsChannel.ALI_SMS.getChannelName();
+            default -> throw new IllegalArgumentException("不支持的厂商: " + vendor);
+        };
+    }
+
+    /**
+     * 将请求转换为指定厂商的形式：按 message.sms.&lt;vendor&gt;.templates 替换模板ID，
+     * 按 message.sms.&lt;vendor&gt;.template-params.&lt;业务模板ID&gt; 重命名模板参数
+     * （如腾讯云按位置传参的 "1"、"2" 与阿里云的具名参数 "code" 互相转换），未配置映射时原样返回
+     *
+     * @param vendor  厂商（tencent/aliyun）
+     * @param request 短信请求
+     * @return 该厂商使用的请求
+     */
+    public SmsRequest translate(String vendor, SmsRequest request) {
+        Map<String, String> templates;
+        Map<String, Map<String, String>> templateParams;
+        switch (vendor.toLowerCase()) {
+            case "tencent" -> {
+                templates = smsVendorProperties.getTencent().getTemplates();
+                templateParams = smsVendorProperties.getTencent().getTemplateParams();
+            }
+            case "aliyun" -> {
+                templates = smsVendorProperties.getAliyun().getTemplates();
+                templateParams = smsVendorProperties.getAliyun().getTemplateParams();
+            }
+            default -> {
+                return request;
+            }
+        }
+        SmsRequest translated = request;
+        Map<String, String> names = templateParams.get(request.templateId());
+        if (names != null && !names.isEmpty() && request.templateParams() != null) {
+            // 保持参数的原始顺序，只替换参数名
+            Map<String, String> params = new LinkedHashMap<>();
+            request.templateParams().forEach((name, value) -> params.put(names.getOrDefault(name, name), value));
+            translated = translated.withTemplateParams(params);
+        }
+        String templateId = templates.get(request.templateId());
+        return templateId == null ? translated : translated.withTemplateId(templateId);
+    }
+
+    /**
+     * 以所有启用的厂商构建多厂商路由器，默认厂商优先，其余按启用顺序；
+     * 启用 message.sms.hedging 时为配置的模板开启对冲
+     *
+     * @return 路由器
+     * @throws IllegalStateException 没有启用的厂商时抛出
+     */
+    public SmsFailoverRouter createFailoverRouter() {
+        String[] vendors = getEnabledVendors();
+        if (vendors.length == 0) {
+            throw new IllegalStateException("没有启用的短信厂商，请检查配置");
+        }
+        String defaultVendor = smsVendorProperties.getDefaultVendor();
+        SmsFailoverRouter.Builder builder = SmsFailoverRouter.builder();
+        for (String vendor : vendors) {
+            if (vendor.equalsIgnoreCase(defaultVendor)) {
+                builder.route(getChannel(vendor), getSmsConfig(vendor), request -> translate(vendor, request));
+            }
+        }
+        for (String vendor : vendors) {
+            if (!vendor.equalsIgnoreCase(defaultVendor)) {
+                builder.route(getChannel(vendor), getSmsConfig(vendor), request -> translate(vendor, request));
+            }
+        }
+        SmsVendorProperties.HedgingProperties hedging = smsVendorProperties.getHedging();
+        if (hedging.isEnabled()) {
+            HedgingPolicy policy = new HedgingPolicy(hedging.getPercentile(),
+                    Duration.ofMillis(hedging.getMinDelayMillis()), hedging.getBudgetRatio());
+            if (hedging.getTemplates().isEmpty()) {
+                builder.hedging(policy);
+            } else {
+                hedging.getTemplates().forEach(templateId -> builder.hedging(templateId, policy));
+            }
+        }
+        return builder.build();
+    }
+
     /**
      * 检查厂商是否启用
      */
@@ -0,0 +1,300 @@
+package com.xiangxi.message.metrics;
+
+import com.xiangxi.message.client.HttpObserver;
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.model.HttpTimings;
+import com.xiangxi.message.common.model.MessageResponse;
+import com.xiangxi.message.common.model.MessageSendResult;
+import com.xiangxi.message.manager.AdaptiveConcurrencyLimiter;
+import com.xiangxi.message.manager.SendContext;
+import com.xiangxi.message.manager.SendObserver;
+import com.xiangxi.message.sms.model.SendStage;
+import com.xiangxi.message.sms.model.SmsBulkRequest;
+import com.xiangxi.message.sms.model.SmsRequest;
+import com.xiangxi.message.sms.model.SmsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Message SDK 的 Micrometer 指标
+ *
+ * <p>作为 {@link SendObserver} 注册到 MessageSenderManager、作为 {@link HttpObserver} 注册到共享连接注册表，记录：</p>
+ * <ul>
+ *   <li>{@value #SEND}：每次渠道调用的耗时（含发送保护等待），标签 type、channel、templateId、outcome、errorCode；</li>
+ *   <li>{@value #VENDOR}：渠道实现测得的厂商调用耗时（{@link SmsResponse#getResponseTime()}），标签 type、channel；</li>
+ *   <li>{@value #STAGE}：单次发送各阶段耗时（{@link SmsResponse#getStageNanos(SendStage)}），标签 type、channel、
+ *   stage（validate、adapt、serialize、sign、http、parse）；</li>
+ *   <li>{@value #RECIPIENTS}：按接收人计数的发送结果，标签 type、channel、templateId、result、errorCode；</li>
+ *   <li>{@value #IN_FLIGHT}：在途调用数，标签 type、channel；</li>
+ *   <li>{@value #CONCURRENCY_LIMIT}：启用自适应并发限制时各渠道的当前上限，标签 type、channel；</li>
+ *   <li>{@value #HTTP_RESPONSES}：HTTP 调用按主机与状态码计数，未收到响应时 status 为 IO_ERROR；</li>
+ *   <li>{@value #HTTP_PHASE}：网络阶段耗时，标签 host、phase（dns、connect、tls、write、ttfb），未发生的阶段不记录；</li>
+ *   <li>{@value #HTTP_CONNECTIONS}：按主机统计调用使用复用连接（reused=true）还是新建连接。</li>
+ * </ul>
+ *
+ * <p>templateId 与 errorCode 的取值由业务模板与厂商错误码决定，数量有限；outcome 为 SUCCESS、PARTIAL_SUCCESS、
+ * FAILED（渠道返回失败或抛出异常）或 CANCELLED。</p>
+ *
+ * @author 初心
+ */
+public class MessageSdkMetrics implements SendObserver, HttpObserver {
+
+    public static final String SEND = "message.sdk.send";
+    public static final String VENDOR = "message.sdk.vendor";
+    public static final String STAGE = "message.sdk.stage";
+    public static final String RECIPIENTS = "message.sdk.recipients";
+    public static final String IN_FLIGHT = "message.sdk.in.flight";
+    public static final String CONCURRENCY_LIMIT = "message.sdk.concurrency.limit";
+    public static final String HTTP_RESPONSES = "message.sdk.http.responses";
+    public static final String HTTP_PHASE = "message.sdk.http.phase";
+    public static final String HTTP_CONNECTIONS = "message.sdk.http.connections";
+
+    private static final String NONE = "none";
+    private static final SendStage[] STAGES = SendStage.values();
+
+    private final MeterRegistry registry;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean percentileHistogram;
+
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<SendKey, Timer> sendTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> vendorTimers = new ConcurrentHashMap<>();
+    private final Map<StageKey, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<RecipientKey, Counter> recipientCounters = new ConcurrentHashMap<>();
+    private final Map<HttpKey, Counter> httpCounters = new ConcurrentHashMap<>();
+    private final Map<PhaseKey, Timer> phaseTimers = new ConcurrentHashMap<>();
+    private final Map<ConnectionKey, Counter> connectionCounters = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry            指标注册表
+     * @param limiter             自适应并发限制器，未启用时为 null
+     * @param percentileHistogram 耗时指标是否发布分位直方图
+     */
+    public MessageSdkMetrics(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter, boolean percentileHistogram) {
+        this.registry = registry;
+        this.limiter = limiter;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    @Override
+    public void onStart(SendContext context, Object message) {
+        inFlight(context).incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(SendContext context, Object message, Object result, Throwable error, long latencyNanos) {
+        inFlight(context).decrementAndGet();
+        String templateId = templateIdOf(message);
+        String outcome;
+        String errorCode;
+        if (error != null) {
+            outcome = error instanceof CancellationException ? "CANCELLED" : "FAILED";
+            errorCode = errorCodeOf(error);
+            int recipients = recipientCountOf(message);
+            if (recipients > 0) {
+                recipientCounter(new RecipientKey(context.type(), context.channel(), templateId, false, errorCode))
+                        .increment(recipients);
+            }
+        } else if (result instanceof MessageResponse response) {
+            outcome = response.getCode() == null ? NONE : response.getCode();
+            errorCode = recordRecipients(context, templateId, response.getResults());
+            if (response instanceof SmsResponse sms && sms.getResponseTime() != null) {
+                vendorTimer(context).record(sms.getResponseTime());
+            }
+            if (response instanceof SmsResponse sms && sms.hasStageTimings()) {
+                recordStages(context, sms);
+            }
+        } else {
+            outcome = "SUCCESS";
+            errorCode = NONE;
+        }
+        sendTimer(new SendKey(context.type(), context.channel(), templateId, outcome, errorCode))
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onExchange(String host, int statusCode, long latencyNanos) {
+        httpCounters.computeIfAbsent(new HttpKey(host, statusCode), key -> Counter.builder(HTTP_RESPONSES)
+                .tag("host", key.host())
+                .tag("status", key.status() == 0 ? "IO_ERROR" : String.valueOf(key.status()))
+                .register(registry)).increment();
+    }
+
+    @Override
+    public void onTimings(HttpTimings timings) {
+        String host = timings.host();
+        recordPhase(host, "dns", timings.dnsNanos());
+        recordPhase(host, "connect", timings.connectNanos());
+        recordPhase(host, "tls", timings.tlsNanos());
+        recordPhase(host, "write", timings.requestWriteNanos());
+        recordPhase(host, "ttfb", timings.timeToFirstByteNanos());
+        connectionCounters.computeIfAbsent(new ConnectionKey(host, timings.connectionReused()),
+                key -> Counter.builder(HTTP_CONNECTIONS)
+                        .tag("host", key.host())
+                        .tag("reused", String.valueOf(key.reused()))
+                        .register(registry)).increment();
+    }
+
+    private void recordPhase(String host, String phase, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        phaseTimers.computeIfAbsent(new PhaseKey(host, phase), key -> Timer.builder(HTTP_PHASE)
+                .tag("host", key.host())
+                .tag("phase", key.phase())
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordStages(SendContext context, SmsResponse response) {
+        for (SendStage stage : STAGES) {
+            stageTimers.computeIfAbsent(new StageKey(context.routeKey(), stage), key -> Timer.builder(STAGE)
+                    .tag("type", context.type())
+                    .tag("channel", context.channel())
+                    .tag("stage", key.stage().getStageName())
+                    .publishPercentileHistogram(percentileHistogram)
+                    .register(registry)).record(response.getStageNanos(stage), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 按错误码汇总后计数，避免大批量响应逐个接收人查找计数器
+     *
+     * @return 首个失败接收人的错误码，全部成功时为 none
+     */
+    private String recordRecipients(SendContext context, String templateId, List<MessageSendResult> results) {
+        if (results == null || results.isEmpty()) {
+            return NONE;
+        }
+        int succeeded = 0;
+        String firstError = null;
+        Map<String, Integer> failed = new HashMap<>();
+        for (MessageSendResult r : results) {
+            if (r.isSuccess()) {
+                succeeded++;
+            } else {
+                String code = r.getErrorCode() == null ? NONE : r.getErrorCode();
+                failed.merge(code, 1, Integer::sum);
+                if (firstError == null) {
+                    firstError = code;
+                }
+            }
+        }
+        if (succeeded > 0) {
+            recipientCounter(new RecipientKey(context.type(), context.channel(), templateId, true, NONE))
+                    .increment(succeeded);
+        }
+        failed.forEach((code, count) ->
+                recipientCounter(new RecipientKey(context.type(), context.channel(), templateId, false, code))
+                        .increment(count));
+        return firstError == null ? NONE : firstError;
+    }
+
+    private AtomicInteger inFlight(SendContext context) {
+        AtomicInteger counter = inFlight.get(context.routeKey());
+        if (counter != null) {
+            return counter;
+        }
+        return inFlight.computeIfAbsent(context.routeKey(), routeKey -> {
+            AtomicInteger created = new AtomicInteger();
+            Gauge.builder(IN_FLIGHT, created, AtomicInteger::get)
+                    .tag("type", context.type())
+                    .tag("channel", context.channel())
+                    .register(registry);
+            if (limiter != null) {
+                Gauge.builder(CONCURRENCY_LIMIT, limiter, l -> l.getLimit(routeKey))
+                        .tag("type", context.type())
+                        .tag("channel", context.channel())
+                        .register(registry);
+            }
+            return created;
+        });
+    }
+
+    private Timer sendTimer(SendKey key) {
+        return sendTimers.computeIfAbsent(key, k -> Timer.builder(SEND)
+                .tag("type", k.type())
+                .tag("channel", k.channel())
+                .tag("templateId", k.templateId())
+                .tag("outcome", k.outcome())
+                .tag("errorCode", k.errorCode())
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry));
+    }
+
+    private Timer vendorTimer(SendContext context) {
+        return vendorTimers.computeIfAbsent(context.routeKey(), k -> Timer.builder(VENDOR)
+                .tag("type", context.type())
+                .tag("channel", context.channel())
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry));
+    }
+
+    private Counter recipientCounter(RecipientKey key) {
+        return recipientCounters.computeIfAbsent(key, k -> Counter.builder(RECIPIENTS)
+                .tag("type", k.type())
+                .tag("channel", k.channel())
+                .tag("templateId", k.templateId())
+                .tag("result", k.success() ? "success" : "failure")
+                .tag("errorCode", k.errorCode())
+                .register(registry));
+    }
+
+    private static String templateIdOf(Object message) {
+        String templateId = null;
+        if (message instanceof SmsRequest request) {
+            templateId = request.templateId();
+        } else if (message instanceof SmsBulkRequest request) {
+            templateId = request.templateId();
+        }
+        return templateId == null ? NONE : templateId;
+    }
+
+    private static int recipientCountOf(Object message) {
+        if (message instanceof SmsRequest request) {
+            return request.getRecipientCount();
+        }
+        if (message instanceof SmsBulkRequest request) {
+            return request.getRecipientCount();
+        }
+        return 0;
+    }
+
+    private static String errorCodeOf(Throwable error) {
+        if (error instanceof CancellationException) {
+            return "CANCELLED";
+        }
+        if (error instanceof MessageSendException e && e.hasErrorCode()) {
+            return e.getErrorCode();
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    private record SendKey(String type, String channel, String templateId, String outcome, String errorCode) {
+    }
+
+    private record RecipientKey(String type, String channel, String templateId, boolean success, String errorCode) {
+    }
+
+    private record HttpKey(String host, int status) {
+    }
+
+    private record StageKey(String routeKey, SendStage stage) {
+    }
+
+    private record PhaseKey(String host, String phase) {
+    }
+
+    private record ConnectionKey(String host, boolean reused) {
+    }
+}
@@ -5,11 +5,17 @@ import com.xiangxi.message.common.enums.SmsChannel;
 import com.xiangxi.message.common.model.MessageResponse;
 import com.xiangxi.message.common.exception.MessageSendException;
 import com.xiangxi.message.config.SmsConfigManager;
+import com.xiangxi.message.manager.CircuitBreaker;
+import com.xiangxi.message.manager.CircuitState;
 import com.xiangxi.message.manager.MessageSenderManager;
-import com.xiangxi.message.sms.tencent.TencentSmsConfig;
-import com.xiangxi.message.sms.tencent.TencentSmsMessage;
+import com.xiangxi.message.manager.SendGuard;
+import com.xiangxi.message.sms.manager.SmsFailoverRouter;
+import com.xiangxi.message.sms.model.SmsRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Message SDK 核心服务类
  * 提供简单易用的消息发送接口
@@ -20,11 +26,15 @@ import org.springframework.stereotype.Service;
 public class MessageSdkService {
 
     private final SmsConfigManager smsConfigManager;
+
+    private volatile SmsFailoverRouter failoverRouter;
     
     // 常量定义
-    private static final String SMS_TYPE = MessageType.SMS.getTypeName().toLowerCase();
+    private static final String SMS_ROUTE_TYPE = MessageType.SMS.getTypeName();
     private static final String TENCENT_CHANNEL = SmsChannel.TENCENT_SMS.getChannelName().toLowerCase();
     private static final String ALIYUN_CHANNEL = SmsChannel.ALI_SMS.getChannelName().toLowerCase();
+    private static final String TENCENT_VENDOR = "tencent";
+    private static final String ALIYUN_VENDOR = "aliyun";
 
     public MessageSdkService(SmsConfigManager smsConfigManager) {
         this.smsConfigManager = smsConfigManager;
@@ -49,13 +59,30 @@ public class MessageSdkService {
         if (vendor == null) {
             return false;
         }
+        return vendorKey(vendor) != null;
+    }
+
+    /**
+     * 将厂商名称或渠道名称解析为配置中的厂商键（tencent/aliyun）
+     */
+    private static String vendorKey(String vendor) {
         String lowerVendor = vendor.toLowerCase();
-        return TENCENT_CHANNEL.contains(lowerVendor) || ALIYUN_CHANNEL.contains(lowerVendor);
+        if (TENCENT_VENDOR.equals(lowerVendor) || TENCENT_CHANNEL.contains(lowerVendor)) {
+            return TENCENT_VENDOR;
+        }
+        if (ALIYUN_VENDOR.equals(lowerVendor) || ALIYUN_CHANNEL.contains(lowerVendor)) {
+            return ALIYUN_VENDOR;
+        }
+        return null;
     }
 
     /**
-     * 发送短信（使用默认配置）
-     * 
+     * 发送短信（多厂商自动选择）
+     * <p>
+     * 在所有启用的厂商中按耗时与故障率选择，厂商不可用或限流时自动转移到下一个厂商，见 {@link SmsFailoverRouter}。
+     * 模板参数按顺序以 "1"、"2"… 为参数名传递。
+     * </p>
+     *
      * @param phoneNumber 手机号
      * @param templateId 模板ID
      * @param templateParams 模板参数
@@ -63,12 +90,20 @@ public class MessageSdkService {
      * @throws com.xiangxi.message.common.exception.MessageSendException 发送失败
      */
     public MessageResponse sendSms(String phoneNumber, String templateId, String[] templateParams) throws MessageSendException {
-        String[] enabledVendors = smsConfigManager.getEnabledVendors();
-        if (enabledVendors.length == 0) {
-            throw new IllegalStateException("没有启用的短信厂商，请检查配置");
-        }
-        String defaultVendor = enabledVendors[0]; // 使用第一个启用的厂商
-        return sendSms(defaultVendor, phoneNumber, templateId, templateParams);
+        return sendSms(phoneNumber, templateId, toParamMap(templateParams));
+    }
+
+    /**
+     * 发送短信（多厂商自动选择）
+     *
+     * @param phoneNumber 手机号
+     * @param templateId 模板ID，可通过 message.sms.&lt;vendor&gt;.templates 映射为各厂商的模板ID
+     * @param templateParams 模板参数
+     * @return 发送结果
+     * @throws com.xiangxi.message.common.exception.MessageSendException 发送失败
+     */
+    public MessageResponse sendSms(String phoneNumber, String templateId, Map<String, String> templateParams) throws MessageSendException {
+        return getFailoverRouter().send(SmsRequest.of(phoneNumber, templateId, templateParams));
     }
 
     /**
@@ -85,13 +120,14 @@ public class MessageSdkService {
         if (!isVendorSupported(vendor)) {
             throw new IllegalArgumentException("Unsupported vendor: " + vendor + ". Supported vendors: " + String.join(", ", getSupportedVendors()));
         }
-        if (TENCENT_CHANNEL.contains(vendor.toLowerCase())) {
-            return sendTencentSms(phoneNumber, templateId, templateParams);
-        } else if (ALIYUN_CHANNEL.contains(vendor.toLowerCase())) {
-            throw new UnsupportedOperationException("阿里云短信暂未实现");
+        String key = vendorKey(vendor);
+        if (!smsConfigManager.isVendorEnabled(key)) {
+            throw new IllegalStateException("短信厂商未启用，请在配置中启用: " + key);
         }
-        
-        throw new IllegalStateException("Unexpected vendor: " + vendor);
+        SmsRequest request = smsConfigManager.translate(key,
+                SmsRequest.of(phoneNumber, templateId, toParamMap(templateParams)));
+        return MessageSenderManager.send(SMS_ROUTE_TYPE, smsConfigManager.getChannel(key),
+                smsConfigManager.getSmsConfig(key), request);
     }
 
     /**
@@ -104,16 +140,50 @@ public class MessageSdkService {
      * @throws com.xiangxi.message.common.exception.MessageSendException 发送失败
      */
     public MessageResponse sendTencentSms(String phoneNumber, String templateId, String[] templateParams) throws MessageSendException {
-        if (!smsConfigManager.isVendorEnabled(TENCENT_CHANNEL)) {
-            throw new IllegalStateException("腾讯云 SMS 未启用，请在配置中启用");
+        return sendSms(TENCENT_VENDOR, phoneNumber, templateId, templateParams);
+    }
+
+    /**
+     * 获取多厂商路由器，首次调用时以所有启用的厂商构建
+     *
+     * @return 路由器
+     */
+    public SmsFailoverRouter getFailoverRouter() {
+        SmsFailoverRouter router = failoverRouter;
+        if (router == null) {
+            synchronized (this) {
+                router = failoverRouter;
+                if (router == null) {
+                    router = smsConfigManager.createFailoverRouter();
+                    failoverRouter = router;
+                }
+            }
+        }
+        return router;
+    }
+
+    private static Map<String, String> toParamMap(String[] templateParams) {
+        if (templateParams == null || templateParams.length == 0) {
+            return null;
+        }
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < templateParams.length; i++) {
+            params.put(String.valueOf(i + 1), templateParams[i]);
+        }
+        return params;
+    }
+
+    /**
+     * 获取各渠道的熔断状态
+     *
+     * @return routeKey 到熔断状态的快照；未启用熔断时为空
+     */
+    public Map<String, CircuitState> getCircuitStates() {
+        for (SendGuard guard : MessageSenderManager.getGuards()) {
+            if (guard instanceof CircuitBreaker breaker) {
+                return breaker.getStates();
+            }
         }
-        TencentSmsConfig config = smsConfigManager.getTencentSmsConfig();
-        TencentSmsMessage message = TencentSmsMessage.builder()
-                .addPhone(phoneNumber)
-                .templateId(templateId)
-                .addParams(templateParams)
-                .build();
-
-        return MessageSenderManager.send(SMS_TYPE, TENCENT_CHANNEL, config, message);
+        return Map.of();
     }
 }
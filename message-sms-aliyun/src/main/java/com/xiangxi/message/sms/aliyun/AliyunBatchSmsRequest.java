@@ -0,0 +1,54 @@
+package com.xiangxi.message.sms.aliyun;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 阿里云 SendBatchSms 请求：同一模板，每个号码可使用各自的签名与模板参数
+ *
+ * <pre>{@code
+ * AliyunBatchSmsRequest request = new AliyunBatchSmsRequest.Builder()
+ *     .templateCode("SMS_123456")
+ *     .add("13800138000", Map.of("name", "张三"))
+ *     .add("13800138001", "其他签名", Map.of("name", "李四"))
+ *     .build();
+ * }</pre>
+ */
+public class AliyunBatchSmsRequest {
+    private final String templateCode;
+    private final List<Entry> entries;
+
+    private AliyunBatchSmsRequest(Builder b) {
+        this.templateCode = b.templateCode;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(b.entries));
+    }
+
+    public String getTemplateCode() { return templateCode; }
+    public List<Entry> getEntries() { return entries; }
+
+    /**
+     * 单个接收人
+     *
+     * @param phoneNumber    手机号
+     * @param signName       签名，为 null 时使用配置中的签名
+     * @param templateParams 模板参数，可为 null
+     */
+    public record Entry(String phoneNumber, String signName, Map<String, String> templateParams) {
+    }
+
+    public static class Builder {
+        private String templateCode;
+        private final List<Entry> entries = new ArrayList<>();
+        public Builder templateCode(String v){ this.templateCode=v; return this; }
+        public Builder add(String phoneNumber, Map<String, String> templateParams){ return add(phoneNumber, null, templateParams); }
+        public Builder add(String phoneNumber, String signName, Map<String, String> templateParams){ entries.add(new Entry(phoneNumber, signName, templateParams)); return this; }
+        public Builder entries(List<Entry> v){ entries.addAll(v); return this; }
+        public AliyunBatchSmsRequest build(){
+            if (templateCode == null || templateCode.isBlank()) throw new IllegalStateException("模板CODE不能为空");
+            if (entries.isEmpty()) throw new IllegalStateException("接收人列表不能为空");
+            return new AliyunBatchSmsRequest(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.xiangxi.message.sms.aliyun;
+
+/**
+ * 阿里云短信 API 常量
+ *
+ * @author 初心
+ */
+public class AliyunConstant {
+    public static final String HOST = "dysmsapi.aliyuncs.com";
+    public static final String ENDPOINT = "https://" + HOST;
+    public static final String VERSION = "2017-05-25";
+    public static final String ACTION_SEND_SMS = "SendSms";
+    public static final String ACTION_SEND_BATCH_SMS = "SendBatchSms";
+    /** SendSms 单次请求最多支持的手机号数量（逗号分隔） */
+    public static final int MAX_PHONE_COUNT = 1000;
+    /** SendBatchSms 单次请求最多支持的手机号数量 */
+    public static final int MAX_BATCH_PHONE_COUNT = 100;
+}
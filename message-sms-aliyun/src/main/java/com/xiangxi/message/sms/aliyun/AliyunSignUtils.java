@@ -1,10 +1,9 @@
 package com.xiangxi.message.sms.aliyun;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import com.xiangxi.message.common.util.CryptoUtils;
+
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.ZoneOffset;
@@ -32,9 +31,8 @@ final class AliyunSignUtils {
     static String sign(String httpMethod, Map<String, String> params, String accessKeySecret) throws Exception {
         String canonicalized = canonicalize(params);
         String stringToSign = httpMethod.toUpperCase(Locale.ROOT) + "&" + percentEncode("/") + "&" + percentEncode(canonicalized);
-        Mac mac = Mac.getInstance("HmacSHA1");
-        mac.init(new SecretKeySpec((accessKeySecret + "&").getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
-        byte[] signData = mac.doFinal(stringToSign.getBytes(StandardCharsets.UTF_8));
+        byte[] signData = CryptoUtils.hmacSha1((accessKeySecret + "&").getBytes(StandardCharsets.UTF_8),
+                stringToSign.getBytes(StandardCharsets.UTF_8));
         return Base64.getEncoder().encodeToString(signData);
     }
 
@@ -66,12 +64,8 @@ final class AliyunSignUtils {
     // ================= ACS V3（ROA风格）签名 =================
     static String nowBasicUtc() { return BASIC_ISO8601.format(Instant.now()); }
 
-    static String sha256Hex(byte[] data) throws Exception {
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        byte[] digest = md.digest(data);
-        StringBuilder sb = new StringBuilder();
-        for (byte b : digest) sb.append(String.format("%02x", b));
-        return sb.toString();
+    static String sha256Hex(byte[] data) {
+        return CryptoUtils.sha256Hex(data);
     }
 
     static String canonicalRequest(String method, String uri, String query, SortedMap<String,String> headers, String payloadSha256) {
@@ -82,22 +76,21 @@ final class AliyunSignUtils {
         return method.toUpperCase(Locale.ROOT) + "\n" + uri + "\n" + (query==null?"":query) + "\n" + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadSha256;
     }
 
-    static String stringToSign(String canonicalRequest) throws Exception {
-        String hash = sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
-        return "ACS3-HMAC-SHA256\n" + hash;
+    static String stringToSign(String canonicalRequest) {
+        StringBuilder sb = new StringBuilder(81).append("ACS3-HMAC-SHA256\n");
+        return CryptoUtils.appendHex(sb, CryptoUtils.sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8))).toString();
     }
 
-    static String signV3(String stringToSign, String accessKeySecret) throws Exception {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        mac.init(new SecretKeySpec(accessKeySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-        byte[] signData = mac.doFinal(stringToSign.getBytes(StandardCharsets.UTF_8));
-        StringBuilder sb = new StringBuilder();
-        for (byte b : signData) sb.append(String.format("%02x", b));
-        return sb.toString();
+    static String signV3(String stringToSign, String accessKeySecret) {
+        return CryptoUtils.hmacSha256Hex(accessKeySecret.getBytes(StandardCharsets.UTF_8), stringToSign);
+    }
+
+    static Map<String,String> buildV3Headers(String accessKeyId, String accessKeySecret, String method, String host, String uri, String query, byte[] body, Map<String,String> extra) {
+        return buildV3Headers(accessKeyId, accessKeySecret, method, host, uri, query, sha256Hex(body==null? new byte[0]: body), extra);
     }
 
-    static Map<String,String> buildV3Headers(String accessKeyId, String accessKeySecret, String method, String host, String uri, String query, byte[] body, Map<String,String> extra) throws Exception {
-        String bodySha256 = sha256Hex(body==null? new byte[0]: body);
+    /** 使用预先计算的请求体摘要（见 JsonPayload）构建 V3 签名请求头，避免再次编码与摘要请求体 */
+    static Map<String,String> buildV3Headers(String accessKeyId, String accessKeySecret, String method, String host, String uri, String query, String bodySha256, Map<String,String> extra) {
         SortedMap<String,String> headers = new TreeMap<>();
         headers.put("host", host);
         headers.put("content-type", "application/json; charset=utf-8");
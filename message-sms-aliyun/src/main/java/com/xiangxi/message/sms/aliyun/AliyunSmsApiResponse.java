@@ -2,15 +2,15 @@ package com.xiangxi.message.sms.aliyun;
 
 import com.google.gson.annotations.SerializedName;
 
-/** 阿里云短信 API 响应（简化） */
+/** 阿里云短信 API 响应（SendSms / SendBatchSms 共用） */
 public class AliyunSmsApiResponse {
     @SerializedName("Message") private String message;
     @SerializedName("RequestId") private String requestId;
     @SerializedName("Code") private String code; // OK 或 错误码
+    @SerializedName("BizId") private String bizId; // 发送回执ID，同一请求的所有号码共用
 
     public String getMessage() { return message; }
     public String getRequestId() { return requestId; }
     public String getCode() { return code; }
+    public String getBizId() { return bizId; }
 }
-
-
@@ -0,0 +1,29 @@
+package com.xiangxi.message.sms.aliyun;
+
+import com.google.gson.annotations.SerializedName;
+
+/** 阿里云 SendBatchSms 请求体：号码、签名、模板参数均为 JSON 数组字符串，按下标一一对应 */
+public class AliyunSmsBatchApiRequest {
+    @SerializedName("PhoneNumberJson")
+    private String phoneNumberJson;
+    @SerializedName("SignNameJson")
+    private String signNameJson;
+    @SerializedName("TemplateCode")
+    private String templateCode;
+    @SerializedName("TemplateParamJson")
+    private String templateParamJson;
+
+    public String getPhoneNumberJson() { return phoneNumberJson; }
+    public String getSignNameJson() { return signNameJson; }
+    public String getTemplateCode() { return templateCode; }
+    public String getTemplateParamJson() { return templateParamJson; }
+
+    public static class Builder {
+        private final AliyunSmsBatchApiRequest r = new AliyunSmsBatchApiRequest();
+        public Builder phoneNumberJson(String json){ r.phoneNumberJson=json; return this; }
+        public Builder signNameJson(String json){ r.signNameJson=json; return this; }
+        public Builder templateCode(String v){ r.templateCode=v; return this; }
+        public Builder templateParamJson(String json){ r.templateParamJson=json; return this; }
+        public AliyunSmsBatchApiRequest build(){ return r; }
+    }
+}
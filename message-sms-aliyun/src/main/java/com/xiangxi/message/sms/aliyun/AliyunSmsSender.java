@@ -3,99 +3,327 @@ package com.xiangxi.message.sms.aliyun;
 import com.google.gson.Gson;
 import com.xiangxi.message.client.ClientException;
 import com.xiangxi.message.client.HttpClient;
+import com.xiangxi.message.client.HttpConnectionRegistry;
 import com.xiangxi.message.client.HttpRequest;
-import com.xiangxi.message.client.ResponseParse;
+import com.xiangxi.message.client.StreamingResponseParse;
 import com.xiangxi.message.client.enums.HttpContentType;
 import com.xiangxi.message.client.enums.HttpMethod;
 import com.xiangxi.message.common.enums.MessageType;
 import com.xiangxi.message.common.enums.MessageCode;
 import com.xiangxi.message.common.enums.SmsChannel;
 import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.exception.SendErrorCodes;
+import com.xiangxi.message.common.model.MessageSendResult;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.common.util.JsonPayload;
+import com.xiangxi.message.common.util.MessageValidator;
+import com.xiangxi.message.common.util.RetryBudget;
 import com.xiangxi.message.common.validation.ValidationException;
 import com.xiangxi.message.common.validation.Validator;
 import com.xiangxi.message.sms.ISmsSender;
+import com.xiangxi.message.sms.SendStageTimer;
+import com.xiangxi.message.sms.SmsBatchExecutor;
+import com.xiangxi.message.sms.model.SendStage;
+import com.xiangxi.message.sms.model.SmsBulkRequest;
 import com.xiangxi.message.sms.model.SmsRequest;
 import com.xiangxi.message.sms.model.SmsResponse;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /** 阿里云短信发送器（对齐腾讯结构，HTTP直连签名版简化） */
 public class AliyunSmsSender implements ISmsSender<AliyunSmsConfig> {
 
     private final HttpClient httpClient;
     private static final Gson GSON = new Gson();
+    /**
+     * 流式解析：Gson JsonReader 直接读取响应体，不先整体读入字符串。
+     * 厂商内部错误（isp.*）与限流（Throttling.*、isv.BUSINESS_LIMIT_CONTROL）以携带阿里云错误码的
+     * {@link ClientException} 抛出，由 HTTP 重试、熔断与故障转移按错误码处理；模板、签名、号码等请求本身的错误仍作为失败响应返回
+     */
+    private static final StreamingResponseParse<AliyunSmsApiResponse> RESPONSE_PARSER = reader -> {
+        AliyunSmsApiResponse response = GSON.fromJson(reader, AliyunSmsApiResponse.class);
+        if (response != null && isVendorError(response.getCode())) {
+            throw new ClientException(response.getMessage(), response.getRequestId(), response.getCode());
+        }
+        return response;
+    };
 
     public AliyunSmsSender() {
         this.httpClient = new HttpClient.Builder()
+                .sharedHost(AliyunConstant.HOST)
                 .connectTimeout(60)
                 .readTimeout(60)
                 .defaultHeader("Content-Type", HttpContentType.JSON.value())
+                .retryBudgetKey(routeKey())
                 .build();
     }
 
     @Override public String type() { return MessageType.SMS.getTypeName(); }
     @Override public String channel() { return SmsChannel.ALI_SMS.getChannelName(); }
 
+    @Override
+    public String accountKey(AliyunSmsConfig config) { return config.getAccessKeyId(); }
+
+    @Override
+    public int maxRecipientsPerRequest() { return AliyunConstant.MAX_PHONE_COUNT; }
+
     @Override
     public SmsResponse send(AliyunSmsConfig config, SmsRequest message) throws MessageSendException {
+        long startTime = System.nanoTime();
+        SendStageTimer timer = SendStageTimer.start();
+        try {
+            HttpRequest request = prepareHttpRequest(config, message, timer);
+            AliyunSmsApiResponse apiResponse = httpClient.doRequest(request, responseParser(timer));
+            return convertToSmsResponse(apiResponse, message.phoneNumbers(), startTime, request, timer.stageNanos());
+        } catch (Exception e) {
+            throw toSendException(e);
+        }
+    }
+
+    /**
+     * 异步发送短信：签名在调用线程完成，HTTP 调用通过 OkHttp {@code Call.enqueue} 执行。
+     */
+    @Override
+    public CompletableFuture<SmsResponse> sendAsync(AliyunSmsConfig config, SmsRequest message) {
+        long startTime = System.nanoTime();
+        SendStageTimer timer = SendStageTimer.start();
+        HttpRequest request;
+        try {
+            request = prepareHttpRequest(config, message, timer);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(toSendException(e));
+        }
+        return FutureUtils.transform(
+                httpClient.doRequestAsync(request, responseParser(timer)),
+                apiResponse -> convertToSmsResponse(apiResponse, message.phoneNumbers(), startTime, request,
+                        timer.stageNanos()),
+                this::toSendException);
+    }
+
+    /**
+     * 通过 SendBatchSms 发送：每个号码使用各自的签名与模板参数，阻塞等待所有子请求完成。
+     * 超过 {@link AliyunConstant#MAX_BATCH_PHONE_COUNT} 个号码时自动切分，最多 parallelism 个子请求同时在途。
+     */
+    public SmsResponse sendBatchSms(AliyunSmsConfig config, AliyunBatchSmsRequest message, int parallelism) throws MessageSendException {
+        CompletableFuture<SmsResponse> future = sendBatchSmsAsync(config, message, parallelism);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MessageSendException("Batch send interrupted", e, "INTERRUPTED", type(), channel());
+        } catch (Exception e) {
+            throw toSendException(FutureUtils.unwrap(e));
+        }
+    }
+
+    /**
+     * 异步 SendBatchSms；合并后的响应按原始顺序包含每个号码的结果，子请求失败体现在对应号码的结果中。
+     */
+    public CompletableFuture<SmsResponse> sendBatchSmsAsync(AliyunSmsConfig config, AliyunBatchSmsRequest message, int parallelism) {
+        List<AliyunBatchSmsRequest.Entry> entries = message.getEntries();
+        List<List<AliyunBatchSmsRequest.Entry>> chunks = new ArrayList<>();
+        for (int from = 0; from < entries.size(); from += AliyunConstant.MAX_BATCH_PHONE_COUNT) {
+            chunks.add(entries.subList(from, Math.min(from + AliyunConstant.MAX_BATCH_PHONE_COUNT, entries.size())));
+        }
+        return SmsBatchExecutor.execute(chunks, parallelism,
+                chunk -> sendBatchChunkAsync(config, message.getTemplateCode(), chunk),
+                AliyunSmsSender::phonesOf, channel());
+    }
+
+    /**
+     * 个性化批量短信映射为 SendBatchSms：按接收人原始顺序每 {@link AliyunConstant#MAX_BATCH_PHONE_COUNT} 个号码切分
+     */
+    @Override
+    public List<SmsBulkRequest> splitBulk(SmsBulkRequest request) {
+        return request.partition(AliyunConstant.MAX_BATCH_PHONE_COUNT);
+    }
+
+    /**
+     * 以一次 SendBatchSms 发送子请求，每个号码携带各自的模板参数
+     */
+    @Override
+    public CompletableFuture<SmsResponse> sendBulkChunkAsync(AliyunSmsConfig config, SmsBulkRequest chunk) {
+        List<AliyunBatchSmsRequest.Entry> entries = new ArrayList<>(chunk.getRecipientCount());
+        for (SmsBulkRequest.Recipient recipient : chunk.recipients()) {
+            entries.add(new AliyunBatchSmsRequest.Entry(recipient.phoneNumber(), chunk.signName(),
+                    recipient.templateParams()));
+        }
+        return sendBatchChunkAsync(config, chunk.templateId(), entries);
+    }
+
+    private CompletableFuture<SmsResponse> sendBatchChunkAsync(AliyunSmsConfig config, String templateCode,
+                                                              List<AliyunBatchSmsRequest.Entry> chunk) {
+        long startTime = System.nanoTime();
+        HttpRequest request;
         try {
             Validator.validate(config);
-            Validator.validate(message);
-            AliyunSmsApiRequest apiReq = buildApiRequest(config, message);
-            String payload = GSON.toJson(apiReq);
-            HttpRequest request = buildSignedHttpRequest(config, payload);
-            ResponseParse<AliyunSmsApiResponse> parser = body -> GSON.fromJson(body, AliyunSmsApiResponse.class);
-            AliyunSmsApiResponse apiResponse = httpClient.doRequest(request, parser);
-            return convertToSmsResponse(apiResponse);
-        } catch (ValidationException e) {
-            throw new MessageSendException("参数校验失败: " + e.getMessage(), e, "VALIDATION_ERROR", type(), channel());
-        } catch (ClientException e) {
-            throw new MessageSendException("Aliyun SMS send failed", e, "ALIYUN_SDK_ERROR", type(), channel());
+            AliyunSmsBatchApiRequest apiReq = buildBatchApiRequest(config, templateCode, chunk);
+            request = buildSignedHttpRequest(config, JsonPayload.of(GSON, apiReq), AliyunConstant.ACTION_SEND_BATCH_SMS);
         } catch (Exception e) {
-            throw new MessageSendException("Unexpected error when sending SMS", e, "UNEXPECTED_ERROR", type(), channel());
+            return CompletableFuture.failedFuture(toSendException(e));
+        }
+        return FutureUtils.transform(
+                httpClient.doRequestAsync(request, RESPONSE_PARSER),
+                apiResponse -> convertToSmsResponse(apiResponse, phonesOf(chunk), startTime, request, null),
+                this::toSendException);
+    }
+
+    private static List<String> phonesOf(List<AliyunBatchSmsRequest.Entry> entries) {
+        List<String> phones = new ArrayList<>(entries.size());
+        for (AliyunBatchSmsRequest.Entry entry : entries) {
+            phones.add(entry.phoneNumber());
+        }
+        return phones;
+    }
+
+    private HttpRequest prepareHttpRequest(AliyunSmsConfig config, SmsRequest message, SendStageTimer timer)
+            throws Exception {
+        Validator.validate(config);
+        Validator.validate(message);
+        if (message.getRecipientCount() > AliyunConstant.MAX_PHONE_COUNT) {
+            throw new ValidationException("phoneNumbers", String.valueOf(message.getRecipientCount()),
+                    "手机号一次发送最多支持" + AliyunConstant.MAX_PHONE_COUNT + "个，更多接收人请使用 sendBatch");
+        }
+        timer.mark(SendStage.VALIDATE);
+        AliyunSmsApiRequest apiReq = buildApiRequest(config, message);
+        timer.mark(SendStage.ADAPT);
+        JsonPayload payload = JsonPayload.of(GSON, apiReq);
+        timer.mark(SendStage.SERIALIZE);
+        HttpRequest request = buildSignedHttpRequest(config, payload, AliyunConstant.ACTION_SEND_SMS);
+        timer.mark(SendStage.SIGN);
+        return request;
+    }
+
+    /**
+     * 记录阶段耗时时包装响应解析器：开始读取响应体时结束 HTTP 阶段，解析结束时结束解析阶段
+     */
+    private static StreamingResponseParse<AliyunSmsApiResponse> responseParser(SendStageTimer timer) {
+        if (!timer.isRecording()) {
+            return RESPONSE_PARSER;
+        }
+        return reader -> {
+            timer.mark(SendStage.HTTP);
+            try {
+                return RESPONSE_PARSER.parse(reader);
+            } finally {
+                timer.mark(SendStage.PARSE);
+            }
+        };
+    }
+
+    private MessageSendException toSendException(Throwable e) {
+        if (e instanceof MessageSendException mse) {
+            return mse;
+        }
+        if (e instanceof ValidationException) {
+            return new MessageSendException("参数校验失败: " + e.getMessage(), e, "VALIDATION_ERROR", type(), channel());
+        }
+        if (e instanceof ClientException ce && RetryBudget.RETRY_BUDGET_EXHAUSTED.equals(ce.getErrorCode())) {
+            return new MessageSendException(ce.getMessage(), e, RetryBudget.RETRY_BUDGET_EXHAUSTED, type(), channel());
+        }
+        if (e instanceof ClientException ce && isVendorError(ce.getErrorCode())) {
+            // 保留阿里云错误码，批量发送的逐接收人结果据此判断能否部分重试
+            return new MessageSendException("Aliyun SMS send failed: " + ce.getMessage(), e, ce.getErrorCode(),
+                    type(), channel());
         }
+        if (e instanceof ClientException) {
+            return new MessageSendException("Aliyun SMS send failed", e, "ALIYUN_SDK_ERROR", type(), channel());
+        }
+        return new MessageSendException("Unexpected error when sending SMS", e, "UNEXPECTED_ERROR", type(), channel());
     }
 
+    /**
+     * 是否为厂商侧错误（内部错误或限流），而非请求本身的问题
+     */
+    private static boolean isVendorError(String code) {
+        return SendErrorCodes.isVendorInternalError(code) || SendErrorCodes.isThrottled(code);
+    }
 
     private AliyunSmsApiRequest buildApiRequest(AliyunSmsConfig config, SmsRequest msg) {
-        // 将 List<String> 转换为逗号分隔的字符串
-        String phoneNumbersStr = String.join(",", msg.phoneNumbers());
-        
         // 将 Map<String, String> 转换为 JSON 字符串
         String templateParamJson = null;
         if (msg.templateParams() != null && !msg.templateParams().isEmpty()) {
             templateParamJson = GSON.toJson(msg.templateParams());
         }
         
+        // 所有号码以逗号分隔放入同一次 SendSms 请求
         return new AliyunSmsApiRequest.Builder()
-                .phoneNumbers(new String[]{msg.getPhoneNumber()})
+                .phoneNumbers(msg.phoneNumbers().toArray(String[]::new))
                 .signName(config.getSignName())
                 .templateCode(msg.templateId())
                 .templateParam(templateParamJson)
                 .build();
     }
 
-    private SmsResponse convertToSmsResponse(AliyunSmsApiResponse apiResponse) {
+    private AliyunSmsBatchApiRequest buildBatchApiRequest(AliyunSmsConfig config, String templateCode,
+                                                          List<AliyunBatchSmsRequest.Entry> entries) {
+        List<String> signNames = new ArrayList<>(entries.size());
+        List<Map<String, String>> params = new ArrayList<>(entries.size());
+        boolean anyParams = false;
+        for (AliyunBatchSmsRequest.Entry entry : entries) {
+            if (!MessageValidator.isValidMobile(entry.phoneNumber())) {
+                throw new ValidationException("phoneNumber", String.valueOf(entry.phoneNumber()), "手机号格式不正确");
+            }
+            signNames.add(entry.signName() != null ? entry.signName() : config.getSignName());
+            Map<String, String> p = entry.templateParams() == null ? Map.of() : entry.templateParams();
+            anyParams |= !p.isEmpty();
+            params.add(p);
+        }
+        return new AliyunSmsBatchApiRequest.Builder()
+                .phoneNumberJson(GSON.toJson(phonesOf(entries)))
+                .signNameJson(GSON.toJson(signNames))
+                .templateCode(templateCode)
+                .templateParamJson(anyParams ? GSON.toJson(params) : null)
+                .build();
+    }
+
+    /**
+     * 转换为统一响应：阿里云对整个请求返回一个 Code 与 BizId，每个号码的结果与之相同
+     */
+    private SmsResponse convertToSmsResponse(AliyunSmsApiResponse apiResponse, List<String> phones, long startTime,
+                                             HttpRequest request, long[] stageNanos) {
         boolean success = "OK".equals(apiResponse.getCode());
-        String code = success ? MessageCode.SUCCESS.name() : MessageCode.FAILED.name();
+        MessageCode code = success ? MessageCode.SUCCESS : MessageCode.FAILED;
+        LocalDateTime now = LocalDateTime.now();
+        List<MessageSendResult> results = new ArrayList<>(phones.size());
+        for (String phone : phones) {
+            MessageSendResult r = new MessageSendResult();
+            r.setReceiver(phone);
+            r.setMessageId(apiResponse.getBizId());
+            r.setSuccess(success);
+            r.setErrorCode(success ? null : apiResponse.getCode());
+            r.setErrorMsg(success ? null : apiResponse.getMessage());
+            r.setSendTime(now);
+            results.add(r);
+        }
 
         return SmsResponse.builder()
                 .rawResponse(apiResponse)
-                .results(null)
+                .results(results)
                 .requestId(apiResponse.getRequestId())
                 .message(success ? "消息发送成功" : apiResponse.getMessage())
                 .channel(channel())
-                .code(code)
+                .code(code.getCode())
+                .responseTime(Duration.ofNanos(System.nanoTime() - startTime))
+                .httpTimings(request.getTimings())
+                .stageNanos(stageNanos)
                 .build();
     }
 
-    private HttpRequest buildSignedHttpRequest(AliyunSmsConfig config, String payload) throws Exception {
+    private HttpRequest buildSignedHttpRequest(AliyunSmsConfig config, JsonPayload payload, String action) {
         // ACS V3（ROA风格）POST 签名示例
-        String host = "dysmsapi.aliyuncs.com";
-        String endpoint = "https://" + host;
+        String host = AliyunConstant.HOST;
+        String endpoint = AliyunConstant.ENDPOINT;
         String uri = "/"; // 统一入口，Action/Version 放在 body 或 query 中；此处放 body
-        byte[] body = payload.getBytes(java.nio.charset.StandardCharsets.UTF_8);
         java.util.Map<String,String> extra = new java.util.LinkedHashMap<>();
-        extra.put("x-acs-action", "SendSms");
-        extra.put("x-acs-version", "2017-05-25");
+        extra.put("x-acs-action", action);
+        extra.put("x-acs-version", AliyunConstant.VERSION);
         extra.put("x-acs-region-id", config.getRegionId());
         java.util.Map<String,String> headers = AliyunSignUtils.buildV3Headers(
                 config.getAccessKeyId(),
@@ -104,17 +332,16 @@ public class AliyunSmsSender implements ISmsSender<AliyunSmsConfig> {
                 host,
                 uri,
                 null,
-                body,
+                payload.sha256Hex(),
                 extra
         );
         return HttpRequest.builder()
                 .url(endpoint + uri)
                 .method(HttpMethod.POST)
                 .contentType(HttpContentType.JSON)
-                .body(payload)
+                .body(payload.bytes())
                 .headers(headers)
+                .recordTimings(HttpConnectionRegistry.shared().isTimingsEnabled())
                 .build();
     }
 }
-
-
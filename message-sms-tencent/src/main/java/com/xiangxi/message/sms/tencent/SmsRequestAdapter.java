@@ -1,9 +1,11 @@
 package com.xiangxi.message.sms.tencent;
 
+import com.xiangxi.message.common.util.MessageValidator;
 import com.xiangxi.message.common.validation.ValidationException;
 import com.xiangxi.message.common.validation.Validator;
 import com.xiangxi.message.sms.model.SmsRequest;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
@@ -20,7 +22,15 @@ public class SmsRequestAdapter {
     /**
      * 单次发送最大手机号数量限制
      */
-    private static final int MAX_PHONE_COUNT = 200;
+    private static final int MAX_PHONE_COUNT = TencentConstant.MAX_PHONE_COUNT;
+
+    /**
+     * 模板参数顺序：腾讯云按位置传参，数字参数名按数值排序（"10" 在 "9" 之后），其余参数名排在其后按字典序
+     */
+    private static final Comparator<String> PARAM_ORDER = Comparator
+            .comparing((String name) -> positionOf(name) < 0)
+            .thenComparingLong(SmsRequestAdapter::positionOf)
+            .thenComparing(Comparator.naturalOrder());
     
     /**
      * 将 SmsRequest 转换为 TencentSmsMessage
@@ -38,7 +48,7 @@ public class SmsRequestAdapter {
         // 转换手机号格式（添加国际区号）
         List<String> phoneNumbers = smsRequest.phoneNumbers();
         if (phoneNumbers.size() > MAX_PHONE_COUNT){
-            throw new ValidationException("手机号一次发送最多支持200个");
+            throw new ValidationException("手机号一次发送最多支持" + MAX_PHONE_COUNT + "个，更多接收人请使用 sendBatch");
         }
 
         List<String> tencentPhones = phoneNumbers.stream()
@@ -56,7 +66,7 @@ public class SmsRequestAdapter {
         if (params != null && !params.isEmpty()) {
             // 按参数名排序，确保顺序一致
             List<String> paramValues = params.entrySet().stream()
-                    .sorted(Map.Entry.comparingByKey())
+                    .sorted(Map.Entry.comparingByKey(PARAM_ORDER))
                     .map(Map.Entry::getValue)
                     .toList();
             builder.addParams(paramValues);
@@ -72,29 +82,36 @@ public class SmsRequestAdapter {
      * @param phoneNumber 原始手机号
      * @return 格式化后的手机号
      */
-    private static String formatPhoneNumber(String phoneNumber) {
+    static String formatPhoneNumber(String phoneNumber) {
         if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("手机号不能为空");
         }
         
         String phone = phoneNumber.trim();
         
-        // 如果已经包含国际区号，直接返回
-        if (phone.startsWith("+")) {
-            return phone;
-        }
-        
-        // 如果是中国手机号，添加+86
-        if (phone.startsWith("1") && phone.length() == 11) {
-            return "+86" + phone;
-        }
-        
-        // 其他情况，假设是中国手机号
-        if (phone.length() == 11) {
-            return "+86" + phone;
+        // 已包含国际区号，或 11 位号码按中国手机号添加 +86
+        if (phone.startsWith("+") || phone.length() == 11) {
+            return MessageValidator.normalizeMobile(phone);
         }
         
         // 如果格式不符合预期，抛出异常
         throw new IllegalArgumentException("无法识别的手机号格式: " + phoneNumber);
     }
+
+    /**
+     * 数字参数名的位置
+     *
+     * @return 参数名为非负整数时返回其数值，否则返回 -1
+     */
+    private static long positionOf(String name) {
+        if (name.isEmpty() || name.length() > 18) {
+            return -1;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return -1;
+            }
+        }
+        return Long.parseLong(name);
+    }
 }
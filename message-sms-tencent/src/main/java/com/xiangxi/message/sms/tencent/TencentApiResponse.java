@@ -0,0 +1,40 @@
+package com.xiangxi.message.sms.tencent;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * 腾讯云 API 响应公共字段
+ * <p>
+ * 腾讯云所有接口的 {@code Response} 对象都包含 RequestId，失败时还包含 Error。
+ * 各接口的成功响应类型继承此类，使 {@link TencentResponseParse} 能在一次读取中
+ * 同时绑定业务字段与错误信息，再根据 Error 判断成功或失败。
+ * </p>
+ *
+ * @author 初心
+ */
+public class TencentApiResponse {
+    @SerializedName("RequestId")
+    @Expose
+    private String requestId;
+
+    @SerializedName("Error")
+    @Expose
+    private TencentSmsApiErrResponse.ErrorInfo error;
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public TencentSmsApiErrResponse.ErrorInfo getError() {
+        return error;
+    }
+
+    public void setError(TencentSmsApiErrResponse.ErrorInfo error) {
+        this.error = error;
+    }
+}
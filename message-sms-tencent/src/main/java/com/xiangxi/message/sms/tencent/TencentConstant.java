@@ -8,4 +8,6 @@ public class TencentConstant {
     public static final String TENCENT_SMS_API_URL = "https://sms.tencentcloudapi.com/";
     public static final String VERSION = "2021-01-11";
     public static final String HOST = "sms.tencentcloudapi.com";
+    /** SendSms 单次请求最多支持的手机号数量 */
+    public static final int MAX_PHONE_COUNT = 200;
 }
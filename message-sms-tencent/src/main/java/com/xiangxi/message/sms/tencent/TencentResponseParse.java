@@ -1,41 +1,76 @@
 package com.xiangxi.message.sms.tencent;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import com.xiangxi.message.client.ClientException;
-import com.xiangxi.message.client.ResponseParse;
+import com.xiangxi.message.client.StreamingResponseParse;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * 腾讯云响应解析器
+ * <p>
+ * 单次流式读取：逐字段扫描外层信封，遇到 {@code Response} 时用目标类型的 {@link TypeAdapter}
+ * 直接绑定（目标类型继承 {@link TencentApiResponse}，Error 与业务字段在同一次读取中完成），
+ * 读取结束后根据 Error 判断成功或失败。不构建中间 JSON 树，也不重复解析。
+ * </p>
+ * <p>
+ * 各目标类型的 TypeAdapter 按 Class 缓存，解析器本身无状态，可作为常量复用。
+ * </p>
+ *
  * @author 初心
  * Create by on 2025/9/22 10:48 00
  */
-public record TencentResponseParse<T>(Class<T> clazz) implements ResponseParse<T> {
+public record TencentResponseParse<T extends TencentApiResponse>(Class<T> clazz) implements StreamingResponseParse<T> {
+
     private static final Gson gson = new Gson();
 
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = new ConcurrentHashMap<>();
+
     @Override
-    public T parse(String body) throws ClientException {
-        TencentResponseJsonModel<TencentSmsApiErrResponse> errResp;
+    public T parse(Reader body) throws ClientException {
+        T response = null;
         try {
-            Type type = new TypeToken<TencentResponseJsonModel<TencentSmsApiErrResponse>>() {
-            }.getType();
-            errResp = gson.fromJson(body, type);
-        } catch (JsonSyntaxException e) {
+            JsonReader in = new JsonReader(body);
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("Response".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                    response = adapter().read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        } catch (MalformedJsonException | JsonParseException | IllegalStateException e) {
             String msg = "json is not a valid representation for an object of type";
             throw new ClientException(msg, e);
+        } catch (IOException e) {
+            // 读取失败（包括响应体超过大小上限），保留原始异常链
+            throw new ClientException("Cannot read response body: " + e.getMessage(), e);
+        }
+
+        if (response == null) {
+            throw new ClientException("Missing Response in Tencent API response");
         }
-        if (errResp.getResponse().getError() == null) {
-            Type successType = TypeToken.getParameterized(TencentResponseJsonModel.class, clazz).getType();
-            TencentResponseJsonModel<T> respModel = gson.fromJson(body, successType);
-            return respModel.getResponse();
-        } else {
+        if (response.getError() != null) {
             throw new ClientException(
-                    errResp.getResponse().getError().getMessage(),
-                    errResp.getResponse().getRequestId(),
-                    errResp.getResponse().getError().getCode()
+                    response.getError().getMessage(),
+                    response.getRequestId(),
+                    response.getError().getCode()
             );
         }
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypeAdapter<T> adapter() {
+        return (TypeAdapter<T>) ADAPTERS.computeIfAbsent(clazz, gson::getAdapter);
     }
 }
@@ -0,0 +1,205 @@
+package com.xiangxi.message.sms.tencent;
+
+import com.xiangxi.message.common.util.CryptoUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 腾讯云 TC3-HMAC-SHA256 签名器
+ *
+ * <p>与 {@link TencentSignUtils#generateAuthorization} 结果一致，但针对高频发送做了缓存：</p>
+ * <ul>
+ *   <li>派生密钥 secretSigning（secretDate → secretService → secretSigning 三次 HMAC）只随 UTC 日期变化，
+ *       按 (secretKey, service) 缓存，日期变化时重新派生；</li>
+ *   <li>摘要与 HMAC 计算使用 {@link CryptoUtils} 的池化实例与查表十六进制编码；</li>
+ *   <li>UTC 日期字符串按天缓存，不再每次创建 {@code SimpleDateFormat}。</li>
+ * </ul>
+ * <p>每次签名的开销为：请求体与规范请求串各一次 SHA-256，加一次 HMAC-SHA256。</p>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * TencentSigner.Signature signature = TencentSigner.shared().sign(
+ *     secretId, secretKey, TencentConstant.HOST, "sms", "SendSms", payload);
+ * request.header("Authorization", signature.authorization())
+ *        .header("X-TC-Timestamp", String.valueOf(signature.timestamp()));
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public final class TencentSigner {
+
+    private static final String ALGORITHM = "TC3-HMAC-SHA256";
+    private static final String TERMINATOR = "tc3_request";
+    private static final String SIGNED_HEADERS = "content-type;host;x-tc-action";
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private static final TencentSigner SHARED = new TencentSigner();
+
+    /**
+     * 派生密钥缓存，key 为 (secretKey, service)
+     */
+    private final Map<KeyScope, SigningKey> signingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 当前 UTC 日期缓存
+     */
+    private volatile UtcDay today = new UtcDay(-1, "");
+
+    /**
+     * 获取共享签名器
+     *
+     * @return 签名器实例
+     */
+    public static TencentSigner shared() {
+        return SHARED;
+    }
+
+    /**
+     * 使用当前时间生成签名
+     *
+     * @param secretId  密钥ID
+     * @param secretKey 密钥
+     * @param host      请求主机
+     * @param service   服务名，如 sms
+     * @param action    操作名，如 SendSms
+     * @param payload   请求体
+     * @return 签名结果（Authorization 头与参与签名的时间戳）
+     */
+    public Signature sign(String secretId, String secretKey, String host, String service, String action, String payload) {
+        return sign(secretId, secretKey, host, service, action, payload, System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * 使用指定时间戳生成签名
+     *
+     * @param secretId  密钥ID
+     * @param secretKey 密钥
+     * @param host      请求主机
+     * @param service   服务名，如 sms
+     * @param action    操作名，如 SendSms
+     * @param payload   请求体
+     * @param timestamp 时间戳（秒）
+     * @return 签名结果（Authorization 头与参与签名的时间戳）
+     */
+    public Signature sign(String secretId, String secretKey, String host, String service, String action,
+                          String payload, long timestamp) {
+        return signHashed(secretId, secretKey, host, service, action, CryptoUtils.sha256Hex(payload), timestamp);
+    }
+
+    /**
+     * 使用预先计算的请求体摘要和当前时间生成签名
+     *
+     * @param secretId         密钥ID
+     * @param secretKey        密钥
+     * @param host             请求主机
+     * @param service          服务名，如 sms
+     * @param action           操作名，如 SendSms
+     * @param payloadSha256Hex 请求体 SHA-256 摘要的小写十六进制，见 {@link com.xiangxi.message.common.util.JsonPayload}
+     * @return 签名结果（Authorization 头与参与签名的时间戳）
+     */
+    public Signature signHashed(String secretId, String secretKey, String host, String service, String action,
+                                String payloadSha256Hex) {
+        return signHashed(secretId, secretKey, host, service, action, payloadSha256Hex, System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * 使用预先计算的请求体摘要和指定时间戳生成签名
+     *
+     * @param secretId         密钥ID
+     * @param secretKey        密钥
+     * @param host             请求主机
+     * @param service          服务名，如 sms
+     * @param action           操作名，如 SendSms
+     * @param payloadSha256Hex 请求体 SHA-256 摘要的小写十六进制
+     * @param timestamp        时间戳（秒）
+     * @return 签名结果（Authorization 头与参与签名的时间戳）
+     */
+    public Signature signHashed(String secretId, String secretKey, String host, String service, String action,
+                                String payloadSha256Hex, long timestamp) {
+        String date = utcDate(timestamp);
+
+        // ************* 步骤 1：拼接规范请求串 *************
+        String canonicalRequest = "POST\n/\n\n"
+                + "content-type:application/json; charset=utf-8\n"
+                + "host:" + host + "\n"
+                + "x-tc-action:" + action.toLowerCase() + "\n\n"
+                + SIGNED_HEADERS + "\n"
+                + payloadSha256Hex;
+
+        // ************* 步骤 2：拼接待签名字符串 *************
+        String credentialScope = date + "/" + service + "/" + TERMINATOR;
+        StringBuilder stringToSign = new StringBuilder(160)
+                .append(ALGORITHM).append('\n').append(timestamp).append('\n')
+                .append(credentialScope).append('\n');
+        CryptoUtils.appendHex(stringToSign, CryptoUtils.sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        // ************* 步骤 3：计算签名（派生密钥按天缓存） *************
+        byte[] signature = CryptoUtils.hmacSha256(signingKey(secretKey, service, date), stringToSign.toString());
+
+        // ************* 步骤 4：拼接 Authorization *************
+        StringBuilder authorization = new StringBuilder(192)
+                .append(ALGORITHM).append(" Credential=").append(secretId).append('/').append(credentialScope)
+                .append(", SignedHeaders=").append(SIGNED_HEADERS).append(", Signature=");
+        CryptoUtils.appendHex(authorization, signature);
+        return new Signature(authorization.toString(), timestamp);
+    }
+
+    /**
+     * 获取（必要时重新派生）签名密钥
+     */
+    private SecretKeySpec signingKey(String secretKey, String service, String date) {
+        KeyScope scope = new KeyScope(secretKey, service);
+        SigningKey cached = signingKeys.get(scope);
+        if (cached != null && cached.date().equals(date)) {
+            return cached.key();
+        }
+        byte[] secretDate = CryptoUtils.hmacSha256(("TC3" + secretKey).getBytes(StandardCharsets.UTF_8),
+                date.getBytes(StandardCharsets.UTF_8));
+        byte[] secretService = CryptoUtils.hmacSha256(secretDate, service.getBytes(StandardCharsets.UTF_8));
+        byte[] secretSigning = CryptoUtils.hmacSha256(secretService, TERMINATOR.getBytes(StandardCharsets.UTF_8));
+        SecretKeySpec key = new SecretKeySpec(secretSigning, CryptoUtils.HMAC_SHA256);
+        signingKeys.put(scope, new SigningKey(date, key));
+        return key;
+    }
+
+    /**
+     * 获取时间戳对应的 UTC 日期（yyyy-MM-dd），同一天内直接返回缓存
+     */
+    private String utcDate(long timestamp) {
+        long epochDay = Math.floorDiv(timestamp, SECONDS_PER_DAY);
+        UtcDay current = today;
+        if (current.epochDay() == epochDay) {
+            return current.date();
+        }
+        String date = LocalDate.ofEpochDay(epochDay).toString();
+        today = new UtcDay(epochDay, date);
+        return date;
+    }
+
+    /**
+     * 签名结果
+     *
+     * @param authorization Authorization 请求头
+     * @param timestamp     参与签名的时间戳（秒），须作为 X-TC-Timestamp 请求头发送
+     */
+    public record Signature(String authorization, long timestamp) {
+    }
+
+    private record KeyScope(String secretKey, String service) {
+        @Override
+        public String toString() {
+            return "KeyScope[service=" + service + "]";
+        }
+    }
+
+    private record SigningKey(String date, SecretKeySpec key) {
+    }
+
+    private record UtcDay(long epochDay, String date) {
+    }
+}
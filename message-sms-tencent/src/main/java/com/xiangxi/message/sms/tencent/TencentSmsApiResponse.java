@@ -9,20 +9,13 @@ import java.util.List;
  * @author 初心
  * Create by on 2025/9/22 10:51 46
  */
-public class TencentSmsApiResponse {
+public class TencentSmsApiResponse extends TencentApiResponse {
     @SerializedName("SendStatusSet")
     @Expose
     private List<SendStatus> sendStatusSet;
 
-    @SerializedName("RequestId")
-    @Expose
-    private String requestId;
-
     public List<SendStatus> getSendStatusSet() { return sendStatusSet; }
     public void setSendStatusSet(List<SendStatus> sendStatusSet) { this.sendStatusSet = sendStatusSet; }
-
-    public String getRequestId() { return requestId; }
-    public void setRequestId(String requestId) { this.requestId = requestId; }
     
     /**
      * 判断是否成功
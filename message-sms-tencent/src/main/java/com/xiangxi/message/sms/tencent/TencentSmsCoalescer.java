@@ -0,0 +1,412 @@
+package com.xiangxi.message.sms.tencent;
+
+import com.xiangxi.message.common.enums.MessageCode;
+import com.xiangxi.message.common.exception.MessageSendException;
+import com.xiangxi.message.common.model.MessageSendResult;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.sms.ISmsSender;
+import com.xiangxi.message.sms.SmsBatchExecutor;
+import com.xiangxi.message.sms.model.SmsRequest;
+import com.xiangxi.message.sms.model.SmsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 腾讯云短信微批合并发送器
+ *
+ * <p>位于 {@link TencentSmsSender} 之前的可选阶段：将短时间内到达的、内容相同的请求合并为一次 SendSms 调用。
+ * 腾讯云单次调用最多支持 200 个手机号，只要模板与参数一致，营销类同内容流量可大幅减少 HTTP 调用次数。</p>
+ *
+ * <ul>
+ *   <li>合并键为 (config, templateId, templateParams, signName)，config 按实例区分，请复用同一配置对象；</li>
+ *   <li>某个合并键的第一个请求到达后开始计时，等待 linger 时长或凑满 maxBatchSize 个号码后发送；</li>
+ *   <li>调用完成后按手机号拆分 SendStatus，每个调用方只拿到自己号码的结果；
+ *       整体调用失败时，该批所有调用方以同一个 {@link MessageSendException} 失败；</li>
+ *   <li>校验不通过、号码数超过 maxBatchSize 或合并器已关闭时，请求不参与合并，直接交给 {@link TencentSmsSender}。</li>
+ * </ul>
+ *
+ * <p>合并器不通过 SPI 注册，需显式创建并在发送时替代 {@link TencentSmsSender}：</p>
+ * <pre>{@code
+ * TencentSmsCoalescer coalescer = new TencentSmsCoalescer(new TencentSmsSender(), Duration.ofMillis(5), 200);
+ * CompletableFuture<SmsResponse> future = coalescer.sendAsync(config, SmsRequest.of(phone, templateId, params));
+ * // 应用关闭时
+ * coalescer.close();
+ * }</pre>
+ *
+ * @author 初心
+ * @since 1.0.0
+ */
+public class TencentSmsCoalescer implements ISmsSender<TencentSmsConfig>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TencentSmsCoalescer.class);
+
+    /**
+     * 默认等待时长
+     */
+    public static final Duration DEFAULT_LINGER = Duration.ofMillis(5);
+
+    /**
+     * 合并后未返回对应号码状态时使用的错误码
+     */
+    public static final String MISSING_STATUS = "TENCENT_MISSING_SEND_STATUS";
+
+    private final TencentSmsSender delegate;
+    private final long lingerNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+
+    /**
+     * 正在收集中的批次，访问需持有 {@code open} 的锁
+     */
+    private final Map<BatchKey, Batch> open = new HashMap<>();
+
+    /**
+     * 使用默认等待时长与腾讯云单次上限创建合并器
+     *
+     * @param delegate 实际发送器
+     */
+    public TencentSmsCoalescer(TencentSmsSender delegate) {
+        this(delegate, DEFAULT_LINGER, TencentConstant.MAX_PHONE_COUNT);
+    }
+
+    /**
+     * 创建合并器
+     *
+     * @param delegate     实际发送器
+     * @param linger       批次最长等待时长
+     * @param maxBatchSize 每批最多号码数，不能超过 {@link TencentConstant#MAX_PHONE_COUNT}
+     */
+    public TencentSmsCoalescer(TencentSmsSender delegate, Duration linger, int maxBatchSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (linger == null || linger.isNegative()) {
+            throw new IllegalArgumentException("linger must be non-negative");
+        }
+        if (maxBatchSize <= 0 || maxBatchSize > TencentConstant.MAX_PHONE_COUNT) {
+            throw new IllegalArgumentException("maxBatchSize must be between 1 and " + TencentConstant.MAX_PHONE_COUNT);
+        }
+        this.delegate = delegate;
+        this.lingerNanos = linger.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "message-sdk-sms-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String type() {
+        return delegate.type();
+    }
+
+    @Override
+    public String channel() {
+        return delegate.channel();
+    }
+
+    @Override
+    public String accountKey(TencentSmsConfig config) {
+        return delegate.accountKey(config);
+    }
+
+    @Override
+    public int maxRecipientsPerRequest() {
+        return delegate.maxRecipientsPerRequest();
+    }
+
+    @Override
+    public SmsResponse send(TencentSmsConfig config, SmsRequest request) throws MessageSendException {
+        CompletableFuture<SmsResponse> future = sendAsync(config, request);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MessageSendException("Send interrupted", e, "INTERRUPTED", type(), channel());
+        } catch (Exception e) {
+            Throwable cause = FutureUtils.unwrap(e);
+            if (cause instanceof MessageSendException mse) {
+                throw mse;
+            }
+            throw new MessageSendException("Unexpected error when sending SMS", cause, "UNEXPECTED_ERROR", type(), channel());
+        }
+    }
+
+    /**
+     * 异步发送：请求进入合并批次，批次发送完成后以本请求号码对应的结果完成
+     */
+    @Override
+    public CompletableFuture<SmsResponse> sendAsync(TencentSmsConfig config, SmsRequest request) {
+        Pending pending = timer.isShutdown() ? null : toPending(request);
+        if (config == null || pending == null) {
+            return delegate.sendAsync(config, request);
+        }
+        BatchKey key = new BatchKey(config, request.templateId(),
+                request.templateParams() == null ? Map.of() : request.templateParams(), request.signName());
+        Batch full = null;
+        Batch displaced = null;
+        synchronized (open) {
+            Batch batch = open.get(key);
+            if (batch != null && !batch.accepts(pending, maxBatchSize)) {
+                open.remove(key);
+                displaced = batch;
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch(key);
+                open.put(key, batch);
+                schedule(batch);
+            }
+            batch.add(pending);
+            if (batch.phoneCount >= maxBatchSize) {
+                open.remove(key);
+                full = batch;
+            }
+        }
+        if (displaced != null) {
+            flush(displaced);
+        }
+        if (full != null) {
+            flush(full);
+        }
+        return pending.future;
+    }
+
+    /**
+     * 立即发送所有收集中的批次
+     */
+    public void flushAll() {
+        List<Batch> batches;
+        synchronized (open) {
+            batches = new ArrayList<>(open.values());
+            open.clear();
+        }
+        batches.forEach(this::flush);
+    }
+
+    /**
+     * 发送所有收集中的批次并停止计时器
+     */
+    @Override
+    public void close() {
+        flushAll();
+        timer.shutdown();
+        log.debug("TencentSmsCoalescer closed");
+    }
+
+    /**
+     * 校验请求并规范化号码；不适合合并时返回 null
+     */
+    private Pending toPending(SmsRequest request) {
+        if (request == null || request.getRecipientCount() == 0 || request.getRecipientCount() > maxBatchSize) {
+            return null;
+        }
+        try {
+            request.validate();
+            List<String> phones = new ArrayList<>(request.getRecipientCount());
+            for (String phone : request.phoneNumbers()) {
+                phones.add(SmsRequestAdapter.formatPhoneNumber(phone));
+            }
+            if (new HashSet<>(phones).size() != phones.size()) {
+                return null;
+            }
+            return new Pending(request, phones, new CompletableFuture<>());
+        } catch (RuntimeException e) {
+            // 交给实际发送器，以统一的异常形式失败
+            return null;
+        }
+    }
+
+    private void schedule(Batch batch) {
+        timer.schedule(() -> {
+            synchronized (open) {
+                if (open.get(batch.key) != batch) {
+                    return;
+                }
+                open.remove(batch.key);
+            }
+            flush(batch);
+        }, lingerNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 发送批次并按号码拆分结果
+     */
+    private void flush(Batch batch) {
+        if (batch.pendings.size() == 1) {
+            Pending only = batch.pendings.getFirst();
+            delegate.sendAsync(batch.key.config(), only.request).whenComplete((response, error) -> {
+                if (error != null) {
+                    only.future.completeExceptionally(FutureUtils.unwrap(error));
+                } else {
+                    only.future.complete(response);
+                }
+            });
+            return;
+        }
+        List<String> phones = new ArrayList<>(batch.phoneCount);
+        for (Pending pending : batch.pendings) {
+            phones.addAll(pending.phones);
+        }
+        SmsRequest first = batch.pendings.getFirst().request;
+        SmsRequest merged = new SmsRequest(phones, first.templateId(), first.templateParams(),
+                first.signName(), first.properties());
+        if (log.isDebugEnabled()) {
+            log.debug("Flushing coalesced batch: templateId={}, callers={}, phones={}",
+                    first.templateId(), batch.pendings.size(), phones.size());
+        }
+        delegate.sendAsync(batch.key.config(), merged).whenComplete((response, error) -> {
+            if (error != null) {
+                Throwable cause = FutureUtils.unwrap(error);
+                batch.pendings.forEach(p -> p.future.completeExceptionally(cause));
+                return;
+            }
+            distribute(batch, response);
+        });
+    }
+
+    /**
+     * 按号码将合并响应拆分给各调用方
+     */
+    private void distribute(Batch batch, SmsResponse response) {
+        Map<String, MessageSendResult> byPhone = new HashMap<>();
+        if (response.getResults() != null) {
+            for (MessageSendResult result : response.getResults()) {
+                if (result.getReceiver() != null) {
+                    byPhone.put(SmsRequestAdapter.formatPhoneNumber(result.getReceiver()), result);
+                }
+            }
+        }
+        Map<String, TencentSmsApiResponse.SendStatus> statuses = new HashMap<>();
+        TencentSmsApiResponse raw = response.getRawResponse() instanceof TencentSmsApiResponse r ? r : null;
+        if (raw != null && raw.getSendStatusSet() != null) {
+            for (TencentSmsApiResponse.SendStatus status : raw.getSendStatusSet()) {
+                if (status.getPhoneNumber() != null) {
+                    statuses.put(status.getPhoneNumber(), status);
+                }
+            }
+        }
+        for (Pending pending : batch.pendings) {
+            List<MessageSendResult> results = new ArrayList<>(pending.phones.size());
+            List<TencentSmsApiResponse.SendStatus> ownStatuses = new ArrayList<>(pending.phones.size());
+            for (String phone : pending.phones) {
+                MessageSendResult result = byPhone.get(phone);
+                results.add(result != null ? result : missing(phone));
+                TencentSmsApiResponse.SendStatus status = statuses.get(phone);
+                if (status != null) {
+                    ownStatuses.add(status);
+                }
+            }
+            Object ownRaw = raw;
+            if (raw != null) {
+                TencentSmsApiResponse own = new TencentSmsApiResponse();
+                own.setRequestId(raw.getRequestId());
+                own.setError(raw.getError());
+                own.setSendStatusSet(ownStatuses);
+                ownRaw = own;
+            }
+            MessageCode code = SmsBatchExecutor.aggregate(results);
+            pending.future.complete(SmsResponse.builder()
+                    .channel(response.getChannel())
+                    .code(code.getCode())
+                    .message(code.getDescription())
+                    .requestId(response.getRequestId())
+                    .results(results)
+                    .rawResponse(ownRaw)
+                    .timingsFrom(response)
+                    .build());
+        }
+    }
+
+    private static MessageSendResult missing(String phone) {
+        MessageSendResult result = new MessageSendResult();
+        result.setReceiver(phone);
+        result.setSuccess(false);
+        result.setErrorCode(MISSING_STATUS);
+        result.setErrorMsg("No SendStatus returned for " + phone);
+        result.setSendTime(LocalDateTime.now());
+        return result;
+    }
+
+    /**
+     * 合并键；config 按实例比较
+     */
+    private record BatchKey(TencentSmsConfig config, String templateId, Map<String, String> templateParams,
+                            String signName) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BatchKey other
+                    && config == other.config
+                    && Objects.equals(templateId, other.templateId)
+                    && templateParams.equals(other.templateParams)
+                    && Objects.equals(signName, other.signName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * System.identityHashCode(config) + Objects.hashCode(templateId))
+                    + templateParams.hashCode()) + Objects.hashCode(signName);
+        }
+    }
+
+    /**
+     * 单个调用方的请求
+     *
+     * @param request 原始请求
+     * @param phones  规范化后的号码（E.164）
+     * @param future  调用方的 Future
+     */
+    private record Pending(SmsRequest request, List<String> phones, CompletableFuture<SmsResponse> future) {
+    }
+
+    /**
+     * 收集中的批次，仅在持有 {@code open} 的锁时修改
+     */
+    private static final class Batch {
+        private final BatchKey key;
+        private final List<Pending> pendings = new ArrayList<>();
+        private final Set<String> phones = new HashSet<>();
+        private int phoneCount;
+
+        Batch(BatchKey key) {
+            this.key = key;
+        }
+
+        /**
+         * 容量足够且号码不重复时可加入；同一号码在一次调用中重复会使结果无法区分调用方
+         */
+        boolean accepts(Pending pending, int maxBatchSize) {
+            if (phoneCount + pending.phones.size() > maxBatchSize) {
+                return false;
+            }
+            for (String phone : pending.phones) {
+                if (phones.contains(phone)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(Pending pending) {
+            pendings.add(pending);
+            phones.addAll(pending.phones);
+            phoneCount += pending.phones.size();
+        }
+    }
+}
@@ -4,23 +4,33 @@ package com.xiangxi.message.sms.tencent;
 import com.google.gson.Gson;
 import com.xiangxi.message.client.ClientException;
 import com.xiangxi.message.client.HttpClient;
+import com.xiangxi.message.client.HttpConnectionRegistry;
 import com.xiangxi.message.client.HttpRequest;
+import com.xiangxi.message.client.StreamingResponseParse;
 import com.xiangxi.message.client.enums.HttpContentType;
 import com.xiangxi.message.client.enums.HttpMethod;
 import com.xiangxi.message.common.enums.MessageType;
 import com.xiangxi.message.common.enums.MessageCode;
 import com.xiangxi.message.common.enums.SmsChannel;
+import com.xiangxi.message.common.model.HttpTimings;
 import com.xiangxi.message.common.model.MessageSendResult;
+import com.xiangxi.message.common.util.FutureUtils;
+import com.xiangxi.message.common.util.JsonPayload;
+import com.xiangxi.message.common.util.RetryBudget;
 import com.xiangxi.message.common.validation.ValidationException;
 import com.xiangxi.message.common.validation.Validator;
 import com.xiangxi.message.common.exception.MessageSendException;
 import com.xiangxi.message.sms.ISmsSender;
+import com.xiangxi.message.sms.SendStageTimer;
+import com.xiangxi.message.sms.model.SendStage;
 import com.xiangxi.message.sms.model.SmsRequest;
 import com.xiangxi.message.sms.model.SmsResponse;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author 初心
@@ -30,12 +40,16 @@ public class TencentSmsSender implements ISmsSender<TencentSmsConfig> {
 
     private final HttpClient httpClient;
     private static final Gson GSON = new Gson();
+    private static final TencentResponseParse<TencentSmsApiResponse> RESPONSE_PARSER =
+            new TencentResponseParse<>(TencentSmsApiResponse.class);
 
     public TencentSmsSender() {
         this.httpClient = new HttpClient.Builder()
+                .sharedHost(TencentConstant.HOST)
                 .connectTimeout(60)
                 .readTimeout(60)
                 .defaultHeader("Content-Type", HttpContentType.JSON.value())
+                .retryBudgetKey(routeKey())
                 .build();
     }
 
@@ -49,37 +63,117 @@ public class TencentSmsSender implements ISmsSender<TencentSmsConfig> {
         return SmsChannel.TENCENT_SMS.getChannelName();
     }
 
+    @Override
+    public String accountKey(TencentSmsConfig config) {
+        return config.getSdkAppId();
+    }
+
+    @Override
+    public int maxRecipientsPerRequest() {
+        return TencentConstant.MAX_PHONE_COUNT;
+    }
+
     @Override
     public SmsResponse send(TencentSmsConfig config, SmsRequest request) throws MessageSendException {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        SendStageTimer timer = SendStageTimer.start();
         try {
-            // 校验配置参数
-            Validator.validate(config);
-            // 转换为腾讯云格式
-            TencentSmsMessage message = SmsRequestAdapter.toTencentSmsMessage(request);
-            // 校验消息参数
-            Validator.validate(message);
-            // 构建 API 请求体与签名后的 HttpRequest
-            TencentSmsApiRequest apiRequest = buildApiRequest(config, message);
-            String payload = GSON.toJson(apiRequest);
-            HttpRequest httpRequest = buildSignedHttpRequest(config, message, payload);
-
+            HttpRequest httpRequest = prepareHttpRequest(config, request, timer);
             // 发送请求并解析响应
-            TencentResponseParse<TencentSmsApiResponse> parser = new TencentResponseParse<>(TencentSmsApiResponse.class);
-            TencentSmsApiResponse response = httpClient.doRequest(httpRequest, parser);
+            TencentSmsApiResponse response = httpClient.doRequest(httpRequest, responseParser(timer));
             // 转换为统一响应格式
-            long responseTime = System.currentTimeMillis() - startTime;
-            return convertToSmsResponse(response, request, responseTime);
-        } catch (ValidationException e) {
-            throw new MessageSendException("参数校验失败: " + e.getMessage(), e, "VALIDATION_ERROR", type(), channel());
-        } catch (ClientException e) {
-            throw new MessageSendException("Tencent SMS send failed", e, "TENCENT_SDK_ERROR", type(), channel());
+            return convertToSmsResponse(response, request, Duration.ofNanos(System.nanoTime() - startTime),
+                    httpRequest.getTimings(), timer.stageNanos());
         } catch (Exception e) {
-            // 兜底防御，避免意外 NPE 等导致未包装抛出
-            throw new MessageSendException("Unexpected error when sending SMS", e, "UNEXPECTED_ERROR", type(), channel());
+            throw toSendException(e);
         }
     }
 
+    /**
+     * 异步发送短信
+     * <p>
+     * 校验、转换与签名在调用线程上完成，HTTP 调用通过 OkHttp {@code Call.enqueue} 执行，
+     * 不占用调用线程等待腾讯云响应。取消返回的 Future 会取消底层 HTTP 调用。
+     * </p>
+     */
+    @Override
+    public CompletableFuture<SmsResponse> sendAsync(TencentSmsConfig config, SmsRequest request) {
+        long startTime = System.nanoTime();
+        SendStageTimer timer = SendStageTimer.start();
+        HttpRequest httpRequest;
+        try {
+            httpRequest = prepareHttpRequest(config, request, timer);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(toSendException(e));
+        }
+        return FutureUtils.transform(
+                httpClient.doRequestAsync(httpRequest, responseParser(timer)),
+                response -> convertToSmsResponse(response, request, Duration.ofNanos(System.nanoTime() - startTime),
+                        httpRequest.getTimings(), timer.stageNanos()),
+                this::toSendException);
+    }
+
+    /**
+     * 校验参数并构建签名后的 HttpRequest，各步骤耗时计入对应阶段
+     */
+    private HttpRequest prepareHttpRequest(TencentSmsConfig config, SmsRequest request, SendStageTimer timer)
+            throws Exception {
+        // 校验配置参数
+        Validator.validate(config);
+        timer.mark(SendStage.VALIDATE);
+        // 转换为腾讯云格式
+        TencentSmsMessage message = SmsRequestAdapter.toTencentSmsMessage(request);
+        timer.mark(SendStage.ADAPT);
+        // 校验消息参数
+        Validator.validate(message);
+        timer.mark(SendStage.VALIDATE);
+        // 构建 API 请求体与签名后的 HttpRequest
+        TencentSmsApiRequest apiRequest = buildApiRequest(config, message);
+        timer.mark(SendStage.ADAPT);
+        JsonPayload payload = JsonPayload.of(GSON, apiRequest);
+        timer.mark(SendStage.SERIALIZE);
+        HttpRequest httpRequest = buildSignedHttpRequest(config, message, payload);
+        timer.mark(SendStage.SIGN);
+        return httpRequest;
+    }
+
+    /**
+     * 记录阶段耗时时包装响应解析器：开始读取响应体时结束 HTTP 阶段，解析结束（含抛出业务错误）时结束解析阶段
+     */
+    private static StreamingResponseParse<TencentSmsApiResponse> responseParser(SendStageTimer timer) {
+        if (!timer.isRecording()) {
+            return RESPONSE_PARSER;
+        }
+        return reader -> {
+            timer.mark(SendStage.HTTP);
+            try {
+                return RESPONSE_PARSER.parse(reader);
+            } finally {
+                timer.mark(SendStage.PARSE);
+            }
+        };
+    }
+
+    /**
+     * 将发送过程中的异常转换为统一的 {@link MessageSendException}
+     */
+    private MessageSendException toSendException(Throwable e) {
+        if (e instanceof MessageSendException mse) {
+            return mse;
+        }
+        if (e instanceof ValidationException) {
+            return new MessageSendException("参数校验失败: " + e.getMessage(), e, "VALIDATION_ERROR", type(), channel());
+        }
+        if (e instanceof ClientException ce && RetryBudget.RETRY_BUDGET_EXHAUSTED.equals(ce.getErrorCode())) {
+            return new MessageSendException(ce.getMessage(), e, RetryBudget.RETRY_BUDGET_EXHAUSTED, type(), channel());
+        }
+        if (e instanceof ClientException) {
+            return new MessageSendException("Tencent SMS send failed", e, "TENCENT_SDK_ERROR", type(), channel());
+        }
+        // 兜底防御，避免意外 NPE 等导致未包装抛出
+        return new MessageSendException("Unexpected error when sending SMS", e, "UNEXPECTED_ERROR", type(), channel());
+    }
+
     /**
      * 构建API请求
      */
@@ -96,29 +190,28 @@ public class TencentSmsSender implements ISmsSender<TencentSmsConfig> {
     /**
      * 构建带签名的 HttpRequest。
      */
-    private HttpRequest buildSignedHttpRequest(TencentSmsConfig config, TencentSmsMessage message, String payload) throws Exception {
-        String authorization = TencentSignUtils.generateAuthorization(
+    private HttpRequest buildSignedHttpRequest(TencentSmsConfig config, TencentSmsMessage message, JsonPayload payload) {
+        TencentSigner.Signature signature = TencentSigner.shared().signHashed(
                 config.getSecretId(),
                 config.getSecretKey(),
                 TencentConstant.HOST,
                 TencentSmsConfig.SERVICE,
                 message.getAction(),
-                payload
+                payload.sha256Hex()
         );
 
-        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
-
         return HttpRequest.builder()
                 .url(TencentConstant.TENCENT_SMS_API_URL)
                 .method(HttpMethod.POST)
                 .contentType(HttpContentType.JSON)
-                .body(payload)
+                .body(payload.bytes())
                 .header("Host", TencentConstant.HOST)
-                .header("Authorization", authorization)
+                .header("Authorization", signature.authorization())
                 .header("X-TC-Action", message.getAction())
-                .header("X-TC-Timestamp", timestamp)
+                .header("X-TC-Timestamp", String.valueOf(signature.timestamp()))
                 .header("X-TC-Version", TencentConstant.VERSION)
                 .header("X-TC-Region", config.getRegion())
+                .recordTimings(HttpConnectionRegistry.shared().isTimingsEnabled())
                 .build();
     }
 
@@ -126,7 +219,8 @@ public class TencentSmsSender implements ISmsSender<TencentSmsConfig> {
     /**
      * 转换为统一响应格式（支持部分成功）
      */
-    private SmsResponse convertToSmsResponse(TencentSmsApiResponse apiResponse, SmsRequest request, long responseTime) {
+    private SmsResponse convertToSmsResponse(TencentSmsApiResponse apiResponse, SmsRequest request, Duration responseTime,
+                                             HttpTimings httpTimings, long[] stageNanos) {
         if (apiResponse == null || apiResponse.getSendStatusSet() == null) {
         List<MessageSendResult> results = new ArrayList<>();
         for (String phone : request.phoneNumbers()) {
@@ -145,6 +239,9 @@ public class TencentSmsSender implements ISmsSender<TencentSmsConfig> {
                 .message(MessageCode.FAILED.getDescription())   // 枚举描述
                 .channel(channel())
                 .code(MessageCode.FAILED.getCode())             // 枚举code
+                .responseTime(responseTime)
+                .httpTimings(httpTimings)
+                .stageNanos(stageNanos)
                 .build();
     }
 
@@ -165,6 +262,9 @@ public class TencentSmsSender implements ISmsSender<TencentSmsConfig> {
             .message(finalCode.getDescription())   // 用统一描述
             .channel(channel())
             .code(finalCode.getCode())             // 用统一code
+            .responseTime(responseTime)
+            .httpTimings(httpTimings)
+            .stageNanos(stageNanos)
             .build();
     }
 }